@@ -2,8 +2,10 @@ package in.sourabh.electrician;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ElectricianManagementApplication {
 
 	public static void main(String[] args) {
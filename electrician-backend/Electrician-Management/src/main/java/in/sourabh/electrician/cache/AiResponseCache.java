@@ -0,0 +1,185 @@
+package in.sourabh.electrician.cache;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Answer cache in front of the AI assistant.
+ *
+ * Prompts are keyed on a normalized form (lower case, punctuation and repeated
+ * whitespace folded), so "How do I book?" and "how do i book" share an entry. On a
+ * miss, an optional trigram similarity scan can reuse the answer of a near-identical
+ * cached prompt. Concurrent misses for the same key are coalesced onto one upstream
+ * call. Only answers the loader returns normally are cached; failures propagate.
+ */
+@Component
+public class AiResponseCache {
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Value("${ai.cache.max-size:1000}")
+    private int maxSize;
+
+    @Value("${ai.cache.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    // 0 disables similarity matching; exact normalized matches only
+    @Value("${ai.cache.similarity-threshold:0.9}")
+    private double similarityThreshold;
+
+    private LruCache<String, CachedAnswer> answers;
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong similarHits = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong savedNanos = new AtomicLong();
+
+    private record CachedAnswer(String answer, Set<String> trigrams, long upstreamNanos) {
+    }
+
+    @PostConstruct
+    void init() {
+        answers = new LruCache<>(maxSize, Duration.ofMinutes(ttlMinutes));
+    }
+
+    public String get(String prompt, Supplier<String> loader) {
+        String key = normalize(prompt);
+
+        String cached = lookupKey(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.incrementAndGet();
+            return join(leader);
+        }
+
+        try {
+            long start = System.nanoTime();
+            String answer = loader.get();
+            storeKey(key, answer, System.nanoTime() - start);
+            mine.complete(answer);
+            return answer;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Cached answer for the prompt (exact or similar), or null. Used by streaming, which
+     * cannot go through the single-flight loader.
+     */
+    public String lookup(String prompt) {
+        return lookupKey(normalize(prompt));
+    }
+
+    public void store(String prompt, String answer, long upstreamNanos) {
+        storeKey(normalize(prompt), answer, upstreamNanos);
+    }
+
+    private String lookupKey(String key) {
+        CachedAnswer cached = answers.get(key);
+        if (cached == null && similarityThreshold > 0) {
+            cached = findSimilar(key);
+            if (cached != null) {
+                similarHits.incrementAndGet();
+            }
+        }
+        if (cached == null) {
+            return null;
+        }
+        savedNanos.addAndGet(cached.upstreamNanos());
+        return cached.answer();
+    }
+
+    private void storeKey(String key, String answer, long upstreamNanos) {
+        answers.put(key, new CachedAnswer(answer, trigrams(key), upstreamNanos));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cache", answers.stats());
+        stats.put("similarHits", similarHits.get());
+        stats.put("coalescedCalls", coalesced.get());
+        stats.put("savedLatencyMillis", savedNanos.get() / 1_000_000);
+        return stats;
+    }
+
+    static String normalize(String prompt) {
+        return NON_ALPHANUMERIC.matcher(prompt.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private CachedAnswer findSimilar(String key) {
+        Set<String> probe = trigrams(key);
+        if (probe.isEmpty()) {
+            return null;
+        }
+
+        CachedAnswer best = null;
+        double bestScore = similarityThreshold;
+        for (CachedAnswer candidate : answers.values()) {
+            double score = jaccard(probe, candidate.trigrams());
+            if (score >= bestScore) {
+                best = candidate;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        String padded = " " + text + " ";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        int shared = 0;
+        for (String gram : smaller) {
+            if (larger.contains(gram)) {
+                shared++;
+            }
+        }
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+
+    private static String join(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package in.sourabh.electrician.cache;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Server-side conversation memory for the AI assistant.
+ *
+ * Each session keeps a rolling window of recent turns. When the window goes over the
+ * history token budget, the oldest exchanges are folded into a short list of earlier
+ * questions, which has its own budget. That keeps the request sent upstream roughly
+ * the same size however long the conversation runs. Sessions live in an LRU cache, so
+ * idle ones expire and the least recently used are evicted once the cap is reached.
+ *
+ * Session ids are issued here, never chosen by the client: 256 random bits, bound to the
+ * account that opened the session (or to nobody for an anonymous visitor, where the id
+ * itself is the only credential).
+ */
+@Component
+public class AiSessionStore {
+
+    // Rough chars-per-token ratio for English text; only used for budgeting
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int SUMMARY_LINE_CHARS = 120;
+    private static final int SESSION_ID_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${ai.session.max-sessions:10000}")
+    private int maxSessions;
+
+    @Value("${ai.session.idle-ttl-minutes:30}")
+    private long idleTtlMinutes;
+
+    @Value("${ai.session.history-token-budget:1500}")
+    private int historyTokenBudget;
+
+    @Value("${ai.session.summary-token-budget:300}")
+    private int summaryTokenBudget;
+
+    private LruCache<String, Session> sessions;
+
+    private final AtomicLong compactedExchanges = new AtomicLong();
+
+    public record Turn(String role, String text) {
+    }
+
+    /**
+     * What to send upstream for the next turn: folded earlier questions (null if none)
+     * plus the recent turns, oldest first.
+     */
+    public record Context(String summary, List<Turn> turns) {
+
+        public static final Context EMPTY = new Context(null, List.of());
+
+        public boolean isEmpty() {
+            return summary == null && turns.isEmpty();
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        sessions = new LruCache<>(maxSessions, Duration.ofMinutes(idleTtlMinutes));
+    }
+
+    /**
+     * Opens an empty session and returns its id. {@code owner} is the caller's account key,
+     * or null for an anonymous caller.
+     */
+    public String open(String owner) {
+        byte[] bytes = new byte[SESSION_ID_BYTES];
+        random.nextBytes(bytes);
+        String sessionId = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(sessionId, new Session(owner));
+        return sessionId;
+    }
+
+    // False when the session was never issued, has expired, or belongs to another caller
+    public boolean isOwnedBy(String sessionId, String owner) {
+        Session session = sessions.get(sessionId);
+        return session != null && Objects.equals(session.owner, owner);
+    }
+
+    public Context context(String sessionId) {
+        Session session = sessions.get(sessionId);
+        return session != null ? session.context() : Context.EMPTY;
+    }
+
+    /**
+     * Appends a completed exchange to an open session and compacts it if it went over
+     * budget. Re-inserting the session also restarts its idle timer.
+     */
+    public void append(String sessionId, String question, String answer) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            // Expired mid-conversation; ids are only ever created by open()
+            return;
+        }
+        int folded = session.append(question, answer);
+        compactedExchanges.addAndGet(folded);
+        sessions.put(sessionId, session);
+    }
+
+    public void end(String sessionId) {
+        sessions.invalidate(sessionId);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sessions", sessions.stats());
+        stats.put("compactedExchanges", compactedExchanges.get());
+        return stats;
+    }
+
+    static int estimateTokens(String text) {
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    private static String clip(String text, int maxChars) {
+        return text.length() <= maxChars ? text : text.substring(0, maxChars) + "…";
+    }
+
+    private final class Session {
+
+        private final String owner;
+        private final Deque<Turn> turns = new ArrayDeque<>();
+        private final Deque<String> earlierQuestions = new ArrayDeque<>();
+        private int turnTokens;
+        private int summaryTokens;
+
+        Session(String owner) {
+            this.owner = owner;
+        }
+
+        synchronized Context context() {
+            String summary = earlierQuestions.isEmpty()
+                    ? null
+                    : "Earlier in this conversation the user asked about:\n- " + String.join("\n- ", earlierQuestions);
+            return new Context(summary, new ArrayList<>(turns));
+        }
+
+        /**
+         * Returns the number of exchanges folded into the summary.
+         */
+        synchronized int append(String question, String answer) {
+            // A single reply may not take more than half the window
+            int maxTurnChars = historyTokenBudget * CHARS_PER_TOKEN / 2;
+            add(new Turn("user", clip(question, maxTurnChars)));
+            add(new Turn("model", clip(answer, maxTurnChars)));
+
+            int folded = 0;
+            while (turnTokens > historyTokenBudget && turns.size() > 2) {
+                Turn oldQuestion = turns.pollFirst();
+                Turn oldAnswer = turns.pollFirst();
+                turnTokens -= estimateTokens(oldQuestion.text()) + estimateTokens(oldAnswer.text());
+                fold(oldQuestion.text());
+                folded++;
+            }
+            return folded;
+        }
+
+        private void add(Turn turn) {
+            turns.addLast(turn);
+            turnTokens += estimateTokens(turn.text());
+        }
+
+        private void fold(String question) {
+            String line = clip(question.replaceAll("\\s+", " ").trim(), SUMMARY_LINE_CHARS);
+            earlierQuestions.addLast(line);
+            summaryTokens += estimateTokens(line);
+            while (summaryTokens > summaryTokenBudget && earlierQuestions.size() > 1) {
+                summaryTokens -= estimateTokens(earlierQuestions.pollFirst());
+            }
+        }
+    }
+}
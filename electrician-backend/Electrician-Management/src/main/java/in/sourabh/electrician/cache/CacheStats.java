@@ -0,0 +1,15 @@
+package in.sourabh.electrician.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Point-in-time counters for an in-process cache.
+ */
+public record CacheStats(long hits, long misses, long evictions, int size, int capacity) {
+
+    @JsonProperty("hitRatio")
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,29 @@
+package in.sourabh.electrician.cache;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Minimal string key-value store behind {@link ReadThroughCache} and idempotency keys. The local
+ * implementation keeps entries in this JVM; the Redis one shares them across nodes.
+ * Selected with cache.store=local|redis.
+ */
+public interface KeyValueStore {
+
+    // null when absent or expired
+    String get(String key);
+
+    void put(String key, String value, Duration ttl);
+
+    // Stores only if the key is absent (or expired); true if this call stored it
+    boolean putIfAbsent(String key, String value, Duration ttl);
+
+    void delete(String key);
+
+    // Atomic counter that never expires; starts at 0, so the first increment returns 1
+    long increment(String key);
+
+    long counter(String key);
+
+    Map<String, Object> stats();
+}
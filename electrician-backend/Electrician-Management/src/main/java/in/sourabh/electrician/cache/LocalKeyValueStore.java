@@ -0,0 +1,73 @@
+package in.sourabh.electrician.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process store: a bounded LRU with per-entry TTLs. Counters are kept apart so
+ * eviction can never reset one.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.store", havingValue = "local", matchIfMissing = true)
+public class LocalKeyValueStore implements KeyValueStore {
+
+    private final LruCache<String, String> entries;
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    public LocalKeyValueStore(@Value("${cache.local.max-entries:10000}") int maxEntries) {
+        this.entries = new LruCache<>(maxEntries);
+    }
+
+    @Override
+    public String get(String key) {
+        return entries.get(key);
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        entries.put(key, value, ttl);
+    }
+
+    @Override
+    public boolean putIfAbsent(String key, String value, Duration ttl) {
+        // LruCache locks on itself, so holding its monitor makes check-then-put atomic
+        synchronized (entries) {
+            if (entries.get(key) != null) {
+                return false;
+            }
+            entries.put(key, value, ttl);
+            return true;
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        entries.invalidate(key);
+    }
+
+    @Override
+    public long increment(String key) {
+        return counters.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public long counter(String key) {
+        AtomicLong counter = counters.get(key);
+        return counter != null ? counter.get() : 0;
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("backend", "local");
+        stats.put("entries", entries.stats());
+        return stats;
+    }
+}
@@ -0,0 +1,109 @@
+package in.sourabh.electrician.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small bounded cache that evicts the least recently used entry once full, and
+ * optionally expires entries a fixed time after they were written.
+ * Lookups are cheap enough that a single lock is fine for our traffic.
+ */
+public class LruCache<K, V> {
+
+    private final int capacity;
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private record Entry<V>(V value, long expiresAtNanos) {
+    }
+
+    public LruCache(int capacity) {
+        this(capacity, null);
+    }
+
+    public LruCache(int capacity, Duration ttl) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.ttlNanos = ttl != null ? ttl.toNanos() : 0;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.capacity) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && isExpired(entry, System.nanoTime())) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value();
+    }
+
+    public synchronized void put(K key, V value) {
+        long expiresAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0;
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    /**
+     * Puts with an entry-specific time to live instead of the cache-wide one.
+     */
+    public synchronized void put(K key, V value, Duration ttl) {
+        entries.put(key, new Entry<>(value, System.nanoTime() + Math.max(ttl.toNanos(), 1)));
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Copies the live values without touching recency or hit counters.
+     */
+    public synchronized List<V> values() {
+        long now = System.nanoTime();
+        List<V> values = new ArrayList<>(entries.size());
+        for (Iterator<Entry<V>> it = entries.values().iterator(); it.hasNext();) {
+            Entry<V> entry = it.next();
+            if (isExpired(entry, now)) {
+                it.remove();
+            } else {
+                values.add(entry.value());
+            }
+        }
+        return values;
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits.get(), misses.get(), evictions.get(), entries.size(), capacity);
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return entry.expiresAtNanos() != 0 && now - entry.expiresAtNanos() > 0;
+    }
+}
@@ -0,0 +1,163 @@
+package in.sourabh.electrician.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Read-through cache of JSON-serialized values over a {@link KeyValueStore}.
+ *
+ * Concurrent misses for the same key on this node share one load, and TTLs are
+ * jittered by +/-10% so entries written together do not all expire together. Groups
+ * of keys (e.g. every directory page) are invalidated by bumping a generation counter
+ * that is part of their keys; the old entries simply age out. If the store is
+ * unreachable, reads fall through to the loader instead of failing.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadThroughCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadThroughCache.class);
+
+    private final KeyValueStore store;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong storeErrors = new AtomicLong();
+
+    public <T> T get(String key, Class<T> type, Duration ttl, Supplier<T> loader) {
+        T cached = read(key, type);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.incrementAndGet();
+            return type.cast(join(leader));
+        }
+
+        try {
+            T value = loader.get();
+            if (value != null) {
+                write(key, value, ttl);
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public void evict(String key) {
+        try {
+            store.delete(key);
+        } catch (RuntimeException e) {
+            storeErrors.incrementAndGet();
+            logger.warn("Cache evict failed for {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Current generation of a key group; include it in the group's keys.
+     */
+    public long generation(String group) {
+        try {
+            return store.counter(group + ":generation");
+        } catch (RuntimeException e) {
+            storeErrors.incrementAndGet();
+            return -1;
+        }
+    }
+
+    /**
+     * Invalidates every key built with the group's current generation.
+     */
+    public void invalidateGroup(String group) {
+        try {
+            store.increment(group + ":generation");
+        } catch (RuntimeException e) {
+            storeErrors.incrementAndGet();
+            logger.warn("Cache invalidation failed for group {}: {}", group, e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", total - hitCount);
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("coalescedLoads", coalesced.get());
+        stats.put("storeErrors", storeErrors.get());
+        stats.put("store", store.stats());
+        return stats;
+    }
+
+    private <T> T read(String key, Class<T> type) {
+        String json;
+        try {
+            json = store.get(key);
+        } catch (RuntimeException e) {
+            storeErrors.incrementAndGet();
+            return null;
+        }
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            // Written by an older version of the class; drop it and reload
+            evict(key);
+            return null;
+        }
+    }
+
+    private void write(String key, Object value, Duration ttl) {
+        long jitteredMillis = (long) (ttl.toMillis() * ThreadLocalRandom.current().nextDouble(0.9, 1.1));
+        try {
+            store.put(key, objectMapper.writeValueAsString(value), Duration.ofMillis(Math.max(jitteredMillis, 1)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            storeErrors.incrementAndGet();
+            logger.warn("Cache write failed for {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package in.sourabh.electrician.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Shared store on Redis (or anything speaking its protocol), so every node sees the
+ * same entries and the same invalidation counters. Connection settings come from
+ * spring.data.redis.*.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.store", havingValue = "redis")
+@RequiredArgsConstructor
+public class RedisKeyValueStore implements KeyValueStore {
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public String get(String key) {
+        return redisTemplate.opsForValue().get(key);
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        redisTemplate.opsForValue().set(key, value, ttl);
+    }
+
+    @Override
+    public boolean putIfAbsent(String key, String value, Duration ttl) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, ttl));
+    }
+
+    @Override
+    public void delete(String key) {
+        redisTemplate.delete(key);
+    }
+
+    @Override
+    public long increment(String key) {
+        Long value = redisTemplate.opsForValue().increment(key);
+        return value != null ? value : 0;
+    }
+
+    @Override
+    public long counter(String key) {
+        String value = redisTemplate.opsForValue().get(key);
+        return value != null ? Long.parseLong(value) : 0;
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("backend", "redis");
+        return stats;
+    }
+}
@@ -0,0 +1,121 @@
+package in.sourabh.electrician.calendar;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One electrician's working hours plus everything that occupies them (active bookings
+ * and blocked intervals), up to a horizon. Built from the database and cached, so
+ * free-slot queries are answered from memory.
+ */
+public class ElectricianCalendar {
+
+    public record Slot(LocalDateTime start, LocalDateTime end) {
+    }
+
+    private final LocalTime workdayStart;
+    private final LocalTime workdayEnd;
+    private final Duration slotLength;
+    private final Set<DayOfWeek> workingDays;
+    private final LocalDateTime coveredUntil;
+
+    private final IntervalIndex<String> busy = new IntervalIndex<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ElectricianCalendar(LocalTime workdayStart, LocalTime workdayEnd, int slotMinutes,
+            Set<DayOfWeek> workingDays, LocalDateTime coveredUntil) {
+        this.workdayStart = workdayStart;
+        this.workdayEnd = workdayEnd;
+        this.slotLength = Duration.ofMinutes(slotMinutes);
+        this.workingDays = workingDays.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(workingDays);
+        this.coveredUntil = coveredUntil;
+    }
+
+    public Duration slotLength() {
+        return slotLength;
+    }
+
+    public void occupy(String key, LocalDateTime start, LocalDateTime end) {
+        lock.writeLock().lock();
+        try {
+            busy.add(key, start, end);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void release(String key) {
+        lock.writeLock().lock();
+        try {
+            busy.remove(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Why {@code [start, end)} cannot be booked, or empty if it can.
+     */
+    public Optional<String> unavailableReason(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (!start.isAfter(now)) {
+            return Optional.of("Slot is in the past");
+        }
+        if (end.isAfter(coveredUntil)) {
+            return Optional.of("Slot is too far ahead to book");
+        }
+        if (!isWorkingTime(start, end)) {
+            return Optional.of("Slot is outside the electrician's working hours");
+        }
+        lock.readLock().lock();
+        try {
+            return busy.overlaps(start, end) ? Optional.of("Slot is already booked") : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Free slots on the grid of each working day, from {@code from} for {@code days} days,
+     * skipping anything that starts before {@code notBefore}.
+     */
+    public List<Slot> freeSlots(LocalDate from, int days, LocalDateTime notBefore) {
+        List<Slot> free = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (LocalDate day = from; day.isBefore(from.plusDays(days)); day = day.plusDays(1)) {
+                if (!workingDays.contains(day.getDayOfWeek())) {
+                    continue;
+                }
+                LocalDateTime dayEnd = day.atTime(workdayEnd);
+                for (LocalDateTime start = day.atTime(workdayStart); ; start = start.plus(slotLength)) {
+                    LocalDateTime end = start.plus(slotLength);
+                    if (end.isAfter(dayEnd) || end.isAfter(coveredUntil)) {
+                        break;
+                    }
+                    if (start.isAfter(notBefore) && !busy.overlaps(start, end)) {
+                        free.add(new Slot(start, end));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return free;
+    }
+
+    private boolean isWorkingTime(LocalDateTime start, LocalDateTime end) {
+        return workingDays.contains(start.getDayOfWeek())
+                && start.toLocalDate().equals(end.toLocalDate())
+                && !start.toLocalTime().isBefore(workdayStart)
+                && !end.toLocalTime().isAfter(workdayEnd);
+    }
+}
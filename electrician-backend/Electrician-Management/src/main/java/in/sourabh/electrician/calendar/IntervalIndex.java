@@ -0,0 +1,64 @@
+package in.sourabh.electrician.calendar;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Half-open time intervals keyed by an id, ordered by start time.
+ *
+ * An overlap query only has to look at intervals starting in
+ * [start - longest interval, end), so it costs a tree lookup plus the handful of
+ * neighbours in that window. The longest length never shrinks on removal, which only
+ * widens the window. Not thread-safe; {@link ElectricianCalendar} guards it.
+ */
+public class IntervalIndex<K> {
+
+    private final NavigableMap<LocalDateTime, Map<K, LocalDateTime>> byStart = new TreeMap<>();
+    private final Map<K, LocalDateTime> starts = new HashMap<>();
+    private Duration longest = Duration.ZERO;
+
+    public void add(K key, LocalDateTime start, LocalDateTime end) {
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("Interval must end after it starts");
+        }
+        remove(key);
+        byStart.computeIfAbsent(start, s -> new LinkedHashMap<>()).put(key, end);
+        starts.put(key, start);
+        Duration length = Duration.between(start, end);
+        if (length.compareTo(longest) > 0) {
+            longest = length;
+        }
+    }
+
+    public void remove(K key) {
+        LocalDateTime start = starts.remove(key);
+        if (start == null) {
+            return;
+        }
+        Map<K, LocalDateTime> bucket = byStart.get(start);
+        bucket.remove(key);
+        if (bucket.isEmpty()) {
+            byStart.remove(start);
+        }
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        for (Map<K, LocalDateTime> bucket : byStart.subMap(start.minus(longest), true, end, false).values()) {
+            for (LocalDateTime intervalEnd : bucket.values()) {
+                if (intervalEnd.isAfter(start)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return starts.size();
+    }
+}
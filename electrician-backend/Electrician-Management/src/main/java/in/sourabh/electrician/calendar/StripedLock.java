@@ -0,0 +1,24 @@
+package in.sourabh.electrician.calendar;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks picked by key, so per-key mutual exclusion needs no per-key
+ * lock objects. Unrelated keys occasionally share a stripe, which only costs a wait.
+ */
+public class StripedLock {
+
+    private final ReentrantLock[] stripes;
+
+    public StripedLock(int stripes) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public ReentrantLock forKey(Object key) {
+        int hash = key.hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+}
@@ -0,0 +1,54 @@
+package in.sourabh.electrician.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Brings the accounts login index in line with the user and electrician tables: adds
+ * rows for accounts created before the index existed and drops rows whose owner is gone.
+ *
+ * Users are indexed first, so an email present in both tables keeps logging in as the
+ * user, the same precedence the old two-table lookup had.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountBackfillRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountBackfillRunner.class);
+
+    private static final String INSERT_USERS = "INSERT INTO accounts (email, account_type, account_id, password, role) "
+            + "SELECT u.email, 'USER', u.id, u.password, COALESCE(u.role, 'USER') FROM user u "
+            + "WHERE u.email IS NOT NULL AND NOT EXISTS (SELECT 1 FROM accounts a "
+            + "WHERE a.email = u.email OR (a.account_type = 'USER' AND a.account_id = u.id))";
+
+    private static final String INSERT_ELECTRICIANS = "INSERT INTO accounts (email, account_type, account_id, password, role) "
+            + "SELECT e.email, 'ELECTRICIAN', e.id, e.password, COALESCE(e.role, 'ELECTRICIAN') FROM electrician e "
+            + "WHERE e.email IS NOT NULL AND NOT EXISTS (SELECT 1 FROM accounts a "
+            + "WHERE a.email = e.email OR (a.account_type = 'ELECTRICIAN' AND a.account_id = e.id))";
+
+    private static final String DELETE_ORPHANS = "DELETE FROM accounts "
+            + "WHERE (account_type = 'USER' AND account_id NOT IN (SELECT id FROM user)) "
+            + "OR (account_type = 'ELECTRICIAN' AND account_id NOT IN (SELECT id FROM electrician))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(String... args) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int removed = jdbcTemplate.update(DELETE_ORPHANS);
+            int users = jdbcTemplate.update(INSERT_USERS);
+            int electricians = jdbcTemplate.update(INSERT_ELECTRICIANS);
+            if (removed + users + electricians > 0) {
+                logger.info("Account index backfill: {} users and {} electricians added, {} orphans removed",
+                        users, electricians, removed);
+            }
+        });
+    }
+}
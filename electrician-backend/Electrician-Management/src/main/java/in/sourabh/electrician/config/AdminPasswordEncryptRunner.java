@@ -3,9 +3,11 @@ package in.sourabh.electrician.config;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import in.sourabh.electrician.entites.User;
 import in.sourabh.electrician.repository.UserRepository;
+import in.sourabh.electrician.serviceimpl.AccountDirectory;
 import lombok.RequiredArgsConstructor;
 
 @Component
@@ -14,6 +16,8 @@ public class AdminPasswordEncryptRunner implements CommandLineRunner {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AccountDirectory accountDirectory;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public void run(String... args) {
@@ -23,7 +27,7 @@ public class AdminPasswordEncryptRunner implements CommandLineRunner {
 
         if (admin != null && !admin.getPassword().startsWith("$2a$")) {
             admin.setPassword(passwordEncoder.encode(admin.getPassword()));
-            userRepository.save(admin);
+            transactionTemplate.executeWithoutResult(status -> accountDirectory.sync(userRepository.save(admin)));
             System.out.println("✅ Admin password encrypted successfully");
         }
     }
@@ -0,0 +1,35 @@
+package in.sourabh.electrician.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Fills scheduled_end for bookings made before slots had an end, using the
+ * electrician's slot length (or the 60 minute default), so overlap checks see them.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingScheduleBackfillRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingScheduleBackfillRunner.class);
+
+    private static final String BACKFILL_SQL = "UPDATE bookings b "
+            + "LEFT JOIN electrician_availability a ON a.electrician_id = b.electrician_id "
+            + "SET b.scheduled_end = DATE_ADD(b.scheduled_date, INTERVAL COALESCE(a.slot_minutes, 60) MINUTE) "
+            + "WHERE b.scheduled_end IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        int updated = jdbcTemplate.update(BACKFILL_SQL);
+        if (updated > 0) {
+            logger.info("Backfilled scheduled_end for {} bookings", updated);
+        }
+    }
+}
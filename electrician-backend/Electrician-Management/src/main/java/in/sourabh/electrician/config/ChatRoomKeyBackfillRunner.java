@@ -0,0 +1,118 @@
+package in.sourabh.electrician.config;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import in.sourabh.electrician.dto.ChatParticipant;
+import in.sourabh.electrician.entites.ChatRoom;
+import in.sourabh.electrician.entites.ChatRoomParticipant;
+import in.sourabh.electrician.repository.ChatRoomParticipantRepository;
+import in.sourabh.electrician.repository.ChatRoomRepository;
+import in.sourabh.electrician.repository.ElectricianRepository;
+import in.sourabh.electrician.repository.MessageRepository;
+import in.sourabh.electrician.repository.UserRepository;
+import in.sourabh.electrician.security.AccountType;
+import in.sourabh.electrician.service.ChatService;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Gives rooms created before room keys carried account types their canonical key, typed
+ * participant rows and typed messages.
+ *
+ * Legacy rooms only stored two bare ids. Conversations are always between a user and an
+ * electrician, so a room is typed when exactly one of the two orientations matches existing
+ * accounts; otherwise it is left alone and reported. Each room is migrated in its own
+ * transaction, so one bad room never stops the rest.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatRoomKeyBackfillRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatRoomKeyBackfillRunner.class);
+
+    private final ChatRoomRepository chatRoomRepository;
+    private final ChatRoomParticipantRepository participantRepository;
+    private final MessageRepository messageRepository;
+    private final UserRepository userRepository;
+    private final ElectricianRepository electricianRepository;
+    private final ChatService chatService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(String... args) {
+
+        List<ChatRoom> legacyRooms = chatRoomRepository.findByRoomKeyIsNullOrRoomKeyNotLike("%:%");
+
+        int keyed = 0;
+        for (ChatRoom room : legacyRooms) {
+            try {
+                if (backfill(room)) {
+                    keyed++;
+                }
+            } catch (DataIntegrityViolationException e) {
+                // An older duplicate room for the same pair already owns the key
+                logger.warn("Chat room {} duplicates pair {}, leaving it unkeyed", room.getId(), room.getRoomKey());
+            } catch (RuntimeException e) {
+                logger.warn("Skipping chat room {} with participants '{}': {}",
+                        room.getId(), room.getParticipantIds(), e.getMessage());
+            }
+        }
+
+        if (!legacyRooms.isEmpty()) {
+            logger.info("Backfilled room keys for {} of {} legacy chat rooms", keyed, legacyRooms.size());
+        }
+    }
+
+    private boolean backfill(ChatRoom room) {
+        String[] ids = room.getParticipantIds().split(",");
+        if (ids.length != 2) {
+            logger.warn("Skipping chat room {} with participants '{}'", room.getId(), room.getParticipantIds());
+            return false;
+        }
+
+        Long id1 = Long.parseLong(ids[0].trim());
+        Long id2 = Long.parseLong(ids[1].trim());
+        boolean userFirst = isUser(id1) && isElectrician(id2);
+        boolean electricianFirst = isElectrician(id1) && isUser(id2);
+        if (userFirst == electricianFirst) {
+            logger.warn("Skipping chat room {}: cannot tell which of {} and {} is the electrician",
+                    room.getId(), id1, id2);
+            return false;
+        }
+
+        ChatParticipant participant1 = new ChatParticipant(userFirst ? AccountType.USER : AccountType.ELECTRICIAN, id1);
+        ChatParticipant participant2 = new ChatParticipant(userFirst ? AccountType.ELECTRICIAN : AccountType.USER, id2);
+        String roomKey = chatService.createChatRoomId(participant1, participant2);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            room.setRoomKey(roomKey);
+            room.setParticipantIds(roomKey.replace('_', ','));
+            chatRoomRepository.saveAndFlush(room);
+
+            // Rows written before participants were typed are replaced, not patched
+            participantRepository.deleteByChatRoomId(room.getId());
+            participantRepository.save(
+                    new ChatRoomParticipant(null, room, participant1.type(), participant1.id()));
+            participantRepository.save(
+                    new ChatRoomParticipant(null, room, participant2.type(), participant2.id()));
+
+            messageRepository.assignParticipantTypes(room.getId(), id1, participant1.type(), participant2.type());
+            messageRepository.assignParticipantTypes(room.getId(), id2, participant2.type(), participant1.type());
+        });
+        return true;
+    }
+
+    private boolean isUser(Long id) {
+        return userRepository.existsById(id);
+    }
+
+    private boolean isElectrician(Long id) {
+        return electricianRepository.existsById(id);
+    }
+}
@@ -0,0 +1,37 @@
+package in.sourabh.electrician.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Fills experience_years for electricians saved before the column existed, so the
+ * directory's minimum-experience filter sees them. New writes set it in the entity.
+ */
+@Component
+@RequiredArgsConstructor
+public class ElectricianExperienceBackfillRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ElectricianExperienceBackfillRunner.class);
+
+    // Same clamp as Electrician.syncExperienceYears: more than two significant digits -> 99
+    private static final String BACKFILL_SQL = "UPDATE electrician "
+            + "SET experience_years = CASE "
+            + "WHEN CHAR_LENGTH(TRIM(LEADING '0' FROM REGEXP_SUBSTR(experience, '[0-9]+'))) > 2 THEN 99 "
+            + "ELSE CAST(REGEXP_SUBSTR(experience, '[0-9]+') AS UNSIGNED) END "
+            + "WHERE experience_years IS NULL AND experience REGEXP '[0-9]'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        int updated = jdbcTemplate.update(BACKFILL_SQL);
+        if (updated > 0) {
+            logger.info("Backfilled experience_years for {} electricians", updated);
+        }
+    }
+}
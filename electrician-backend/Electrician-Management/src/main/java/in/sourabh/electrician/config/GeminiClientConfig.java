@@ -0,0 +1,79 @@
+package in.sourabh.electrician.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import in.sourabh.electrician.serviceimpl.GeminiClient;
+
+@Configuration
+public class GeminiClientConfig {
+
+    @Value("${gemini.api.key}")
+    private String apiKey;
+
+    @Value("${gemini.api.url}")
+    private String apiUrl;
+
+    @Value("${gemini.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${gemini.http.read-timeout-ms:20000}")
+    private long readTimeoutMs;
+
+    @Value("${gemini.http.max-concurrent-calls:32}")
+    private int maxConcurrentCalls;
+
+    @Value("${gemini.http.acquire-timeout-ms:500}")
+    private long acquireTimeoutMs;
+
+    @Value("${gemini.resilience.max-attempts:2}")
+    private int maxAttempts;
+
+    @Value("${gemini.resilience.retry-base-delay-ms:200}")
+    private long retryBaseDelayMs;
+
+    @Value("${gemini.resilience.hedge-delay-ms:0}")
+    private long hedgeDelayMs;
+
+    @Value("${gemini.resilience.requests-per-second:0}")
+    private double requestsPerSecond;
+
+    @Value("${gemini.resilience.burst:10}")
+    private int burst;
+
+    @Value("${gemini.resilience.breaker.window-size:20}")
+    private int breakerWindow;
+
+    @Value("${gemini.resilience.breaker.minimum-calls:10}")
+    private int breakerMinimumCalls;
+
+    @Value("${gemini.resilience.breaker.failure-rate:0.5}")
+    private double breakerFailureRate;
+
+    @Value("${gemini.resilience.breaker.open-seconds:30}")
+    private long breakerOpenSeconds;
+
+    @Bean
+    public GeminiClient geminiClient() {
+        return new GeminiClient(
+                apiUrl,
+                apiKey,
+                Duration.ofMillis(connectTimeoutMs),
+                Duration.ofMillis(readTimeoutMs),
+                maxConcurrentCalls,
+                Duration.ofMillis(acquireTimeoutMs),
+                new GeminiClient.Resilience(
+                        maxAttempts,
+                        Duration.ofMillis(retryBaseDelayMs),
+                        Duration.ofMillis(hedgeDelayMs),
+                        requestsPerSecond,
+                        burst,
+                        breakerWindow,
+                        breakerMinimumCalls,
+                        breakerFailureRate,
+                        Duration.ofSeconds(breakerOpenSeconds)));
+    }
+}
@@ -8,11 +8,14 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import lombok.RequiredArgsConstructor;
+import in.sourabh.electrician.security.BearerTokenFilter;
+import in.sourabh.electrician.security.TokenService;
 import in.sourabh.electrician.serviceimpl.CustomUserDetailsService;
 
 import java.util.List;
@@ -22,6 +25,7 @@ import java.util.List;
 public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
+    private final TokenService tokenService;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -44,8 +48,12 @@ public class SecurityConfig {
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/user/**").hasAnyRole("USER", "ADMIN")
                         .requestMatchers("/api/electrician/**").hasAnyRole("ELECTRICIAN", "ADMIN")
+                        .requestMatchers("/api/uploads/**").authenticated()
+                        .requestMatchers("/api/blobs/**").permitAll() // Image URLs, as public as Cloudinary's
                         .requestMatchers("/ws/**", "/websocket/**").permitAll() // For WebSocket endpoints
                         .anyRequest().permitAll())
+                // Bearer tokens from /api/auth/login are checked first; Basic stays for older clients
+                .addFilterBefore(new BearerTokenFilter(tokenService), BasicAuthenticationFilter.class)
                 .httpBasic(org.springframework.security.config.Customizer.withDefaults());
 
         return http.build();
@@ -1,7 +1,10 @@
 package in.sourabh.electrician.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
@@ -10,6 +13,13 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    // Same switch Spring Boot uses for Tomcat, @Async and @Scheduled
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${chat.channel.max-concurrency:512}")
+    private int channelConcurrency;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry
@@ -28,4 +38,31 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.setApplicationDestinationPrefixes("/app");
         registry.setUserDestinationPrefix("/user");
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(channelExecutor("ws-inbound-"));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(channelExecutor("ws-outbound-"));
+        }
+    }
+
+    /**
+     * STOMP channels only accept a ThreadPoolTaskExecutor, so run its workers on virtual
+     * threads and let the pool size act as a concurrency cap rather than a thread budget.
+     */
+    private ThreadPoolTaskExecutor channelExecutor(String threadNamePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setVirtualThreads(true);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(channelConcurrency);
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
+    }
 }
@@ -1,6 +1,7 @@
 package in.sourabh.electrician.controller;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -9,12 +10,22 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import in.sourabh.electrician.cache.AiResponseCache;
+import in.sourabh.electrician.cache.AiSessionStore;
+import in.sourabh.electrician.cache.CacheStats;
+import in.sourabh.electrician.cache.ReadThroughCache;
+import in.sourabh.electrician.dto.ElectricianDirectoryPage;
 import in.sourabh.electrician.dto.ElectricianDto;
 import in.sourabh.electrician.dto.UserDto;
 import in.sourabh.electrician.response.ApiResponse;
+import in.sourabh.electrician.service.ChatService;
+import in.sourabh.electrician.serviceimpl.ElectricianSearchIndex;
 import in.sourabh.electrician.serviceimpl.ElectricianServiceImpl;
+import in.sourabh.electrician.serviceimpl.FaqIntentRouter;
+import in.sourabh.electrician.serviceimpl.GeminiClient;
 import in.sourabh.electrician.serviceimpl.UserServiceImpl;
 import lombok.RequiredArgsConstructor;
 
@@ -27,6 +38,13 @@ public class AdminController {
 
     private final UserServiceImpl userServiceImpl;
     private final ElectricianServiceImpl electricianServiceImpl;
+    private final ChatService chatService;
+    private final GeminiClient geminiClient;
+    private final AiResponseCache aiResponseCache;
+    private final AiSessionStore aiSessionStore;
+    private final FaqIntentRouter faqIntentRouter;
+    private final ReadThroughCache readThroughCache;
+    private final ElectricianSearchIndex electricianSearchIndex;
 
     // ✅ Get All Users
     @GetMapping("/user")
@@ -64,13 +82,24 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
-    @GetMapping("/electrician")
-    public ResponseEntity<ApiResponse<List<ElectricianDto>>> getAllElectrician() {
-
-        List<ElectricianDto> electricianDto = electricianServiceImpl.getAllElectrician();
-
-        ApiResponse<List<ElectricianDto>> response = new ApiResponse<>(true, "All electricians fetched",
-                electricianDto);
+    /**
+     * Paged, filterable electrician directory. Use {@code after} (the previous page's
+     * nextCursor) for keyset paging, or {@code page} for numbered pages.
+     */
+    @GetMapping("/electrician/directory")
+    public ResponseEntity<ApiResponse<ElectricianDirectoryPage>> getElectricianDirectory(
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String degree,
+            @RequestParam(required = false) Integer minExperience,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size) {
+
+        ElectricianDirectoryPage directory = electricianServiceImpl.getDirectory(location, degree, minExperience,
+                page, after, size);
+
+        ApiResponse<ElectricianDirectoryPage> response = new ApiResponse<>(true, "Electrician directory fetched",
+                directory);
 
         return ResponseEntity.ok(response);
     }
@@ -97,4 +126,87 @@ public class AdminController {
 
         return ResponseEntity.ok(response);
     }
+
+    @DeleteMapping("/chat/rooms/{id}")
+    public ResponseEntity<ApiResponse<String>> deleteChatRoom(
+            @PathVariable("id") Long chatRoomId) {
+
+        chatService.deleteChatRoom(chatRoomId);
+
+        ApiResponse<String> response = new ApiResponse<>(true, "Chat room deleted successfully", null);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stats/chat-room-cache")
+    public ResponseEntity<ApiResponse<CacheStats>> getChatRoomCacheStats() {
+
+        ApiResponse<CacheStats> response = new ApiResponse<>(true, "Chat room cache stats fetched",
+                chatService.getRoomCacheStats());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stats/ai-client")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAiClientStats() {
+
+        ApiResponse<Map<String, Object>> response = new ApiResponse<>(true, "AI client stats fetched",
+                geminiClient.stats());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stats/ai-cache")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAiCacheStats() {
+
+        ApiResponse<Map<String, Object>> response = new ApiResponse<>(true, "AI cache stats fetched",
+                aiResponseCache.stats());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stats/ai-sessions")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAiSessionStats() {
+
+        ApiResponse<Map<String, Object>> response = new ApiResponse<>(true, "AI session stats fetched",
+                aiSessionStore.stats());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stats/ai-faq")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAiFaqStats() {
+
+        ApiResponse<Map<String, Object>> response = new ApiResponse<>(true, "AI FAQ router stats fetched",
+                faqIntentRouter.stats());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stats/read-cache")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getReadCacheStats() {
+
+        ApiResponse<Map<String, Object>> response = new ApiResponse<>(true, "Read-through cache stats fetched",
+                readThroughCache.stats());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stats/electricians")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getElectricianStats() {
+
+        ApiResponse<Map<String, Object>> response = new ApiResponse<>(true, "Electrician stats fetched",
+                Map.of("total", electricianServiceImpl.countElectricians()));
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stats/search-index")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSearchIndexStats() {
+
+        ApiResponse<Map<String, Object>> response = new ApiResponse<>(true, "Search index stats fetched",
+                electricianSearchIndex.stats());
+
+        return ResponseEntity.ok(response);
+    }
 }
@@ -1,31 +1,141 @@
 package in.sourabh.electrician.controller;
 
 import in.sourabh.electrician.response.ApiResponse;
+import in.sourabh.electrician.security.AccountPrincipal;
 import in.sourabh.electrician.service.GeminiService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/ai")
 @CrossOrigin(origins = "http://localhost:5173")
 public class AiController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AiController.class);
+
+    private static final String STREAM_ERROR = "The assistant could not answer right now. Please try again.";
+
     @Autowired
     private GeminiService geminiService;
 
+    @Value("${ai.stream.timeout-ms:60000}")
+    private long streamTimeoutMs;
+
+    /**
+     * Starts a conversation. The id is random and bound to the signed-in account, if any;
+     * pass it back as "sessionId" on /chat and /stream.
+     */
+    @PostMapping("/sessions")
+    public ResponseEntity<ApiResponse<Map<String, String>>> startSession(
+            @AuthenticationPrincipal AccountPrincipal principal) {
+        String sessionId = geminiService.startSession(owner(principal));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new ApiResponse<>(true, "Session started", Map.of("sessionId", sessionId)));
+    }
+
     @PostMapping("/chat")
-    public ResponseEntity<ApiResponse<String>> chat(@RequestBody Map<String, String> request) {
+    public ResponseEntity<ApiResponse<String>> chat(@RequestBody Map<String, String> request,
+            @AuthenticationPrincipal AccountPrincipal principal) {
         String prompt = request.get("prompt");
+        String sessionId = request.get("sessionId");
 
         if (prompt == null || prompt.trim().isEmpty()) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse<>(false, "Prompt is required", null));
         }
+        if (!canUse(sessionId, principal)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, "Unknown or expired session", null));
+        }
 
-        String response = geminiService.getAiResponse(prompt);
+        String response = geminiService.getAiResponse(sessionId, prompt);
         return ResponseEntity.ok(new ApiResponse<>(true, "Success", response));
     }
+
+    /**
+     * Streams the answer as Server-Sent Events: one "chunk" event per text fragment as
+     * it arrives from Gemini, then "done" (or "error" with a generic message; the cause
+     * is only logged).
+     */
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestBody Map<String, String> request,
+            @AuthenticationPrincipal AccountPrincipal principal) {
+        String prompt = request.get("prompt");
+        String sessionId = request.get("sessionId");
+
+        if (prompt == null || prompt.trim().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!canUse(sessionId, principal)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+
+        geminiService.streamAiResponse(sessionId, prompt, chunk -> send(emitter, "chunk", chunk))
+                .whenComplete((answer, error) -> {
+                    try {
+                        if (error == null) {
+                            emitter.send(SseEmitter.event().name("done").data(""));
+                        } else {
+                            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                    ? error.getCause()
+                                    : error;
+                            // Upstream details stay in the log, not in the client's stream
+                            logger.warn("AI stream failed for session {}", sessionId, cause);
+                            emitter.send(SseEmitter.event().name("error").data(STREAM_ERROR));
+                        }
+                        emitter.complete();
+                    } catch (IOException | IllegalStateException e) {
+                        // Client already disconnected
+                        emitter.completeWithError(e);
+                    }
+                });
+
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Drops the server-side memory of a conversation (e.g. when the chat widget is reset).
+     */
+    @DeleteMapping("/sessions/{sessionId}")
+    public ResponseEntity<ApiResponse<Void>> endSession(@PathVariable String sessionId,
+            @AuthenticationPrincipal AccountPrincipal principal) {
+        if (!geminiService.isSessionOwner(sessionId, owner(principal))) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, "Unknown or expired session", null));
+        }
+        geminiService.endSession(sessionId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Session ended", null));
+    }
+
+    // null means a one-off question; otherwise the id must have been issued to this caller
+    private boolean canUse(String sessionId, AccountPrincipal principal) {
+        return sessionId == null || geminiService.isSessionOwner(sessionId, owner(principal));
+    }
+
+    private static String owner(AccountPrincipal principal) {
+        return principal != null ? principal.getAccountType() + ":" + principal.getAccountId() : null;
+    }
+
+    private void send(SseEmitter emitter, String name, String data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -2,23 +2,24 @@ package in.sourabh.electrician.controller;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import in.sourabh.electrician.dto.ElectricianDto;
 import in.sourabh.electrician.dto.UserDto;
-import in.sourabh.electrician.entites.Electrician;
-import in.sourabh.electrician.entites.User;
 import in.sourabh.electrician.login.LoginRequest;
-import in.sourabh.electrician.repository.ElectricianRepository;
-import in.sourabh.electrician.repository.UserRepository;
+import in.sourabh.electrician.login.RefreshRequest;
 import in.sourabh.electrician.response.ApiResponse;
+import in.sourabh.electrician.security.AccountPrincipal;
+import in.sourabh.electrician.security.AccountType;
+import in.sourabh.electrician.security.TokenService;
 import in.sourabh.electrician.serviceimpl.ElectricianServiceImpl;
 import in.sourabh.electrician.serviceimpl.UserServiceImpl;
 import jakarta.validation.Valid;
@@ -33,8 +34,7 @@ public class AuthController {
         private final UserServiceImpl userServiceImpl;
         private final ElectricianServiceImpl electricianServiceImpl;
         private final AuthenticationManager authenticationManager;
-        private final UserRepository userRepository;
-        private final ElectricianRepository electricianRepository;
+        private final TokenService tokenService;
 
         // ✅ USER REGISTER
         @PostMapping("/register/user")
@@ -69,56 +69,56 @@ public class AuthController {
                         @RequestBody LoginRequest request) {
 
                 // 1️⃣ Authenticate (USER / ELECTRICIAN / ADMIN)
-                authenticationManager.authenticate(
+                Authentication authentication = authenticationManager.authenticate(
                                 new UsernamePasswordAuthenticationToken(
                                                 request.getEmail(),
                                                 request.getPassword()));
 
-                Map<String, Object> data = new HashMap<>();
+                // Signed tokens, so later requests skip the lookup and BCrypt check
+                AccountPrincipal principal = (AccountPrincipal) authentication.getPrincipal();
+                Map<String, Object> data = new HashMap<>(tokenService.issue(principal));
 
-                // 2️⃣ Check USER table (USER + ADMIN)
-                Optional<User> userOpt = userRepository.findByEmail(request.getEmail());
+                // 2️⃣ Built from the principal alone: authentication already did the one account
+                // lookup. The profile (name, image, ...) comes from GET /api/auth/me.
+                String role = principal.getAuthorities().iterator().next().getAuthority().replace("ROLE_", "");
+                data.put("type", principal.getAccountType() == AccountType.USER ? "USER_TABLE" : "ELECTRICIAN_TABLE");
+                data.put("role", role);
+                data.put("id", principal.getAccountId());
+                data.put("email", principal.getUsername());
 
-                if (userOpt.isPresent()) {
-                        User user = userOpt.get();
+                return ResponseEntity.ok(
+                                new ApiResponse<>(true, "Login successful", data));
+        }
 
-                        data.put("type", "USER_TABLE");
-                        data.put("role", user.getRole().name());
-                        data.put("id", user.getId());
-                        data.put("name", user.getName());
-                        data.put("email", user.getEmail());
-                        data.put("mobileNumber", user.getMobileNumber());
-                        data.put("imageProfile", user.getImageProfile());
-                        data.put("location", user.getLocation());
+        // ✅ PROFILE of the signed-in account (electrician profiles come from the read-through cache)
+        @GetMapping("/me")
+        public ResponseEntity<ApiResponse<Object>> me(@AuthenticationPrincipal AccountPrincipal principal) {
 
-                        return ResponseEntity.ok(
-                                        new ApiResponse<>(true, "Login successful", data));
+                if (principal == null) {
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                        .body(new ApiResponse<>(false, "Not signed in", null));
                 }
 
-                // 3️⃣ Check ELECTRICIAN table
-                Optional<Electrician> elecOpt = electricianRepository.findByEmail(request.getEmail());
-
-                if (elecOpt.isPresent()) {
-                        Electrician e = elecOpt.get();
-
-                        data.put("type", "ELECTRICIAN_TABLE");
-                        data.put("role", "ELECTRICIAN");
-                        data.put("id", e.getId());
-                        data.put("name", e.getName());
-                        data.put("email", e.getEmail());
-                        data.put("password", e.getPassword());
-                        data.put("mobileNumber", e.getMobileNumber());
-                        data.put("imageProfile", e.getImageProfile());
-                        data.put("location", e.getLocation());
-                        data.put("experience", e.getExperience());
-                        data.put("degree", e.getDegree());
-
-                        return ResponseEntity.ok(
-                                        new ApiResponse<>(true, "Login successful", data));
+                Object profile;
+                if (principal.getAccountType() == AccountType.ELECTRICIAN) {
+                        profile = electricianServiceImpl.getElectrician(principal.getAccountId());
+                } else {
+                        UserDto user = userServiceImpl.getUser(principal.getAccountId());
+                        user.setPassword(null);
+                        profile = user;
                 }
 
-                // 4️⃣ Not found
-                throw new RuntimeException("User not found");
+                return ResponseEntity.ok(new ApiResponse<>(true, "Profile fetched", profile));
+        }
+
+        // ✅ REFRESH (new access + refresh token pair)
+        @PostMapping("/refresh")
+        public ResponseEntity<ApiResponse<Map<String, Object>>> refresh(
+                        @RequestBody RefreshRequest request) {
+
+                return ResponseEntity.ok(
+                                new ApiResponse<>(true, "Token refreshed",
+                                                tokenService.refresh(request.getRefreshToken())));
         }
 
 }
@@ -0,0 +1,136 @@
+package in.sourabh.electrician.controller;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import in.sourabh.electrician.exception.ResourceNotFoundException;
+import in.sourabh.electrician.storage.ByteRange;
+import in.sourabh.electrician.storage.LocalBlobStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Serves blobs from the local-disk store with ETag revalidation and single byte ranges.
+ *
+ * Bodies are written without passing through the heap: large ones are handed to Tomcat's
+ * sendfile support, which sends them from the page cache after this method returns, and
+ * the rest go through FileChannel.transferTo. Blob names are content hashes, so responses
+ * may be cached for a year without revalidation.
+ */
+@RestController
+@RequestMapping("/api/blobs")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class BlobController {
+
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    // Tomcat's Globals.SENDFILE_* request attributes; the end offset is exclusive
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final LocalBlobStore blobStore;
+
+    // Below this, setting up sendfile costs more than copying (Tomcat's own default is 48 KB)
+    @Value("${storage.local.sendfile-min-bytes:49152}")
+    private long sendfileMinBytes;
+
+    @GetMapping("/{*key}")
+    public void getBlob(@PathVariable String key, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        // {*key} captures the leading slash
+        LocalBlobStore.Blob blob = blobStore.find(key.substring(1))
+                .orElseThrow(() -> new ResourceNotFoundException("Blob not found: " + key));
+        long size = blob.size();
+
+        response.setHeader(HttpHeaders.ETAG, blob.etag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), blob.etag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        // If-Range guards against resuming from a different version; a date never matches a strong tag
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        ByteRange range = ifRange == null || ifRange.trim().equals(blob.etag())
+                ? ByteRange.parse(request.getHeader(HttpHeaders.RANGE), size)
+                : null;
+
+        if (range == ByteRange.UNSATISFIABLE) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            return;
+        }
+
+        response.setContentType(MediaTypeFactory.getMediaType(blob.file().getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        if (range == null) {
+            range = new ByteRange(0, size - 1);
+        } else {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(size));
+        }
+        response.setContentLengthLong(range.length());
+
+        if ("HEAD".equals(request.getMethod()) || range.length() == 0) {
+            return;
+        }
+        if (range.length() >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, blob.file().toRealPath().toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.end() + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(blob.file(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = range.start();
+            long remaining = range.length();
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    throw new EOFException("Blob shrank while being served: " + key);
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    // Weak comparison, as If-None-Match requires
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,16 +1,25 @@
 package in.sourabh.electrician.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import in.sourabh.electrician.calendar.ElectricianCalendar;
 import in.sourabh.electrician.dto.BookingDTO;
+import in.sourabh.electrician.exception.BookingStateConflictException;
+import in.sourabh.electrician.exception.SlotUnavailableException;
+import in.sourabh.electrician.security.AccountPrincipal;
+import in.sourabh.electrician.service.AvailabilityService;
 import in.sourabh.electrician.service.BookingService;
 
-import java.security.Principal;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 @RestController
 @RequestMapping("/api/bookings")
 @CrossOrigin(origins = "http://localhost:5173")
@@ -19,24 +28,36 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
     
+    @Autowired
+    private AvailabilityService availabilityService;
+    
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+    
     // User endpoints
     @PostMapping("/user/create")
-    public ResponseEntity<?> createBooking(@RequestBody BookingDTO dto, Principal principal) {
-        try {
-            BookingDTO created = bookingService.createBooking(dto, principal.getName());
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Booking created successfully");
-            response.put("data", created);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
-        }
+    public ResponseEntity<?> createBooking(@RequestBody BookingDTO dto,
+            @AuthenticationPrincipal AccountPrincipal principal,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey) {
+        return idempotentRequests.execute(idempotencyKey, principal.getUsername(), "booking:create", dto, () -> {
+            try {
+                BookingDTO created = bookingService.createBooking(dto, principal.userId());
+                Map<String, Object> response = new HashMap<>();
+                response.put("message", "Booking created successfully");
+                response.put("data", created);
+                return ResponseEntity.ok(response);
+            } catch (SlotUnavailableException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+            }
+        });
     }
     
     @GetMapping("/user/my-bookings")
-    public ResponseEntity<?> getMyBookings(Principal principal) {
+    public ResponseEntity<?> getMyBookings(@AuthenticationPrincipal AccountPrincipal principal) {
         try {
-            List<BookingDTO> bookings = bookingService.getUserBookings(principal.getName());
+            List<BookingDTO> bookings = bookingService.getUserBookings(principal.userId());
             return ResponseEntity.ok(Map.of("data", bookings));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
@@ -44,20 +65,27 @@ public class BookingController {
     }
     
     @PutMapping("/user/{id}/cancel")
-    public ResponseEntity<?> cancelBooking(@PathVariable Long id, Principal principal) {
-        try {
-            BookingDTO cancelled = bookingService.cancelBooking(id, principal.getName());
-            return ResponseEntity.ok(Map.of("message", "Booking cancelled", "data", cancelled));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
-        }
+    public ResponseEntity<?> cancelBooking(@PathVariable Long id,
+            @AuthenticationPrincipal AccountPrincipal principal,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey) {
+        return transition(id, principal, idempotencyKey, "cancel", "Booking cancelled",
+                () -> bookingService.cancelBooking(id, principal.userId()));
+    }
+    
+    // Free slots on the electrician's calendar, served from the cached calendar
+    @GetMapping("/electricians/{electricianId}/free-slots")
+    public ResponseEntity<?> getFreeSlots(@PathVariable Long electricianId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "7") int days) {
+        List<ElectricianCalendar.Slot> slots = availabilityService.getFreeSlots(electricianId, from, days);
+        return ResponseEntity.ok(Map.of("data", slots));
     }
     
     // Electrician endpoints
     @GetMapping("/electrician/all")
-    public ResponseEntity<?> getElectricianBookings(Principal principal) {
+    public ResponseEntity<?> getElectricianBookings(@AuthenticationPrincipal AccountPrincipal principal) {
         try {
-            List<BookingDTO> bookings = bookingService.getElectricianBookings(principal.getName());
+            List<BookingDTO> bookings = bookingService.getElectricianBookings(principal.electricianId());
             return ResponseEntity.ok(Map.of("data", bookings));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
@@ -65,32 +93,40 @@ public class BookingController {
     }
     
     @PutMapping("/electrician/{id}/accept")
-    public ResponseEntity<?> acceptBooking(@PathVariable Long id, Principal principal) {
-        try {
-            BookingDTO accepted = bookingService.acceptBooking(id, principal.getName());
-            return ResponseEntity.ok(Map.of("message", "Booking accepted", "data", accepted));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
-        }
+    public ResponseEntity<?> acceptBooking(@PathVariable Long id,
+            @AuthenticationPrincipal AccountPrincipal principal,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey) {
+        return transition(id, principal, idempotencyKey, "accept", "Booking accepted",
+                () -> bookingService.acceptBooking(id, principal.electricianId()));
     }
     
     @PutMapping("/electrician/{id}/reject")
-    public ResponseEntity<?> rejectBooking(@PathVariable Long id, Principal principal) {
-        try {
-            BookingDTO rejected = bookingService.rejectBooking(id, principal.getName());
-            return ResponseEntity.ok(Map.of("message", "Booking rejected", "data", rejected));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
-        }
+    public ResponseEntity<?> rejectBooking(@PathVariable Long id,
+            @AuthenticationPrincipal AccountPrincipal principal,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey) {
+        return transition(id, principal, idempotencyKey, "reject", "Booking rejected",
+                () -> bookingService.rejectBooking(id, principal.electricianId()));
     }
     
     @PutMapping("/electrician/{id}/complete")
-    public ResponseEntity<?> completeBooking(@PathVariable Long id, Principal principal) {
-        try {
-            BookingDTO completed = bookingService.completeBooking(id, principal.getName());
-            return ResponseEntity.ok(Map.of("message", "Booking completed", "data", completed));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
-        }
+    public ResponseEntity<?> completeBooking(@PathVariable Long id,
+            @AuthenticationPrincipal AccountPrincipal principal,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey) {
+        return transition(id, principal, idempotencyKey, "complete", "Booking completed",
+                () -> bookingService.completeBooking(id, principal.electricianId()));
+    }
+    
+    // Accept, reject, complete and cancel share error mapping; a lost race or final state is a 409
+    private ResponseEntity<?> transition(Long id, AccountPrincipal principal, String idempotencyKey, String verb,
+            String message, Supplier<BookingDTO> action) {
+        return idempotentRequests.execute(idempotencyKey, principal.getUsername(), "booking:" + verb, id, () -> {
+            try {
+                return ResponseEntity.ok(Map.of("message", message, "data", action.get()));
+            } catch (BookingStateConflictException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+            }
+        });
     }
 }
@@ -1,8 +1,12 @@
 package in.sourabh.electrician.controller;
+import in.sourabh.electrician.dto.ChatHistoryPage;
+import in.sourabh.electrician.dto.ChatParticipant;
 import in.sourabh.electrician.dto.MessageDto;
 import in.sourabh.electrician.entites.ChatRoom;
 import in.sourabh.electrician.entites.Message;
 import in.sourabh.electrician.entites.MessageType;
+import in.sourabh.electrician.exception.MessageRejectedException;
+import in.sourabh.electrician.security.AccountType;
 import in.sourabh.electrician.service.ChatService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,6 +19,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 @Controller
 @RequestMapping("/api/chat")
@@ -28,19 +33,19 @@ public class ChatController {
     // ================= REST APIs =================
     /**
      * Get chat history between two users
-     * @param chatRoomId Format: "userId1-userId2" (smaller ID first)
+     * @param chatRoomId Format: "TYPE:id-TYPE:id", e.g. "USER:3-ELECTRICIAN:7" (either order)
+     * @param size Number of most recent messages to return (max 100)
      * @return List of messages in chronological order
      */
     @GetMapping("/history/{chatRoomId}")
     @ResponseBody
-    public ResponseEntity<List<MessageDto>> getChatHistory(@PathVariable String chatRoomId) {
+    public ResponseEntity<List<MessageDto>> getChatHistory(
+            @PathVariable String chatRoomId,
+            @RequestParam(defaultValue = "50") int size) {
         try {
             logger.info("Fetching chat history for room: {}", chatRoomId);
             
-            List<Message> messages = chatService.getChatHistory(chatRoomId, 0, 50);
-            List<MessageDto> dtos = messages.stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
+            List<MessageDto> dtos = chatService.getChatHistoryWindow(chatRoomId, null, null, size).getMessages();
             logger.info("Retrieved {} messages for room {}", dtos.size(), chatRoomId);
             return ResponseEntity.ok(dtos);
             
@@ -50,17 +55,46 @@ public class ChatController {
         }
     }
     /**
-     * Get all chat rooms for a specific user
-     * @param userId User ID
+     * Get one cursor window of chat history
+     * @param chatRoomId Format: "TYPE:id-TYPE:id", e.g. "USER:3-ELECTRICIAN:7" (either order)
+     * @param before Cursor from a previous window's olderCursor, to scroll back
+     * @param after Cursor from a previous window's newerCursor, to fetch newer messages
+     * @param size Window size (max 100)
+     * @return Messages in chronological order plus cursors for the next windows
+     */
+    @GetMapping("/history/{chatRoomId}/window")
+    @ResponseBody
+    public ResponseEntity<ChatHistoryPage> getChatHistoryWindow(
+            @PathVariable String chatRoomId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(chatService.getChatHistoryWindow(chatRoomId, before, after, size));
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Bad history window request for room {}: {}", chatRoomId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error fetching chat history window for room {}: {}", chatRoomId, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    /**
+     * Get all chat rooms for a specific user or electrician
+     * @param userId User or electrician ID
+     * @param type Account type the ID belongs to (USER or ELECTRICIAN)
      * @return List of chat rooms
      */
     @GetMapping("/rooms/{userId}")
     @ResponseBody
-    public ResponseEntity<List<ChatRoom>> getUserChatRooms(@PathVariable Long userId) {
+    public ResponseEntity<List<ChatRoom>> getUserChatRooms(
+            @PathVariable Long userId,
+            @RequestParam AccountType type) {
         try {
-            logger.info("Fetching chat rooms for user: {}", userId);
+            logger.info("Fetching chat rooms for {} {}", type, userId);
             
-            List<ChatRoom> rooms = chatService.getUserChatRooms(userId);
+            List<ChatRoom> rooms = chatService.getUserChatRooms(type, userId);
             
             logger.info("Retrieved {} chat rooms for user {}", rooms.size(), userId);
             return ResponseEntity.ok(rooms);
@@ -87,6 +121,8 @@ public class ChatController {
             message.setContent(dto.getContent().trim());
             message.setSenderId(dto.getSenderId());
             message.setReceiverId(dto.getReceiverId());
+            message.setSenderType(dto.getSenderType());
+            message.setReceiverType(dto.getReceiverType());
             message.setMessageType(
                     dto.getMessageType() != null 
                             ? MessageType.valueOf(dto.getMessageType())
@@ -94,22 +130,29 @@ public class ChatController {
             );
             message.setSentAt(LocalDateTime.now());
             message.setSeen(false);
-            // ✅ Save to database
-            Message saved = chatService.saveMessage(message);
+            // ✅ Save to database (or queue it, when async persistence is enabled)
+            Message saved = chatService.submitMessage(message);
             MessageDto savedDto = convertToDto(saved);
-            logger.info("Message saved with ID: {}", saved.getId());
-            // ✅ Send to receiver
+            logger.info("Message accepted with ID: {}", saved.getId());
+            // ✅ Send to receiver (topics are per account type, as ids overlap)
             messagingTemplate.convertAndSend(
-                    "/topic/chat/" + dto.getReceiverId(),
+                    "/topic/chat/" + dto.getReceiverType() + "/" + dto.getReceiverId(),
                     savedDto
             );
             logger.debug("Message sent to receiver: {}", dto.getReceiverId());
             // ✅ Send to sender for UI sync
             messagingTemplate.convertAndSend(
-                    "/topic/chat/" + dto.getSenderId(),
+                    "/topic/chat/" + dto.getSenderType() + "/" + dto.getSenderId(),
                     savedDto
             );
             logger.debug("Message sent to sender: {}", dto.getSenderId());
+        } catch (MessageRejectedException e) {
+            // Nothing was stored or broadcast; give the sender the text back to resend
+            logger.warn("Rejected message from {} {}: {}", dto.getSenderType(), dto.getSenderId(), e.getMessage());
+            messagingTemplate.convertAndSend(
+                    "/topic/chat/" + dto.getSenderType() + "/" + dto.getSenderId() + "/errors",
+                    Map.of("error", e.getMessage(), "content", dto.getContent())
+            );
         } catch (IllegalArgumentException e) {
             logger.error("Validation error: {}", e.getMessage());
             // Could send error notification to sender here if needed
@@ -139,11 +182,16 @@ public class ChatController {
             throw new IllegalArgumentException("Receiver ID is required");
         }
         
+        if (dto.getSenderType() == null || dto.getReceiverType() == null) {
+            throw new IllegalArgumentException("Sender and receiver types are required");
+        }
+        
         if (dto.getContent() == null || dto.getContent().trim().isEmpty()) {
             throw new IllegalArgumentException("Message content cannot be empty");
         }
         
-        if (dto.getSenderId().equals(dto.getReceiverId())) {
+        if (new ChatParticipant(dto.getSenderType(), dto.getSenderId())
+                .equals(new ChatParticipant(dto.getReceiverType(), dto.getReceiverId()))) {
             throw new IllegalArgumentException("Cannot send message to yourself");
         }
         
@@ -168,6 +216,8 @@ public class ChatController {
         dto.setContent(message.getContent());
         dto.setSenderId(message.getSenderId());
         dto.setReceiverId(message.getReceiverId());
+        dto.setSenderType(message.getSenderType());
+        dto.setReceiverType(message.getReceiverType());
         dto.setSentAt(message.getSentAt());
         dto.setMessageType(message.getMessageType() != null 
                 ? message.getMessageType().name() 
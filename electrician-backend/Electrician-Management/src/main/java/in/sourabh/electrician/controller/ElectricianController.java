@@ -1,10 +1,9 @@
 package in.sourabh.electrician.controller;
 
-import java.util.List;
-
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,8 +16,12 @@ import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import in.sourabh.electrician.dto.AvailabilityDto;
+import in.sourabh.electrician.dto.BlockedIntervalDto;
 import in.sourabh.electrician.dto.ElectricianDto;
 import in.sourabh.electrician.response.ApiResponse;
+import in.sourabh.electrician.security.AccountPrincipal;
+import in.sourabh.electrician.service.AvailabilityService;
 import in.sourabh.electrician.serviceimpl.ElectricianServiceImpl;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -30,6 +33,7 @@ import lombok.RequiredArgsConstructor;
 public class ElectricianController {
 
     private final ElectricianServiceImpl electricianServiceImpl;
+    private final AvailabilityService availabilityService;
 
     // create user
     // @PostMapping
@@ -44,24 +48,54 @@ public class ElectricianController {
     //     return new ResponseEntity<>(response, HttpStatus.CREATED);
     // }
 
-    @GetMapping("{id}")
-    public ResponseEntity<ApiResponse<ElectricianDto>> getElectricianById(
-            @PathVariable("id") Long electricianId) {
+    @GetMapping("/availability")
+    public ResponseEntity<ApiResponse<AvailabilityDto>> getAvailability(
+            @AuthenticationPrincipal AccountPrincipal principal) {
 
-        ElectricianDto electricianDto = electricianServiceImpl.getElectrician(electricianId);
+        ApiResponse<AvailabilityDto> response = new ApiResponse<>(true, "Availability fetched",
+                availabilityService.getAvailability(principal.electricianId()));
 
-        ApiResponse<ElectricianDto> response = new ApiResponse<>(true, "Electrician fetched successfully",
-                electricianDto);
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping("/availability")
+    public ResponseEntity<ApiResponse<AvailabilityDto>> updateAvailability(
+            @Valid @RequestBody AvailabilityDto availabilityDto,
+            @AuthenticationPrincipal AccountPrincipal principal) {
+
+        ApiResponse<AvailabilityDto> response = new ApiResponse<>(true, "Availability updated",
+                availabilityService.updateAvailability(principal.electricianId(), availabilityDto));
 
         return ResponseEntity.ok(response);
     }
 
-    @GetMapping
-    public ResponseEntity<ApiResponse<List<ElectricianDto>>> getAllElectrician() {
+    @PostMapping("/availability/blocks")
+    public ResponseEntity<ApiResponse<BlockedIntervalDto>> blockInterval(
+            @Valid @RequestBody BlockedIntervalDto blockedIntervalDto,
+            @AuthenticationPrincipal AccountPrincipal principal) {
+
+        ApiResponse<BlockedIntervalDto> response = new ApiResponse<>(true, "Time blocked",
+                availabilityService.blockInterval(principal.electricianId(), blockedIntervalDto));
+
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/availability/blocks/{blockId}")
+    public ResponseEntity<ApiResponse<String>> unblockInterval(@PathVariable("blockId") Long blockId,
+            @AuthenticationPrincipal AccountPrincipal principal) {
+
+        availabilityService.unblockInterval(principal.electricianId(), blockId);
+
+        return ResponseEntity.ok(new ApiResponse<>(true, "Time unblocked", null));
+    }
+
+    @GetMapping("{id}")
+    public ResponseEntity<ApiResponse<ElectricianDto>> getElectricianById(
+            @PathVariable("id") Long electricianId) {
 
-        List<ElectricianDto> electricianDto = electricianServiceImpl.getAllElectrician();
+        ElectricianDto electricianDto = electricianServiceImpl.getElectrician(electricianId);
 
-        ApiResponse<List<ElectricianDto>> response = new ApiResponse<>(true, "All electricians fetched",
+        ApiResponse<ElectricianDto> response = new ApiResponse<>(true, "Electrician fetched successfully",
                 electricianDto);
 
         return ResponseEntity.ok(response);
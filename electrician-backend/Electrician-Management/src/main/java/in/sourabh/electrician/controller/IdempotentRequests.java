@@ -0,0 +1,140 @@
+package in.sourabh.electrician.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import in.sourabh.electrician.cache.KeyValueStore;
+import in.sourabh.electrician.cache.LocalKeyValueStore;
+
+/**
+ * Replays the stored response when a client retries a request with the same
+ * Idempotency-Key header, instead of running it twice.
+ *
+ * Keys are scoped to the caller and the operation. A retry that arrives while the
+ * first attempt is still running gets 409; one with a different body under the same
+ * key gets 422. Only successful responses are kept, so a failed attempt can be
+ * retried with the same key. With the Redis backend entries live in the shared
+ * {@link KeyValueStore}; with the in-process one they get an LRU of their own, so churn
+ * in the read-through cache cannot evict them.
+ */
+@Component
+class IdempotentRequests {
+
+    static final String HEADER = "Idempotency-Key";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotentRequests.class);
+    private static final String IN_PROGRESS = "in-progress";
+
+    private final KeyValueStore store;
+    private final ObjectMapper objectMapper;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.in-progress-seconds:60}")
+    private long inProgressSeconds;
+
+    IdempotentRequests(KeyValueStore cacheStore, ObjectMapper objectMapper,
+            @Value("${idempotency.local.max-entries:50000}") int localMaxEntries) {
+        this.store = cacheStore instanceof LocalKeyValueStore ? new LocalKeyValueStore(localMaxEntries) : cacheStore;
+        this.objectMapper = objectMapper;
+    }
+
+    private record Stored(String fingerprint, int status, JsonNode body) {
+    }
+
+    ResponseEntity<?> execute(String idempotencyKey, String caller, String operation, Object request,
+            Supplier<ResponseEntity<?>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > 128) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Idempotency-Key is too long"));
+        }
+
+        String key = "idempotency:" + operation + ":" + caller + ":" + idempotencyKey;
+        String fingerprint = fingerprint(operation, request);
+
+        boolean first;
+        try {
+            first = store.putIfAbsent(key, IN_PROGRESS, Duration.ofSeconds(inProgressSeconds));
+        } catch (RuntimeException e) {
+            // Store unreachable: run unprotected rather than refuse the request
+            logger.warn("Idempotency store unavailable for {}: {}", operation, e.getMessage());
+            return action.get();
+        }
+        if (!first) {
+            return replay(key, fingerprint);
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            store.delete(key);
+            throw e;
+        }
+
+        if (response.getStatusCode().is2xxSuccessful()) {
+            try {
+                Stored stored = new Stored(fingerprint, response.getStatusCode().value(),
+                        objectMapper.valueToTree(response.getBody()));
+                store.put(key, objectMapper.writeValueAsString(stored), Duration.ofHours(ttlHours));
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                logger.warn("Could not store idempotent response for {}: {}", operation, e.getMessage());
+                store.delete(key);
+            }
+        } else {
+            store.delete(key);
+        }
+        return response;
+    }
+
+    private ResponseEntity<?> replay(String key, String fingerprint) {
+        String value = store.get(key);
+        if (value == null || value.equals(IN_PROGRESS)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "A request with this Idempotency-Key is still in progress"));
+        }
+        Stored stored;
+        try {
+            stored = objectMapper.readValue(value, Stored.class);
+        } catch (JsonProcessingException e) {
+            store.delete(key);
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Stored response was unreadable; please retry"));
+        }
+        if (!stored.fingerprint().equals(fingerprint)) {
+            return ResponseEntity.unprocessableEntity()
+                    .body(Map.of("message", "Idempotency-Key was already used with a different request"));
+        }
+        return ResponseEntity.status(stored.status()).header("Idempotent-Replayed", "true").body(stored.body());
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package in.sourabh.electrician.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import in.sourabh.electrician.dto.ImageUploadDto;
+import in.sourabh.electrician.entites.ImageUpload;
+import in.sourabh.electrician.exception.ResourceNotFoundException;
+import in.sourabh.electrician.response.ApiResponse;
+import in.sourabh.electrician.security.AccountPrincipal;
+import in.sourabh.electrician.serviceimpl.ImageUploadPipeline;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/uploads")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:5173")
+public class UploadController {
+
+    private static final SimpleGrantedAuthority ADMIN = new SimpleGrantedAuthority("ROLE_ADMIN");
+
+    private final ImageUploadPipeline imageUploadPipeline;
+
+    // Status of a background profile image upload; owners (and admins) only
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<ImageUploadDto>> getUpload(@PathVariable Long uploadId,
+            @AuthenticationPrincipal AccountPrincipal principal) {
+
+        ImageUpload upload = imageUploadPipeline.find(uploadId)
+                .filter(u -> principal.getAuthorities().contains(ADMIN)
+                        || (u.getOwnerType() == principal.getAccountType()
+                                && u.getOwnerId().equals(principal.getAccountId())))
+                .orElseThrow(() -> new ResourceNotFoundException("Upload not found: " + uploadId));
+
+        ImageUploadDto dto = new ImageUploadDto(upload.getId(), upload.getStatus(), upload.getAttempts(),
+                upload.getImageUrl(), upload.getMediumUrl(), upload.getThumbnailUrl(), upload.getLastError());
+        return ResponseEntity.ok(new ApiResponse<>(true, "Upload status", dto));
+    }
+}
@@ -7,7 +7,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import in.sourabh.electrician.dto.ElectricianDirectoryPage;
 import in.sourabh.electrician.dto.ElectricianDto;
+import in.sourabh.electrician.dto.ElectricianSearchResult;
+import in.sourabh.electrician.dto.NearbyElectrician;
 import in.sourabh.electrician.dto.UserDto;
 import in.sourabh.electrician.response.ApiResponse;
 import in.sourabh.electrician.serviceimpl.ElectricianServiceImpl;
@@ -87,17 +90,78 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
-    @GetMapping("/electricians")
-    public ResponseEntity<ApiResponse<List<ElectricianDto>>> getAllElectrician() {
+    /**
+     * Paged, filterable electrician directory. Use {@code after} (the previous page's
+     * nextCursor) for keyset paging, or {@code page} for numbered pages.
+     */
+    @GetMapping("/electricians/directory")
+    public ResponseEntity<ApiResponse<ElectricianDirectoryPage>> getElectricianDirectory(
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String degree,
+            @RequestParam(required = false) Integer minExperience,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size) {
+
+        ElectricianDirectoryPage directory = electricianServiceImpl.getDirectory(location, degree, minExperience,
+                page, after, size);
+
+        ApiResponse<ElectricianDirectoryPage> response = new ApiResponse<>(true, "Electrician directory fetched",
+                directory);
 
-        List<ElectricianDto> electricianDto = electricianServiceImpl.getAllElectrician();
+        return ResponseEntity.ok(response);
+    }
 
-        ApiResponse<List<ElectricianDto>> response = new ApiResponse<>(true, "All electricians fetched",
-                electricianDto);
+    /**
+     * Electricians nearest to a point, closest first, within {@code radiusKm} (max 100).
+     */
+    @GetMapping("/electricians/nearby")
+    public ResponseEntity<ApiResponse<List<NearbyElectrician>>> getNearbyElectricians(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(defaultValue = "20") int k) {
+
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180 || radiusKm <= 0) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, "Invalid coordinates or radius", null));
+        }
+
+        List<NearbyElectrician> nearby = electricianServiceImpl.findNearby(lat, lon, radiusKm, k);
+
+        ApiResponse<List<NearbyElectrician>> response = new ApiResponse<>(true, "Nearby electricians fetched",
+                nearby);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Free-text electrician search, e.g. "solar inverter installation near Indore".
+     * Tolerates typos and treats the last word as a prefix while the user is typing.
+     */
+    @GetMapping("/electricians/search")
+    public ResponseEntity<ApiResponse<List<ElectricianSearchResult>>> searchElectricians(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        List<ElectricianSearchResult> results = electricianServiceImpl.search(query, limit);
+
+        ApiResponse<List<ElectricianSearchResult>> response = new ApiResponse<>(true, "Electricians found",
+                results);
 
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/electricians/search/suggest")
+    public ResponseEntity<ApiResponse<List<String>>> suggestElectricianSearches(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "5") int limit) {
+
+        ApiResponse<List<String>> response = new ApiResponse<>(true, "Suggestions fetched",
+                electricianServiceImpl.suggest(query, limit));
+
+        return ResponseEntity.ok(response);
+    }
 
     @GetMapping("{id}")
     public ResponseEntity<ApiResponse<ElectricianDto>> getElectricianById(
@@ -0,0 +1,50 @@
+package in.sourabh.electrician.dto;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Working hours and slot size of an electrician, plus their upcoming blocked intervals
+ * (read-only here; they are managed through their own endpoints).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityDto {
+
+    @NotNull(message = "Workday start is required")
+    private LocalTime workdayStart;
+
+    @NotNull(message = "Workday end is required")
+    private LocalTime workdayEnd;
+
+    @NotNull(message = "Slot length is required")
+    @Min(value = 15, message = "Slots must be at least 15 minutes")
+    @Max(value = 720, message = "Slots must be at most 12 hours")
+    private Integer slotMinutes;
+
+    @NotEmpty(message = "At least one working day is required")
+    private List<DayOfWeek> workingDays;
+
+    private List<BlockedIntervalDto> blockedIntervals;
+
+    @JsonIgnore
+    @AssertTrue(message = "Workday must be long enough for at least one slot")
+    public boolean isSlotWithinWorkday() {
+        return workdayStart == null || workdayEnd == null || slotMinutes == null
+                || Duration.between(workdayStart, workdayEnd).toMinutes() >= slotMinutes;
+    }
+}
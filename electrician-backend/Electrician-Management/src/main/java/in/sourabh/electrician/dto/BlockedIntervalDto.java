@@ -0,0 +1,35 @@
+package in.sourabh.electrician.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlockedIntervalDto {
+
+    private Long id;
+
+    @NotNull(message = "Start time is required")
+    private LocalDateTime startsAt;
+
+    @NotNull(message = "End time is required")
+    private LocalDateTime endsAt;
+
+    @Size(max = 255, message = "Reason must be at most 255 characters")
+    private String reason;
+
+    @JsonIgnore
+    @AssertTrue(message = "Blocked interval must end after it starts")
+    public boolean isEndAfterStart() {
+        return startsAt == null || endsAt == null || endsAt.isAfter(startsAt);
+    }
+}
@@ -11,9 +11,11 @@ public class BookingDTO {
     private String description;
     private String location;
     private LocalDateTime scheduledDate;
+    private LocalDateTime scheduledEnd;
     private String status;
     private Double estimatedCost;
     private LocalDateTime createdAt;
+    private Long version;
     
     // User details (for electrician view)
     private String userName;
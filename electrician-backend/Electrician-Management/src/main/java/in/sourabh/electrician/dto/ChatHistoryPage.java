@@ -0,0 +1,23 @@
+package in.sourabh.electrician.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One window of chat history, always in chronological order.
+ * Pass {@code olderCursor} as "before" to scroll back, {@code newerCursor} as "after" to catch up.
+ * {@code hasMore} tells whether further messages exist in the direction that was fetched.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatHistoryPage {
+
+    private List<MessageDto> messages;
+    private String olderCursor;
+    private String newerCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,42 @@
+package in.sourabh.electrician.dto;
+
+import java.util.Comparator;
+
+import in.sourabh.electrician.security.AccountType;
+
+/**
+ * One side of a conversation. Users and electricians are numbered from separate tables,
+ * so an id only names an account together with its type.
+ */
+public record ChatParticipant(AccountType type, Long id) implements Comparable<ChatParticipant> {
+
+    private static final Comparator<ChatParticipant> ORDER =
+            Comparator.comparing(ChatParticipant::type).thenComparing(ChatParticipant::id);
+
+    public ChatParticipant {
+        if (type == null || id == null) {
+            throw new IllegalArgumentException("Chat participant type and id are required");
+        }
+    }
+
+    /**
+     * Parses the {@link #key()} form, e.g. "ELECTRICIAN:42".
+     */
+    public static ChatParticipant parse(String key) {
+        int colon = key.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Invalid chat participant: " + key);
+        }
+        // Both valueOf and parseLong fail with IllegalArgumentException
+        return new ChatParticipant(AccountType.valueOf(key.substring(0, colon)), Long.parseLong(key.substring(colon + 1)));
+    }
+
+    public String key() {
+        return type.name() + ":" + id;
+    }
+
+    @Override
+    public int compareTo(ChatParticipant other) {
+        return ORDER.compare(this, other);
+    }
+}
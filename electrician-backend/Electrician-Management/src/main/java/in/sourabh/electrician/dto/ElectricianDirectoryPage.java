@@ -0,0 +1,24 @@
+package in.sourabh.electrician.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of the electrician directory, ordered by id.
+ * Pass {@code nextCursor} as "after" to continue with keyset paging, or ask for the next
+ * page number; {@code hasMore} tells whether another page exists.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ElectricianDirectoryPage {
+
+    private List<ElectricianSummary> electricians;
+    private int page;
+    private int size;
+    private boolean hasMore;
+    private Long nextCursor;
+}
@@ -1,6 +1,9 @@
 package in.sourabh.electrician.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import in.sourabh.electrician.entites.Role;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
@@ -26,6 +29,7 @@ public class ElectricianDto {
 
     @NotBlank(message = "Password is required")
     @Size(min = 6, message = "Password must be at least 6 characters")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY) // accepted on sign-up and update, never echoed back
     private String password;
 
     @NotBlank(message = "Mobile number is required")
@@ -43,4 +47,19 @@ public class ElectricianDto {
     private String degree;
 
     private Role role;
+
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    // Read-only variants of imageProfile, filled in by the upload pipeline
+    private String imageMedium;
+    private String imageThumbnail;
+
+    // Set when a new image is still uploading in the background; poll /api/uploads/{id}
+    private Long imageUploadId;
 }
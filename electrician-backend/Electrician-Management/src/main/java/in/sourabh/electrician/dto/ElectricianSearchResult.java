@@ -0,0 +1,17 @@
+package in.sourabh.electrician.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Full-text search hit: the listing view plus its relevance score (higher is better).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ElectricianSearchResult {
+
+    private ElectricianSummary electrician;
+    private double score;
+}
@@ -0,0 +1,25 @@
+package in.sourabh.electrician.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Listing view of an electrician: only the columns the directory shows, never the password.
+ * Filled directly by JPQL constructor projections.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ElectricianSummary {
+
+    private Long id;
+    private String name;
+    private String email;
+    private String mobileNumber;
+    private String experience;
+    private String degree;
+    private String location;
+    private String imageProfile;
+    private String imageThumbnail;
+}
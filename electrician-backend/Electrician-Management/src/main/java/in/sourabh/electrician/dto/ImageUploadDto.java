@@ -0,0 +1,23 @@
+package in.sourabh.electrician.dto;
+
+import in.sourabh.electrician.entites.ImageUploadStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of a background profile image upload; the image URLs are set once it is DONE.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageUploadDto {
+
+    private Long id;
+    private ImageUploadStatus status;
+    private int attempts;
+    private String imageUrl;
+    private String mediumUrl;
+    private String thumbnailUrl;
+    private String error;
+}
@@ -0,0 +1,38 @@
+package in.sourabh.electrician.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a chat room: the (sentAt, id) of a message.
+ * Encoded as an opaque URL-safe token so clients never build it by hand.
+ */
+public record MessageCursor(LocalDateTime sentAt, Long id) {
+
+    public static MessageCursor of(MessageDto message) {
+        return new MessageCursor(message.getSentAt(), message.getId());
+    }
+
+    public String encode() {
+        String raw = sentAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MessageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            if (sep < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new MessageCursor(
+                    LocalDateTime.parse(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -2,16 +2,39 @@ package in.sourabh.electrician.dto;
 
 import java.time.LocalDateTime;
 
+import in.sourabh.electrician.entites.MessageType;
+import in.sourabh.electrician.security.AccountType;
+
 public class MessageDto {
     private Long id;
     private String content;
     private Long senderId;
     private Long receiverId;
+    private AccountType senderType;
+    private AccountType receiverType;
     private LocalDateTime sentAt;
     private String chatRoomId;
     private String messageType;
     private boolean seen;
 
+    public MessageDto() {
+    }
+
+    // Used by JPQL constructor projections so history reads skip entity hydration
+    public MessageDto(Long id, String content, Long senderId, Long receiverId,
+            AccountType senderType, AccountType receiverType, LocalDateTime sentAt, Long chatRoomId, MessageType messageType, boolean seen) {
+        this.id = id;
+        this.content = content;
+        this.senderId = senderId;
+        this.receiverId = receiverId;
+        this.senderType = senderType;
+        this.receiverType = receiverType;
+        this.sentAt = sentAt;
+        this.chatRoomId = chatRoomId != null ? chatRoomId.toString() : null;
+        this.messageType = messageType != null ? messageType.name() : MessageType.TEXT.name();
+        this.seen = seen;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -25,6 +48,12 @@ public class MessageDto {
     public Long getReceiverId() { return receiverId; }
     public void setReceiverId(Long receiverId) { this.receiverId = receiverId; }
     
+    public AccountType getSenderType() { return senderType; }
+    public void setSenderType(AccountType senderType) { this.senderType = senderType; }
+    
+    public AccountType getReceiverType() { return receiverType; }
+    public void setReceiverType(AccountType receiverType) { this.receiverType = receiverType; }
+    
     public LocalDateTime getSentAt() { return sentAt; }
     public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
     
@@ -0,0 +1,17 @@
+package in.sourabh.electrician.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Nearest-electrician search result: the listing view plus great-circle distance.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyElectrician {
+
+    private ElectricianSummary electrician;
+    private double distanceKm;
+}
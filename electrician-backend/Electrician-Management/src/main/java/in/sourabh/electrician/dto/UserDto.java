@@ -37,4 +37,11 @@ public class UserDto {
     private String location;
 
     private Role role;
+
+    // Read-only variants of imageProfile, filled in by the upload pipeline
+    private String imageMedium;
+    private String imageThumbnail;
+
+    // Set when a new image is still uploading in the background; poll /api/uploads/{id}
+    private Long imageUploadId;
 }
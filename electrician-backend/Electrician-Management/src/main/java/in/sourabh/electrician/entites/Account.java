@@ -0,0 +1,45 @@
+package in.sourabh.electrician.entites;
+
+import in.sourabh.electrician.security.AccountType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Login index over both account tables: one row per user or electrician, unique by email,
+ * carrying what authentication needs (hash and role) so any login is a single lookup.
+ *
+ * Rows are written in the same transaction as the owning User/Electrician row.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "accounts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_account_email", columnNames = "email"),
+        @UniqueConstraint(name = "uk_account_owner", columnNames = { "account_type", "account_id" })
+})
+public class Account {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "account_type", nullable = false, length = 16)
+    private AccountType accountType;
+
+    // Id in the user or electrician table, depending on accountType
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    private String password;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Role role;
+}
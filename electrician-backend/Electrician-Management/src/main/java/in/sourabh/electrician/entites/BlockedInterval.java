@@ -0,0 +1,36 @@
+package in.sourabh.electrician.entites;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Time an electrician has taken out of their calendar (leave, another job).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "electrician_blocked_intervals", indexes = {
+        @Index(name = "idx_blocked_interval_electrician_end", columnList = "electrician_id, ends_at")
+})
+public class BlockedInterval {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "electrician_id", nullable = false)
+    private Long electricianId;
+
+    @Column(name = "starts_at", nullable = false)
+    private LocalDateTime startsAt;
+
+    @Column(name = "ends_at", nullable = false)
+    private LocalDateTime endsAt;
+
+    private String reason;
+}
@@ -5,14 +5,22 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_booking_electrician_schedule", columnList = "electrician_id, scheduled_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Booking {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "booking_id")
+    @TableGenerator(name = "booking_id",
+            table = IdSequences.TABLE,
+            pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN,
+            pkColumnValue = IdSequences.BOOKINGS,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
     
     @ManyToOne
@@ -35,12 +43,20 @@ public class Booking {
     @Column(nullable = false)
     private LocalDateTime scheduledDate;
     
+    // End of the reserved slot; filled for older rows by BookingScheduleBackfillRunner
+    private LocalDateTime scheduledEnd;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private BookingStatus status = BookingStatus.PENDING;
     
     private Double estimatedCost;
     
+    // Primitive so Spring Data still decides new vs existing by id; MySQL fills 0 for old rows
+    @Version
+    @Column(nullable = false)
+    private long version;
+    
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
     
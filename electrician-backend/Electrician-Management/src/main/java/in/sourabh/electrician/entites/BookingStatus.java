@@ -1,9 +1,22 @@
 package in.sourabh.electrician.entites;
 
+import java.util.List;
+
 public enum BookingStatus {
     PENDING,
     ACCEPTED,
     REJECTED,
     COMPLETED,
-    CANCELLED
+    CANCELLED;
+
+    // States a booking may move into this one from; REJECTED, COMPLETED and CANCELLED are final
+    public List<BookingStatus> sources() {
+        return switch (this) {
+            case PENDING -> List.of();
+            case ACCEPTED -> List.of(PENDING);
+            case REJECTED -> List.of(PENDING, ACCEPTED);
+            case COMPLETED -> List.of(ACCEPTED);
+            case CANCELLED -> List.of(PENDING);
+        };
+    }
 }
@@ -11,7 +11,9 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "chat_rooms")
+@Table(name = "chat_rooms", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_chat_rooms_room_key", columnNames = "room_key")
+})
 public class ChatRoom {
 
     @Id
@@ -19,7 +21,11 @@ public class ChatRoom {
     private Long id;
 
     @Column(name = "participant_ids", nullable = false)
-    private String participantIds; // Comma-separated user IDs
+    private String participantIds; // Comma-separated participant keys, e.g. "USER:3,ELECTRICIAN:7"
+
+    // Canonical "USER:3_ELECTRICIAN:7" key, see ChatService.createChatRoomId
+    @Column(name = "room_key", length = 64)
+    private String roomKey;
 
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,36 @@
+package in.sourabh.electrician.entites;
+
+import in.sourabh.electrician.security.AccountType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "chat_room_participants", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_chat_room_participant_type",
+                columnNames = { "chat_room_id", "participant_type", "user_id" })
+}, indexes = {
+        @Index(name = "idx_chat_room_participants_account", columnList = "participant_type, user_id")
+})
+public class ChatRoomParticipant {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chat_room_id", nullable = false)
+    private ChatRoom chatRoom;
+
+    // User and electrician ids overlap, so a row is only unique together with its type
+    @Enumerated(EnumType.STRING)
+    @Column(name = "participant_type", nullable = false, length = 16)
+    private AccountType participantType;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+}
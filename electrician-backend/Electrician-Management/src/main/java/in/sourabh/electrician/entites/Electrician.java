@@ -7,16 +7,32 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(indexes = {
+        // Directory filters seek on location, then page by id
+        @Index(name = "idx_electrician_location_id", columnList = "location, id"),
+        @Index(name = "idx_electrician_degree_id", columnList = "degree, id")
+})
 public class Electrician {
 
+    private static final Pattern LEADING_NUMBER = Pattern.compile("\\d+");
+
+    // Anything above this is a typo; clamping keeps the profile in every minimum-experience filter
+    private static final int MAX_EXPERIENCE_YEARS = 99;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -33,4 +49,28 @@ public class Electrician {
 
     @Enumerated(EnumType.STRING)
     private Role role;
+
+    // Numeric copy of the free-text experience (e.g. "5 years" -> 5) for range filters
+    private Integer experienceYears;
+
+    // WGS84 coordinates of the service base; null until the electrician sets them
+    private Double latitude;
+    private Double longitude;
+
+    // Downscaled copies of imageProfile for profile panels and directory cards
+    private String imageMedium;
+    private String imageThumbnail;
+
+    @PrePersist
+    @PreUpdate
+    void syncExperienceYears() {
+        Matcher matcher = experience == null ? null : LEADING_NUMBER.matcher(experience);
+        experienceYears = matcher != null && matcher.find() ? parseYears(matcher.group()) : null;
+    }
+
+    // Checks the length first, so a long digit run cannot overflow the parse
+    private static int parseYears(String digits) {
+        String significant = digits.replaceFirst("^0+(?=\\d)", "");
+        return significant.length() > 2 ? MAX_EXPERIENCE_YEARS : Integer.parseInt(significant);
+    }
 }
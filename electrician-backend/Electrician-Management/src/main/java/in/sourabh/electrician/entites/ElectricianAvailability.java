@@ -0,0 +1,47 @@
+package in.sourabh.electrician.entites;
+
+import java.time.LocalTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An electrician's weekly working hours and booking slot size. Electricians without a
+ * row get the defaults below. The version is bumped by every slot reservation, so two
+ * nodes booking the same electrician at once cannot both commit.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "electrician_availability")
+public class ElectricianAvailability {
+
+    public static final String DEFAULT_WORKING_DAYS = "MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY,SATURDAY";
+
+    @Id
+    @Column(name = "electrician_id")
+    private Long electricianId;
+
+    @Column(nullable = false)
+    private LocalTime workdayStart = LocalTime.of(9, 0);
+
+    @Column(nullable = false)
+    private LocalTime workdayEnd = LocalTime.of(18, 0);
+
+    @Column(nullable = false)
+    private Integer slotMinutes = 60;
+
+    // Comma-separated DayOfWeek names
+    @Column(nullable = false)
+    private String workingDays = DEFAULT_WORKING_DAYS;
+
+    @Version
+    private Long version;
+
+    public ElectricianAvailability(Long electricianId) {
+        this.electricianId = electricianId;
+    }
+}
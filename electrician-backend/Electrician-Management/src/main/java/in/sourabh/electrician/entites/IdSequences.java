@@ -0,0 +1,23 @@
+package in.sourabh.electrician.entites;
+
+/**
+ * Shared id table for entities that use pooled ids instead of IDENTITY.
+ *
+ * Each row holds the start of the next free block (pooled-lo), so Hibernate and
+ * anything else reserving ids (the async message writer) can share a sequence by
+ * bumping next_val under a row lock.
+ */
+public final class IdSequences {
+
+    public static final String TABLE = "id_sequences";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+
+    public static final String MESSAGES = "messages";
+    public static final String BOOKINGS = "bookings";
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdSequences() {
+    }
+}
@@ -0,0 +1,67 @@
+package in.sourabh.electrician.entites;
+
+import java.time.LocalDateTime;
+
+import in.sourabh.electrician.security.AccountType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A profile image waiting in the local spool for a background upload, and its outcome.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "image_uploads", indexes = {
+        @Index(name = "idx_image_upload_owner", columnList = "owner_type, owner_id"),
+        @Index(name = "idx_image_upload_status", columnList = "status")
+})
+public class ImageUpload {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "owner_type", nullable = false, length = 16)
+    private AccountType ownerType;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(nullable = false)
+    private String folder;
+
+    // Absolute path on the node that accepted the upload; removed once the job finishes
+    @Column(name = "spool_path", nullable = false, length = 500)
+    private String spoolPath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ImageUploadStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // Large variant; the smaller ones are stored alongside
+    @Column(name = "image_url", length = 500)
+    private String imageUrl;
+
+    @Column(name = "medium_url", length = 500)
+    private String mediumUrl;
+
+    @Column(name = "thumbnail_url", length = 500)
+    private String thumbnailUrl;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
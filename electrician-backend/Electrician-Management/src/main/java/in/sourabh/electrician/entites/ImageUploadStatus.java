@@ -0,0 +1,10 @@
+package in.sourabh.electrician.entites;
+
+public enum ImageUploadStatus {
+    PENDING,
+    UPLOADING,
+    DONE,
+    FAILED,
+    // A newer image was submitted for the same profile before this one finished
+    SUPERSEDED
+}
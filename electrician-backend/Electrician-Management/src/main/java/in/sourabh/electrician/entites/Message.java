@@ -1,5 +1,6 @@
 package in.sourabh.electrician.entites;
 
+import in.sourabh.electrician.security.AccountType;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -10,11 +11,20 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        // Keyset index for chat history windows: seek on room, then walk (sent_at, id)
+        @Index(name = "idx_messages_room_sent_id", columnList = "chat_room_id, sent_at, id")
+})
 public class Message {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "message_id")
+    @TableGenerator(name = "message_id",
+            table = IdSequences.TABLE,
+            pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN,
+            pkColumnValue = IdSequences.MESSAGES,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false, columnDefinition = "TEXT")
@@ -26,6 +36,15 @@ public class Message {
     @Column(name = "receiver_id", nullable = false)
     private Long receiverId;
 
+    // Which table sender_id and receiver_id point into; null on rows older than the column
+    @Enumerated(EnumType.STRING)
+    @Column(name = "sender_type", length = 16)
+    private AccountType senderType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "receiver_type", length = 16)
+    private AccountType receiverType;
+
     @Column(name = "sent_at", nullable = false)
     private LocalDateTime sentAt;
 
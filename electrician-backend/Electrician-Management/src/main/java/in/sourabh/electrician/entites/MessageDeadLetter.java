@@ -0,0 +1,61 @@
+package in.sourabh.electrician.entites;
+
+import in.sourabh.electrician.security.AccountType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * A chat message the async writer could not insert because the schema rejected it
+ * (for example, its room was deleted while it sat in the queue). Kept verbatim so it
+ * can be inspected or replayed instead of being lost.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "message_dead_letters", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_message_dead_letters_message", columnNames = "message_id")
+})
+public class MessageDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "message_id", nullable = false)
+    private Long messageId;
+
+    @Column(name = "chat_room_id")
+    private Long chatRoomId;
+
+    @Column(name = "sender_id")
+    private Long senderId;
+
+    @Column(name = "receiver_id")
+    private Long receiverId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "sender_type", length = 16)
+    private AccountType senderType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "receiver_type", length = 16)
+    private AccountType receiverType;
+
+    @Column(columnDefinition = "TEXT")
+    private String content;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "message_type", length = 16)
+    private MessageType messageType;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @Column(name = "failed_at", nullable = false)
+    private LocalDateTime failedAt;
+}
@@ -30,4 +30,8 @@ public class User {
 
     @Enumerated(EnumType.STRING)
     private Role role;
+
+    // Downscaled copies of imageProfile for profile panels and listing cards
+    private String imageMedium;
+    private String imageThumbnail;
 }
@@ -0,0 +1,12 @@
+package in.sourabh.electrician.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AiUnavailableException extends RuntimeException {
+
+    public AiUnavailableException(String message) {
+        super(message);
+    }
+}
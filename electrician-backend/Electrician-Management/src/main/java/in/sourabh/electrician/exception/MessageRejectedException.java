@@ -0,0 +1,16 @@
+package in.sourabh.electrician.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The chat writer is saturated (or shutting down) and did not accept the message;
+ * nothing was stored or broadcast, so the sender may simply send it again.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class MessageRejectedException extends RuntimeException {
+
+    public MessageRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,200 @@
+package in.sourabh.electrician.geo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory spatial index over points on the earth, bucketed into a fixed grid of
+ * lat/lon cells.
+ *
+ * A k-nearest query scans rings of cells outward from the query cell and stops once
+ * the next ring cannot hold anything closer than the current k-th hit, or lies wholly
+ * outside the radius. Distances are great-circle (haversine). Reads share a lock;
+ * writes are rare (profile edits) and take it exclusively.
+ */
+public class GeoGridIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final double cellDegrees;
+    private final int latCells;
+    private final int lonCells;
+
+    private final Map<Long, List<Point>> cells = new HashMap<>();
+    private final Map<Long, Point> points = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record Point(long id, double latitude, double longitude, long cell) {
+    }
+
+    public record Hit(long id, double distanceKm) {
+    }
+
+    public GeoGridIndex(double cellDegrees) {
+        if (cellDegrees <= 0 || cellDegrees > 10) {
+            throw new IllegalArgumentException("Cell size must be in (0, 10] degrees");
+        }
+        this.cellDegrees = cellDegrees;
+        this.latCells = (int) Math.ceil(180 / cellDegrees);
+        this.lonCells = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    public void put(long id, double latitude, double longitude) {
+        Point point = new Point(id, latitude, longitude, cellOf(latitude, longitude));
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            points.put(id, point);
+            cells.computeIfAbsent(point.cell(), c -> new ArrayList<>()).add(point);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole index in one step, e.g. after reloading from the database.
+     */
+    public void replaceAll(Map<Long, double[]> coordinates) {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            points.clear();
+            coordinates.forEach((id, latLon) -> {
+                Point point = new Point(id, latLon[0], latLon[1], cellOf(latLon[0], latLon[1]));
+                points.put(id, point);
+                cells.computeIfAbsent(point.cell(), c -> new ArrayList<>()).add(point);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code k} points within {@code radiusKm} of the given position, nearest first.
+     */
+    public List<Hit> nearest(double latitude, double longitude, double radiusKm, int k) {
+        if (k <= 0 || radiusKm <= 0) {
+            return List.of();
+        }
+
+        int centerRow = row(latitude);
+        int centerCol = col(longitude);
+
+        // Narrowest cell edge anywhere inside the search radius; used to bound ring distance
+        double radiusDegrees = radiusKm / KM_PER_DEGREE;
+        double widestLatitude = Math.min(89.9, Math.abs(latitude) + radiusDegrees);
+        double minCellKm = cellDegrees * KM_PER_DEGREE * Math.cos(Math.toRadians(widestLatitude));
+        int maxRing = (int) Math.min(Math.ceil(radiusKm / minCellKm) + 1, lonCells / 2);
+
+        // Max-heap on distance holding the best k so far
+        PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble(Hit::distanceKm).reversed());
+
+        lock.readLock().lock();
+        try {
+            for (int ring = 0; ring <= maxRing; ring++) {
+                // Everything in this ring is at least (ring - 1) whole cells away
+                double ringMinKm = Math.max(0, ring - 1) * minCellKm;
+                if (ringMinKm > radiusKm || (best.size() == k && ringMinKm > best.peek().distanceKm())) {
+                    break;
+                }
+                for (int dRow = -ring; dRow <= ring; dRow++) {
+                    for (int dCol = -ring; dCol <= ring; dCol++) {
+                        if (Math.abs(dRow) != ring && Math.abs(dCol) != ring) {
+                            continue;
+                        }
+                        scanCell(centerRow + dRow, centerCol + dCol, latitude, longitude, radiusKm, k, best);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits;
+    }
+
+    private void scanCell(int row, int col, double latitude, double longitude, double radiusKm, int k,
+            PriorityQueue<Hit> best) {
+        if (row < 0 || row >= latCells) {
+            return;
+        }
+        List<Point> cell = cells.get(key(row, Math.floorMod(col, lonCells)));
+        if (cell == null) {
+            return;
+        }
+        for (Point point : cell) {
+            double distance = distanceKm(latitude, longitude, point.latitude(), point.longitude());
+            if (distance > radiusKm) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.add(new Hit(point.id(), distance));
+            } else if (distance < best.peek().distanceKm()) {
+                best.poll();
+                best.add(new Hit(point.id(), distance));
+            }
+        }
+    }
+
+    private void removeLocked(long id) {
+        Point old = points.remove(id);
+        if (old == null) {
+            return;
+        }
+        List<Point> cell = cells.get(old.cell());
+        cell.removeIf(p -> p.id() == id);
+        if (cell.isEmpty()) {
+            cells.remove(old.cell());
+        }
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return key(row(latitude), col(longitude));
+    }
+
+    private int row(double latitude) {
+        return Math.min((int) Math.floor((Math.max(-90, Math.min(90, latitude)) + 90) / cellDegrees), latCells - 1);
+    }
+
+    private int col(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), lonCells);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
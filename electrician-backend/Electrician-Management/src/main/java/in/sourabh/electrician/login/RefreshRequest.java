@@ -0,0 +1,9 @@
+package in.sourabh.electrician.login;
+
+import lombok.Data;
+
+@Data
+public class RefreshRequest {
+
+    private String refreshToken;
+}
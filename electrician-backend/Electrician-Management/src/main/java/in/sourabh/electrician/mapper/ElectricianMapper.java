@@ -16,7 +16,12 @@ public class ElectricianMapper {
                 electrician.getImageProfile(),
                 electrician.getLocation(),
                 electrician.getDegree(),
-                electrician.getRole());
+                electrician.getRole(),
+                electrician.getLatitude(),
+                electrician.getLongitude(),
+                electrician.getImageMedium(),
+                electrician.getImageThumbnail(),
+                null);
     }
 
     public static Electrician mapToElectrician(ElectricianDto electricianDto) {
@@ -30,6 +35,11 @@ public class ElectricianMapper {
                 electricianDto.getImageProfile(),
                 electricianDto.getLocation(),
                 electricianDto.getDegree(),
-                electricianDto.getRole());
+                electricianDto.getRole(),
+                null,
+                electricianDto.getLatitude(),
+                electricianDto.getLongitude(),
+                electricianDto.getImageMedium(),
+                electricianDto.getImageThumbnail());
     } // <-- Added missing closing brace for method
 } // <-- Added missing closing brace for class
\ No newline at end of file
@@ -14,7 +14,10 @@ public class UserMapper {
                 user.getMobileNumber(),
                 user.getImageProfile(),
                 user.getLocation(),
-                user.getRole());
+                user.getRole(),
+                user.getImageMedium(),
+                user.getImageThumbnail(),
+                null);
     }
 
     public static User maToUser(UserDto userDto) {
@@ -26,6 +29,8 @@ public class UserMapper {
                 userDto.getMobileNumber(),
                 userDto.getImageProfile(),
                 userDto.getLocation(),
-                userDto.getRole());
+                userDto.getRole(),
+                userDto.getImageMedium(),
+                userDto.getImageThumbnail());
     }
 }
@@ -0,0 +1,74 @@
+package in.sourabh.electrician.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed millisecond buckets.
+ * Percentiles are reported as the upper bound of the bucket they fall in.
+ */
+public class LatencyRecorder {
+
+    private static final long[] BUCKET_BOUNDS_MS = {
+            1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 20_000, 60_000, Long.MAX_VALUE
+    };
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MS.length];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyRecorder() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long elapsedNanos, boolean success) {
+        count.increment();
+        if (!success) {
+            errors.increment();
+        }
+        totalNanos.add(elapsedNanos);
+        maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            if (millis <= BUCKET_BOUNDS_MS[i]) {
+                buckets[i].increment();
+                return;
+            }
+        }
+    }
+
+    public LatencySnapshot snapshot() {
+        long total = count.sum();
+        double meanMillis = total == 0 ? 0.0 : totalNanos.sum() / (double) total / 1_000_000;
+        return new LatencySnapshot(
+                total,
+                errors.sum(),
+                meanMillis,
+                TimeUnit.NANOSECONDS.toMillis(maxNanos.get()),
+                percentileMillis(0.50, total),
+                percentileMillis(0.99, total));
+    }
+
+    private long percentileMillis(double quantile, long total) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) {
+                return BUCKET_BOUNDS_MS[i] == Long.MAX_VALUE
+                        ? TimeUnit.NANOSECONDS.toMillis(maxNanos.get())
+                        : BUCKET_BOUNDS_MS[i];
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+    }
+}
@@ -0,0 +1,8 @@
+package in.sourabh.electrician.metrics;
+
+/**
+ * Point-in-time view of a {@link LatencyRecorder}.
+ */
+public record LatencySnapshot(long count, long errors, double meanMillis, long maxMillis,
+        long p50Millis, long p99Millis) {
+}
@@ -0,0 +1,26 @@
+package in.sourabh.electrician.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import in.sourabh.electrician.entites.Account;
+import in.sourabh.electrician.security.AccountType;
+
+@Repository
+public interface AccountRepository extends JpaRepository<Account, Long> {
+
+    Optional<Account> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    Optional<Account> findByAccountTypeAndAccountId(AccountType accountType, Long accountId);
+
+    @Modifying
+    @Query("DELETE FROM Account a WHERE a.accountType = :accountType AND a.accountId = :accountId")
+    int deleteByOwner(@Param("accountType") AccountType accountType, @Param("accountId") Long accountId);
+}
@@ -0,0 +1,22 @@
+package in.sourabh.electrician.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import in.sourabh.electrician.entites.BlockedInterval;
+
+@Repository
+public interface BlockedIntervalRepository extends JpaRepository<BlockedInterval, Long> {
+
+    List<BlockedInterval> findByElectricianIdAndEndsAtAfterOrderByStartsAt(Long electricianId, LocalDateTime after);
+
+    @Query("SELECT COUNT(b) > 0 FROM BlockedInterval b WHERE b.electricianId = :electricianId "
+            + "AND b.startsAt < :end AND b.endsAt > :start")
+    boolean existsOverlapping(@Param("electricianId") Long electricianId,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
@@ -3,7 +3,14 @@ import in.sourabh.electrician.entites.Booking;
 import in.sourabh.electrician.entites.BookingStatus;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -17,4 +24,36 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByElectricianIdAndStatus(Long electricianId, BookingStatus status);
     
     List<Booking> findByElectricianIdOrderByCreatedAtDesc(Long electricianId);
+    
+    // Index range on idx_booking_electrician_schedule; a slot is at most a day long
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.electrician.id = :electricianId "
+            + "AND b.status IN :statuses AND b.scheduledDate > :earliestStart AND b.scheduledDate < :end "
+            + "AND b.scheduledEnd > :start")
+    boolean existsOverlapping(@Param("electricianId") Long electricianId,
+            @Param("statuses") Collection<BookingStatus> statuses,
+            @Param("earliestStart") LocalDateTime earliestStart,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
+    // Rows are [id, scheduledDate, scheduledEnd]; feeds the cached availability calendar
+    @Query("SELECT b.id, b.scheduledDate, b.scheduledEnd FROM Booking b WHERE b.electrician.id = :electricianId "
+            + "AND b.status IN :statuses AND b.scheduledDate >= :from")
+    List<Object[]> findSlots(@Param("electricianId") Long electricianId,
+            @Param("statuses") Collection<BookingStatus> statuses, @Param("from") LocalDateTime from);
+    
+    // Compare-and-set status change in one statement; 0 rows means not found, not theirs, or wrong state
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :target, b.version = b.version + 1, b.updatedAt = :now "
+            + "WHERE b.id = :bookingId AND b.electrician.id = :electricianId AND b.status IN :sources")
+    int transitionForElectrician(@Param("bookingId") Long bookingId, @Param("electricianId") Long electricianId,
+            @Param("sources") Collection<BookingStatus> sources, @Param("target") BookingStatus target,
+            @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :target, b.version = b.version + 1, b.updatedAt = :now "
+            + "WHERE b.id = :bookingId AND b.user.id = :userId AND b.status IN :sources")
+    int transitionForUser(@Param("bookingId") Long bookingId, @Param("userId") Long userId,
+            @Param("sources") Collection<BookingStatus> sources, @Param("target") BookingStatus target,
+            @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,27 @@
+package in.sourabh.electrician.repository;
+
+import in.sourabh.electrician.entites.ChatRoom;
+import in.sourabh.electrician.entites.ChatRoomParticipant;
+import in.sourabh.electrician.security.AccountType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface ChatRoomParticipantRepository extends JpaRepository<ChatRoomParticipant, Long> {
+
+    // ✅ Index seek on idx_chat_room_participants_account
+    @Query("SELECT p.chatRoom FROM ChatRoomParticipant p "
+            + "WHERE p.participantType = :participantType AND p.userId = :userId")
+    List<ChatRoom> findChatRoomsByParticipant(@Param("participantType") AccountType participantType,
+            @Param("userId") Long userId);
+
+    boolean existsByChatRoom_Id(Long chatRoomId);
+
+    @Modifying
+    @Query("DELETE FROM ChatRoomParticipant p WHERE p.chatRoom.id = :chatRoomId")
+    int deleteByChatRoomId(@Param("chatRoomId") Long chatRoomId);
+}
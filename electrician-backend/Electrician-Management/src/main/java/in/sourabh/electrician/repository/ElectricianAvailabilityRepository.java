@@ -0,0 +1,21 @@
+package in.sourabh.electrician.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import in.sourabh.electrician.entites.ElectricianAvailability;
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface ElectricianAvailabilityRepository extends JpaRepository<ElectricianAvailability, Long> {
+
+    // Version is incremented at commit; a concurrent reservation that read the same version fails
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT a FROM ElectricianAvailability a WHERE a.electricianId = :electricianId")
+    Optional<ElectricianAvailability> findForReservation(@Param("electricianId") Long electricianId);
+}
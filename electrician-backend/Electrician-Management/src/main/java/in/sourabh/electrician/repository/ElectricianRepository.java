@@ -1,9 +1,17 @@
 package in.sourabh.electrician.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import in.sourabh.electrician.dto.ElectricianSummary;
 import in.sourabh.electrician.entites.Electrician;
 
 public interface ElectricianRepository extends JpaRepository<Electrician,Long>{
@@ -11,5 +19,39 @@ public interface ElectricianRepository extends JpaRepository<Electrician,Long>{
     boolean existsByEmail(String email);
 
     Optional<Electrician> findByEmail(String email);
-    
+
+    @Query("SELECT new in.sourabh.electrician.dto.ElectricianSummary(e.id, e.name, e.email, e.mobileNumber, e.experience, e.degree, e.location, e.imageProfile, e.imageThumbnail) "
+            + "FROM Electrician e ORDER BY e.id")
+    List<ElectricianSummary> findAllSummaries();
+
+    @Query("SELECT new in.sourabh.electrician.dto.ElectricianSummary(e.id, e.name, e.email, e.mobileNumber, e.experience, e.degree, e.location, e.imageProfile, e.imageThumbnail) "
+            + "FROM Electrician e WHERE e.id IN :ids")
+    List<ElectricianSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Rows are [id, latitude, longitude]; feeds the in-memory geo index
+    @Query("SELECT e.id, e.latitude, e.longitude FROM Electrician e "
+            + "WHERE e.latitude IS NOT NULL AND e.longitude IS NOT NULL")
+    List<Object[]> findAllCoordinates();
+
+    // Directory page: null filters are ignored; afterId switches to keyset paging on id.
+    // Slice fetches one extra row for hasNext instead of running a count query.
+    @Query("SELECT new in.sourabh.electrician.dto.ElectricianSummary(e.id, e.name, e.email, e.mobileNumber, e.experience, e.degree, e.location, e.imageProfile, e.imageThumbnail) "
+            + "FROM Electrician e "
+            + "WHERE (:location IS NULL OR e.location LIKE :location ESCAPE '!') "
+            + "AND (:degree IS NULL OR e.degree = :degree) "
+            + "AND (:minExperience IS NULL OR e.experienceYears >= :minExperience) "
+            + "AND (:afterId IS NULL OR e.id > :afterId) "
+            + "ORDER BY e.id")
+    Slice<ElectricianSummary> findDirectory(@Param("location") String locationPrefix,
+            @Param("degree") String degree,
+            @Param("minExperience") Integer minExperience,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // Touches only the image columns, so a concurrent profile edit is not overwritten
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Electrician e SET e.imageProfile = :imageUrl, e.imageMedium = :mediumUrl, "
+            + "e.imageThumbnail = :thumbnailUrl WHERE e.id = :id")
+    int updateImages(@Param("id") Long id, @Param("imageUrl") String imageUrl,
+            @Param("mediumUrl") String mediumUrl, @Param("thumbnailUrl") String thumbnailUrl);
 }
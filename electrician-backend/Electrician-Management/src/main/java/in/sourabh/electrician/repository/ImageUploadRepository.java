@@ -0,0 +1,57 @@
+package in.sourabh.electrician.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import in.sourabh.electrician.entites.ImageUpload;
+import in.sourabh.electrician.entites.ImageUploadStatus;
+import in.sourabh.electrician.security.AccountType;
+
+@Repository
+public interface ImageUploadRepository extends JpaRepository<ImageUpload, Long> {
+
+    List<ImageUpload> findByStatusIn(Collection<ImageUploadStatus> statuses);
+
+    // Takes a PENDING job for one attempt; 0 rows means another worker has it or it was superseded
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ImageUpload u SET u.status = in.sourabh.electrician.entites.ImageUploadStatus.UPLOADING, "
+            + "u.attempts = u.attempts + 1, u.updatedAt = :now "
+            + "WHERE u.id = :id AND u.status = in.sourabh.electrician.entites.ImageUploadStatus.PENDING")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ImageUpload u SET u.status = :target, u.lastError = :error, u.updatedAt = :now "
+            + "WHERE u.id = :id AND u.status = :source")
+    int transition(@Param("id") Long id, @Param("source") ImageUploadStatus source,
+            @Param("target") ImageUploadStatus target, @Param("error") String error,
+            @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ImageUpload u SET u.status = in.sourabh.electrician.entites.ImageUploadStatus.DONE, "
+            + "u.imageUrl = :url, u.mediumUrl = :mediumUrl, u.thumbnailUrl = :thumbnailUrl, "
+            + "u.lastError = NULL, u.updatedAt = :now "
+            + "WHERE u.id = :id AND u.status = in.sourabh.electrician.entites.ImageUploadStatus.UPLOADING")
+    int complete(@Param("id") Long id, @Param("url") String url, @Param("mediumUrl") String mediumUrl,
+            @Param("thumbnailUrl") String thumbnailUrl, @Param("now") LocalDateTime now);
+
+    // Only the newest image for a profile may land; older unfinished jobs give way
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ImageUpload u SET u.status = in.sourabh.electrician.entites.ImageUploadStatus.SUPERSEDED, "
+            + "u.updatedAt = :now WHERE u.ownerType = :ownerType AND u.ownerId = :ownerId "
+            + "AND u.status IN (in.sourabh.electrician.entites.ImageUploadStatus.PENDING, "
+            + "in.sourabh.electrician.entites.ImageUploadStatus.UPLOADING)")
+    int supersede(@Param("ownerType") AccountType ownerType, @Param("ownerId") Long ownerId,
+            @Param("now") LocalDateTime now);
+}
@@ -1,12 +1,16 @@
 package in.sourabh.electrician.repository;
 
+import in.sourabh.electrician.dto.MessageDto;
 import in.sourabh.electrician.entites.Message;
+import in.sourabh.electrician.security.AccountType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -19,6 +23,39 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
 
     Page<Message> findByChatRoom_Id(Long chatRoomId, Pageable pageable);
 
-    @Query("SELECT m FROM Message m WHERE m.senderId = :userId OR m.receiverId = :userId ORDER BY m.sentAt DESC")
-    List<Message> findRecentConversationsByUserId(@Param("userId") Long userId);
+    // ✅ Keyset history windows (backed by idx_messages_room_sent_id), projected straight into DTOs
+    @Query("SELECT new in.sourabh.electrician.dto.MessageDto(m.id, m.content, m.senderId, m.receiverId, m.senderType, m.receiverType, m.sentAt, m.chatRoom.id, m.messageType, m.seen) "
+            + "FROM Message m WHERE m.chatRoom.id = :chatRoomId "
+            + "ORDER BY m.sentAt DESC, m.id DESC")
+    List<MessageDto> findLatestWindow(@Param("chatRoomId") Long chatRoomId, Pageable pageable);
+
+    @Query("SELECT new in.sourabh.electrician.dto.MessageDto(m.id, m.content, m.senderId, m.receiverId, m.senderType, m.receiverType, m.sentAt, m.chatRoom.id, m.messageType, m.seen) "
+            + "FROM Message m WHERE m.chatRoom.id = :chatRoomId "
+            + "AND (m.sentAt < :sentAt OR (m.sentAt = :sentAt AND m.id < :id)) "
+            + "ORDER BY m.sentAt DESC, m.id DESC")
+    List<MessageDto> findWindowBefore(@Param("chatRoomId") Long chatRoomId,
+            @Param("sentAt") LocalDateTime sentAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT new in.sourabh.electrician.dto.MessageDto(m.id, m.content, m.senderId, m.receiverId, m.senderType, m.receiverType, m.sentAt, m.chatRoom.id, m.messageType, m.seen) "
+            + "FROM Message m WHERE m.chatRoom.id = :chatRoomId "
+            + "AND (m.sentAt > :sentAt OR (m.sentAt = :sentAt AND m.id > :id)) "
+            + "ORDER BY m.sentAt ASC, m.id ASC")
+    List<MessageDto> findWindowAfter(@Param("chatRoomId") Long chatRoomId,
+            @Param("sentAt") LocalDateTime sentAt, @Param("id") Long id, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Message m WHERE m.chatRoom.id = :chatRoomId")
+    int deleteByChatRoomId(@Param("chatRoomId") Long chatRoomId);
+
+    @Query("SELECT m FROM Message m "
+            + "WHERE (m.senderType = :type AND m.senderId = :userId) OR (m.receiverType = :type AND m.receiverId = :userId) "
+            + "ORDER BY m.sentAt DESC")
+    List<Message> findRecentConversationsByParticipant(@Param("type") AccountType type, @Param("userId") Long userId);
+
+    // Types the messages of a room keyed before messages carried account types
+    @Modifying
+    @Query("UPDATE Message m SET m.senderType = :senderType, m.receiverType = :receiverType "
+            + "WHERE m.chatRoom.id = :chatRoomId AND m.senderId = :senderId AND m.senderType IS NULL")
+    int assignParticipantTypes(@Param("chatRoomId") Long chatRoomId, @Param("senderId") Long senderId,
+            @Param("senderType") AccountType senderType, @Param("receiverType") AccountType receiverType);
 }
\ No newline at end of file
@@ -3,6 +3,9 @@ package in.sourabh.electrician.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import in.sourabh.electrician.entites.User;
 
@@ -10,4 +13,11 @@ public interface UserRepository extends JpaRepository<User,Long>{
 
     boolean existsByEmail(String email);
     Optional<User> findByEmail(String email);
+
+    // Touches only the image columns, so a concurrent profile edit is not overwritten
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE User u SET u.imageProfile = :imageUrl, u.imageMedium = :mediumUrl, "
+            + "u.imageThumbnail = :thumbnailUrl WHERE u.id = :id")
+    int updateImages(@Param("id") Long id, @Param("imageUrl") String imageUrl,
+            @Param("mediumUrl") String mediumUrl, @Param("thumbnailUrl") String thumbnailUrl);
 }
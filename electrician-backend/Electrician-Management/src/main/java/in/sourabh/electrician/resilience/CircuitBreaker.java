@@ -0,0 +1,145 @@
+package in.sourabh.electrician.resilience;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Count-based sliding-window circuit breaker.
+ *
+ * The outcomes of the last {@code windowSize} calls are kept in a ring buffer. Once
+ * at least {@code minimumCalls} have been recorded and the failure rate reaches the
+ * threshold, the breaker opens and rejects calls for {@code openDuration}. After that
+ * it lets a single trial call through (half-open): success closes it again and clears
+ * the window, failure re-opens it.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean[] failures;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failureCount;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    private long rejected;
+    private long opened;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration openDuration) {
+        if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("Circuit breaker needs 0 < minimumCalls <= windowSize");
+        }
+        this.failures = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Returns false if the call must not go upstream. A true result must be followed by
+     * exactly one of {@link #onSuccess()}, {@link #onFailure()} or {@link #onIgnored()}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                rejected++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                rejected++;
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            state = State.CLOSED;
+            resetWindow();
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            open();
+            return;
+        }
+        record(true);
+        if (recorded >= minimumCalls && (double) failureCount / recorded >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * The call did not reach upstream or its outcome says nothing about upstream health.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state);
+        stats.put("windowCalls", recorded);
+        stats.put("windowFailureRate", recorded == 0 ? 0.0 : (double) failureCount / recorded);
+        stats.put("opened", opened);
+        stats.put("rejected", rejected);
+        return stats;
+    }
+
+    private void record(boolean failed) {
+        if (state == State.OPEN) {
+            // Late outcome of a call started before the breaker opened
+            return;
+        }
+        if (recorded == failures.length) {
+            if (failures[next]) {
+                failureCount--;
+            }
+        } else {
+            recorded++;
+        }
+        failures[next] = failed;
+        if (failed) {
+            failureCount++;
+        }
+        next = (next + 1) % failures.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        opened++;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        next = 0;
+        recorded = 0;
+        failureCount = 0;
+    }
+}
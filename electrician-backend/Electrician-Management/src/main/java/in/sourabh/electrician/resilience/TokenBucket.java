@@ -0,0 +1,41 @@
+package in.sourabh.electrician.resilience;
+
+/**
+ * Non-blocking token bucket: refills at a steady rate up to a burst capacity, and a
+ * call either takes a token now or is refused. A rate of zero or less disables it.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long lastRefill;
+    private long refused;
+
+    public TokenBucket(double tokensPerSecond, int burst) {
+        this.capacity = Math.max(1, burst);
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (tokensPerNano <= 0) {
+            return true;
+        }
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        refused++;
+        return false;
+    }
+
+    public synchronized long refused() {
+        return refused;
+    }
+}
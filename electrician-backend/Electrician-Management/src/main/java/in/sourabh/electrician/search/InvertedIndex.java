@@ -0,0 +1,352 @@
+package in.sourabh.electrician.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Small in-memory full-text index over documents with a few named text fields.
+ *
+ * Documents are ranked with BM25 using per-field boosts, and a match on more of the
+ * query terms outranks a stronger match on fewer. The last query term also matches as a
+ * prefix unless the query ends in a space, so type-ahead works. Terms that are not in
+ * the vocabulary match within one typo (two for 8+ letters), found through an index of
+ * deletion variants. Each document carries a stored value that is returned with its
+ * hit, so a search never needs the database.
+ */
+public class InvertedIndex<D> {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_EDIT_DISTANCE = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final double PREFIX_WEIGHT = 0.8;
+
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "the", "and", "or", "in", "at", "on", "of",
+            "for", "to", "with", "by", "near", "nearby", "around", "me", "my", "i", "need", "want", "find");
+
+    private final String[] fields;
+    private final double[] boosts;
+
+    // term -> document id -> term frequency per field
+    private final TreeMap<String, Map<Long, int[]>> postings = new TreeMap<>();
+    // deletion variant -> vocabulary terms that produce it
+    private final Map<String, Set<String>> variants = new HashMap<>();
+    private final Map<Long, Document<D>> documents = new HashMap<>();
+    private final long[] totalFieldLength;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record Document<D>(D stored, int[] fieldLengths, Set<String> terms) {
+    }
+
+    public record Hit<D>(long id, D document, double score) {
+    }
+
+    /**
+     * @param fieldBoosts field names in a fixed order, each with its score multiplier
+     */
+    public InvertedIndex(LinkedHashMap<String, Double> fieldBoosts) {
+        this.fields = fieldBoosts.keySet().toArray(String[]::new);
+        this.boosts = fieldBoosts.values().stream().mapToDouble(Double::doubleValue).toArray();
+        this.totalFieldLength = new long[fields.length];
+    }
+
+    /**
+     * Adds or replaces a document. Fields missing from {@code fieldValues} are empty.
+     */
+    public void put(long id, Map<String, String> fieldValues, D stored) {
+        Map<String, int[]> frequencies = new HashMap<>();
+        int[] lengths = new int[fields.length];
+        for (int f = 0; f < fields.length; f++) {
+            List<String> tokens = tokenize(fieldValues.get(fields[f]));
+            lengths[f] = tokens.size();
+            for (String token : tokens) {
+                frequencies.computeIfAbsent(token, t -> new int[fields.length])[f]++;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            frequencies.forEach((term, tf) -> {
+                Map<Long, int[]> docs = postings.get(term);
+                if (docs == null) {
+                    docs = new HashMap<>();
+                    postings.put(term, docs);
+                    for (String variant : deletions(term, MAX_EDIT_DISTANCE)) {
+                        variants.computeIfAbsent(variant, v -> new HashSet<>()).add(term);
+                    }
+                }
+                docs.put(id, tf);
+            });
+            for (int f = 0; f < fields.length; f++) {
+                totalFieldLength[f] += lengths[f];
+            }
+            documents.put(id, new Document<>(stored, lengths, frequencies.keySet()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int vocabularySize() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best {@code limit} documents for a free-text query, highest score first.
+     */
+    public List<Hit<D>> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        boolean lastIsPrefix = !Character.isWhitespace(query.charAt(query.length() - 1));
+
+        Map<Long, double[]> scores = new HashMap<>(); // [score sum, matched terms]
+        lock.readLock().lock();
+        try {
+            int n = documents.size();
+            double[] averageLength = new double[fields.length];
+            for (int f = 0; f < fields.length; f++) {
+                averageLength[f] = n == 0 ? 1 : Math.max(1, (double) totalFieldLength[f] / n);
+            }
+
+            for (int i = 0; i < terms.size(); i++) {
+                Map<String, Double> expansions = expand(terms.get(i), lastIsPrefix && i == terms.size() - 1);
+                // A document counts once per query term, with its best expansion
+                Map<Long, Double> best = new HashMap<>();
+                expansions.forEach((term, weight) -> {
+                    Map<Long, int[]> docs = postings.get(term);
+                    double idf = Math.log(1 + (n - docs.size() + 0.5) / (docs.size() + 0.5));
+                    docs.forEach((id, tf) -> {
+                        double score = weight * idf * saturate(tf, documents.get(id).fieldLengths(), averageLength);
+                        best.merge(id, score, Math::max);
+                    });
+                });
+                best.forEach((id, score) -> {
+                    double[] total = scores.computeIfAbsent(id, k -> new double[2]);
+                    total[0] += score;
+                    total[1]++;
+                });
+            }
+
+            List<Hit<D>> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, total) -> hits.add(
+                    new Hit<>(id, documents.get(id).stored(), total[0] * total[1] / terms.size())));
+            hits.sort(Comparator.comparingDouble((Hit<D> h) -> -h.score()).thenComparingLong(Hit::id));
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Completions of the query's last word that occur in the index, most common first,
+     * each returned as the whole query with that word completed.
+     */
+    public List<String> suggest(String query, int limit) {
+        if (query == null || limit <= 0) {
+            return List.of();
+        }
+        String trimmed = query.stripTrailing().toLowerCase(Locale.ROOT);
+        int start = trimmed.length();
+        while (start > 0 && Character.isLetterOrDigit(trimmed.charAt(start - 1))) {
+            start--;
+        }
+        String prefix = trimmed.substring(start);
+        if (prefix.isEmpty() || trimmed.length() != query.length()) {
+            return List.of();
+        }
+
+        List<Map.Entry<String, Integer>> completions = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<String, Map<Long, int[]>> entry : prefixRange(prefix).entrySet()) {
+                completions.add(Map.entry(entry.getKey(), entry.getValue().size()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        String head = trimmed.substring(0, start);
+        return completions.stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry::getKey))
+                .limit(limit)
+                .map(e -> head + e.getKey())
+                .toList();
+    }
+
+    // Vocabulary terms a query term stands for, with a weight in (0, 1]
+    private Map<String, Double> expand(String term, boolean prefix) {
+        Map<String, Double> expansions = new HashMap<>();
+        if (postings.containsKey(term)) {
+            expansions.put(term, 1.0);
+        }
+        if (prefix) {
+            for (String completion : prefixRange(term).keySet()) {
+                if (expansions.size() >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                expansions.putIfAbsent(completion, PREFIX_WEIGHT);
+            }
+        }
+        if (expansions.isEmpty()) {
+            int maxDistance = allowedTypos(term);
+            for (String variant : deletions(term, maxDistance)) {
+                for (String candidate : variants.getOrDefault(variant, Set.of())) {
+                    int distance = editDistance(term, candidate, maxDistance);
+                    if (distance <= maxDistance) {
+                        expansions.merge(candidate, 1.0 / (1 + distance), Math::max);
+                    }
+                }
+            }
+        }
+        return expansions;
+    }
+
+    private SortedMap<String, Map<Long, int[]>> prefixRange(String prefix) {
+        return postings.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    private double saturate(int[] tf, int[] lengths, double[] averageLength) {
+        double weighted = 0;
+        for (int f = 0; f < fields.length; f++) {
+            if (tf[f] > 0) {
+                weighted += boosts[f] * tf[f] / (1 - B + B * lengths[f] / averageLength[f]);
+            }
+        }
+        return weighted * (K1 + 1) / (weighted + K1);
+    }
+
+    private void removeLocked(long id) {
+        Document<D> old = documents.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (int f = 0; f < fields.length; f++) {
+            totalFieldLength[f] -= old.fieldLengths()[f];
+        }
+        for (String term : old.terms()) {
+            Map<Long, int[]> docs = postings.get(term);
+            docs.remove(id);
+            if (docs.isEmpty()) {
+                postings.remove(term);
+                for (String variant : deletions(term, MAX_EDIT_DISTANCE)) {
+                    Set<String> terms = variants.get(variant);
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        variants.remove(variant);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int allowedTypos(String term) {
+        return term.length() < 4 ? 0 : term.length() < 8 ? 1 : 2;
+    }
+
+    /**
+     * Lowercased words and numbers, stop words dropped, trailing plural "s" stripped.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (word.isEmpty() || STOP_WORDS.contains(word)) {
+                continue;
+            }
+            if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+                word = word.substring(0, word.length() - 1);
+            }
+            tokens.add(word);
+        }
+        return tokens;
+    }
+
+    // The term plus every string reachable by deleting up to maxDeletes characters
+    static Set<String> deletions(String term, int maxDeletes) {
+        Set<String> result = new HashSet<>();
+        result.add(term);
+        List<String> frontier = List.of(term);
+        for (int d = 0; d < maxDeletes; d++) {
+            List<String> next = new ArrayList<>();
+            for (String word : frontier) {
+                if (word.length() <= 1) {
+                    continue;
+                }
+                for (int i = 0; i < word.length(); i++) {
+                    String shorter = word.substring(0, i) + word.substring(i + 1);
+                    if (result.add(shorter)) {
+                        next.add(shorter);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return result;
+    }
+
+    // Optimal string alignment distance; returns max + 1 once it is known to exceed max
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int rowMin = Integer.MAX_VALUE;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, d[i][j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+        }
+        return Math.min(d[a.length()][b.length()], max + 1);
+    }
+}
@@ -0,0 +1,51 @@
+package in.sourabh.electrician.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import in.sourabh.electrician.exception.ResourceNotFoundException;
+
+/**
+ * The authenticated account, resolved once by {@code CustomUserDetailsService} and
+ * handed to controllers via {@code @AuthenticationPrincipal}, so services work with
+ * ids instead of looking the caller up by email again.
+ */
+public class AccountPrincipal extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long accountId;
+    private final AccountType accountType;
+
+    public AccountPrincipal(Long accountId, AccountType accountType, String email, String password,
+            Collection<? extends GrantedAuthority> authorities) {
+        super(email, password, authorities);
+        this.accountId = accountId;
+        this.accountType = accountType;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public AccountType getAccountType() {
+        return accountType;
+    }
+
+    // Id in the users table; fails the same way the old email lookup did for other accounts
+    public Long userId() {
+        if (accountType != AccountType.USER) {
+            throw new ResourceNotFoundException("User not found: " + getUsername());
+        }
+        return accountId;
+    }
+
+    public Long electricianId() {
+        if (accountType != AccountType.ELECTRICIAN) {
+            throw new ResourceNotFoundException("Electrician not found: " + getUsername());
+        }
+        return accountId;
+    }
+}
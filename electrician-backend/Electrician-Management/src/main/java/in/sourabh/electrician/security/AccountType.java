@@ -0,0 +1,9 @@
+package in.sourabh.electrician.security;
+
+/**
+ * Which table an account lives in. Admins are USER accounts with the ADMIN role.
+ */
+public enum AccountType {
+    USER,
+    ELECTRICIAN
+}
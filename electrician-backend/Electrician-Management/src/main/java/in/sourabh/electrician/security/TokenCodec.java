@@ -0,0 +1,106 @@
+package in.sourabh.electrician.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encodes account claims into compact HMAC-SHA256 signed tokens and verifies them.
+ *
+ * A token is {@code base64url(payload) "." base64url(signature)}; the payload is a
+ * pipe-separated list with the email last, so it may contain anything. Verifying is one
+ * HMAC over a few hundred bytes plus a constant-time compare: no lookup, no BCrypt.
+ * Tokens cannot be revoked before they expire, which is why access tokens are short-lived.
+ */
+public class TokenCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String VERSION = "v1";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public enum Kind {
+        ACCESS,
+        REFRESH
+    }
+
+    public record Claims(Kind kind, long accountId, AccountType accountType, String email, List<String> roles,
+            long expiresAtEpochSecond) {
+    }
+
+    // Mac instances are not thread-safe; one per thread avoids both locking and re-keying
+    private final ThreadLocal<Mac> macs;
+
+    public TokenCodec(byte[] secret) {
+        if (secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalArgumentException("Token secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        SecretKeySpec key = new SecretKeySpec(Arrays.copyOf(secret, secret.length), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 is not available", e);
+            }
+        });
+    }
+
+    public String encode(Claims claims) {
+        String payload = String.join("|", VERSION, claims.kind().name(), String.valueOf(claims.accountId()),
+                claims.accountType().name(), String.valueOf(claims.expiresAtEpochSecond()),
+                String.join(",", claims.roles()), claims.email());
+        String body = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return body + "." + ENCODER.encodeToString(sign(body));
+    }
+
+    /**
+     * The token's claims if the signature matches, the kind is {@code expected} and it has
+     * not expired at {@code nowEpochSecond}; empty for anything malformed or tampered with.
+     */
+    public Optional<Claims> decode(String token, Kind expected, long nowEpochSecond) {
+        int dot = token == null ? -1 : token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+        String body = token.substring(0, dot);
+        byte[] signature;
+        String payload;
+        try {
+            signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(body))) {
+                return Optional.empty();
+            }
+            payload = new String(DECODER.decode(body), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        // Signed by us, so the layout is trusted; only version, kind and expiry need checking
+        String[] parts = payload.split("\\|", 7);
+        if (parts.length != 7 || !VERSION.equals(parts[0]) || !expected.name().equals(parts[1])) {
+            return Optional.empty();
+        }
+        long expiresAt = Long.parseLong(parts[4]);
+        if (expiresAt <= nowEpochSecond) {
+            return Optional.empty();
+        }
+        List<String> roles = parts[5].isEmpty() ? List.of() : List.of(parts[5].split(","));
+        return Optional.of(new Claims(expected, Long.parseLong(parts[2]), AccountType.valueOf(parts[3]), parts[6],
+                roles, expiresAt));
+    }
+
+    private byte[] sign(String body) {
+        return macs.get().doFinal(body.getBytes(StandardCharsets.US_ASCII));
+    }
+}
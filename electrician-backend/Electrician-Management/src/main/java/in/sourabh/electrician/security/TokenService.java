@@ -0,0 +1,119 @@
+package in.sourabh.electrician.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import in.sourabh.electrician.serviceimpl.CustomUserDetailsService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Issues access/refresh token pairs at login and turns access tokens back into an
+ * {@link AccountPrincipal} without touching the database.
+ *
+ * Refreshing does reload the account (one query every few minutes per client), so a
+ * deleted account or changed role takes effect within one access-token lifetime.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenService.class);
+
+    private final CustomUserDetailsService userDetailsService;
+    private final Clock clock = Clock.systemUTC();
+
+    // Share one secret across nodes; when unset each start generates its own
+    @Value("${auth.token.secret:}")
+    private String secret;
+
+    @Value("${auth.token.access-ttl-minutes:15}")
+    private long accessTtlMinutes;
+
+    @Value("${auth.token.refresh-ttl-days:7}")
+    private long refreshTtlDays;
+
+    private TokenCodec codec;
+
+    @PostConstruct
+    void init() {
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            logger.warn("auth.token.secret is not set; using a random key, tokens will not survive a restart");
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        codec = new TokenCodec(key);
+    }
+
+    /**
+     * Token fields for the login/refresh response body.
+     */
+    public Map<String, Object> issue(AccountPrincipal principal) {
+        long now = clock.instant().getEpochSecond();
+        long accessTtl = Duration.ofMinutes(accessTtlMinutes).toSeconds();
+        List<String> roles = principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+
+        Map<String, Object> tokens = new LinkedHashMap<>();
+        tokens.put("tokenType", "Bearer");
+        tokens.put("accessToken", codec.encode(new TokenCodec.Claims(TokenCodec.Kind.ACCESS,
+                principal.getAccountId(), principal.getAccountType(), principal.getUsername(), roles,
+                now + accessTtl)));
+        tokens.put("expiresIn", accessTtl);
+        tokens.put("refreshToken", codec.encode(new TokenCodec.Claims(TokenCodec.Kind.REFRESH,
+                principal.getAccountId(), principal.getAccountType(), principal.getUsername(), roles,
+                now + Duration.ofDays(refreshTtlDays).toSeconds())));
+        return tokens;
+    }
+
+    public Optional<AccountPrincipal> authenticate(String accessToken) {
+        return codec.decode(accessToken, TokenCodec.Kind.ACCESS, clock.instant().getEpochSecond())
+                .map(TokenService::toPrincipal);
+    }
+
+    /**
+     * A fresh pair for a valid refresh token whose account still exists.
+     */
+    public Map<String, Object> refresh(String refreshToken) {
+        TokenCodec.Claims claims = codec
+                .decode(refreshToken, TokenCodec.Kind.REFRESH, clock.instant().getEpochSecond())
+                .orElseThrow(() -> new BadCredentialsException("Invalid or expired refresh token"));
+
+        UserDetails account;
+        try {
+            account = userDetailsService.loadUserByUsername(claims.email());
+        } catch (UsernameNotFoundException e) {
+            throw new BadCredentialsException("Invalid or expired refresh token");
+        }
+        // Same email re-registered as a different account: the old token must not carry over
+        if (!(account instanceof AccountPrincipal principal) || principal.getAccountId() != claims.accountId()
+                || principal.getAccountType() != claims.accountType()) {
+            throw new BadCredentialsException("Invalid or expired refresh token");
+        }
+        return issue(principal);
+    }
+
+    private static AccountPrincipal toPrincipal(TokenCodec.Claims claims) {
+        // No password: a token-authenticated principal can never be used to re-check credentials
+        return new AccountPrincipal(claims.accountId(), claims.accountType(), claims.email(), "",
+                claims.roles().stream().map(SimpleGrantedAuthority::new).toList());
+    }
+}
@@ -0,0 +1,27 @@
+package in.sourabh.electrician.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import in.sourabh.electrician.calendar.ElectricianCalendar;
+import in.sourabh.electrician.dto.AvailabilityDto;
+import in.sourabh.electrician.dto.BlockedIntervalDto;
+import in.sourabh.electrician.entites.Booking;
+
+public interface AvailabilityService {
+
+    AvailabilityDto getAvailability(Long electricianId);
+
+    AvailabilityDto updateAvailability(Long electricianId, AvailabilityDto availabilityDto);
+
+    BlockedIntervalDto blockInterval(Long electricianId, BlockedIntervalDto blockedIntervalDto);
+
+    void unblockInterval(Long electricianId, Long blockedIntervalId);
+
+    List<ElectricianCalendar.Slot> getFreeSlots(Long electricianId, LocalDate from, int days);
+
+    // Saves the booking if its slot is free, atomically with respect to other reservations
+    Booking reserveSlot(Booking booking);
+
+    void releaseSlot(Booking booking);
+}
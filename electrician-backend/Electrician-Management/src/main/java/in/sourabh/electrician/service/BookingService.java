@@ -3,26 +3,27 @@ package in.sourabh.electrician.service;
 import java.util.List;
 
 import in.sourabh.electrician.dto.BookingDTO;
+// Callers pass ids from the authenticated AccountPrincipal, never emails to look up again
 public interface BookingService {
     
     // Create new booking
-    BookingDTO createBooking(BookingDTO dto, String userEmail);
+    BookingDTO createBooking(BookingDTO dto, Long userId);
     
     // Get user bookings
-    List<BookingDTO> getUserBookings(String userEmail);
+    List<BookingDTO> getUserBookings(Long userId);
     
     // Get electrician bookings
-    List<BookingDTO> getElectricianBookings(String electricianEmail);
+    List<BookingDTO> getElectricianBookings(Long electricianId);
     
     // Accept booking
-    BookingDTO acceptBooking(Long bookingId, String electricianEmail);
+    BookingDTO acceptBooking(Long bookingId, Long electricianId);
     
     // Reject booking
-    BookingDTO rejectBooking(Long bookingId, String electricianEmail);
+    BookingDTO rejectBooking(Long bookingId, Long electricianId);
     
     // Complete booking
-    BookingDTO completeBooking(Long bookingId, String electricianEmail);
+    BookingDTO completeBooking(Long bookingId, Long electricianId);
     
     // Cancel booking
-    BookingDTO cancelBooking(Long bookingId, String userEmail);
+    BookingDTO cancelBooking(Long bookingId, Long userId);
 }
@@ -1,18 +1,26 @@
 package in.sourabh.electrician.service;
 
+import in.sourabh.electrician.cache.CacheStats;
+import in.sourabh.electrician.dto.ChatHistoryPage;
+import in.sourabh.electrician.dto.ChatParticipant;
 import in.sourabh.electrician.entites.ChatRoom;
 import in.sourabh.electrician.entites.Message;
+import in.sourabh.electrician.security.AccountType;
 import org.springframework.data.domain.Page;
 import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ChatService {
     Message saveMessage(Message message);
-    String createChatRoomId(Long userId1, Long userId2);
+    Message submitMessage(Message message);
+    String createChatRoomId(ChatParticipant participant1, ChatParticipant participant2);
     void updateChatRoomLastMessage(ChatRoom chatRoom, String content, LocalDateTime time);
     List<Message> getChatHistory(String chatRoomId, int page, int size);
+    ChatHistoryPage getChatHistoryWindow(String chatRoomId, String beforeCursor, String afterCursor, int size);
     Page<Message> getChatHistoryWithPagination(String chatRoomId, int page, int size);
-    List<Message> getUserConversations(Long userId);
-    ChatRoom getOrCreateChatRoom(Long userId1, Long userId2);
-    List<ChatRoom> getUserChatRooms(Long userId);
+    List<Message> getUserConversations(AccountType type, Long userId);
+    ChatRoom getOrCreateChatRoom(ChatParticipant participant1, ChatParticipant participant2);
+    List<ChatRoom> getUserChatRooms(AccountType type, Long userId);
+    void deleteChatRoom(Long chatRoomId);
+    CacheStats getRoomCacheStats();
 }
\ No newline at end of file
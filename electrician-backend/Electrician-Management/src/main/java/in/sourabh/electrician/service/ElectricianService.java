@@ -3,12 +3,20 @@ import java.util.List;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import in.sourabh.electrician.dto.ElectricianDirectoryPage;
 import in.sourabh.electrician.dto.ElectricianDto;
+import in.sourabh.electrician.dto.ElectricianSearchResult;
+import in.sourabh.electrician.dto.NearbyElectrician;
 public interface ElectricianService {
 
     ElectricianDto createElectrician(ElectricianDto electricianDto,MultipartFile image);
     ElectricianDto getElectrician(Long electricianId);
-    List<ElectricianDto> getAllElectrician();
+    long countElectricians();
+    ElectricianDirectoryPage getDirectory(String location, String degree, Integer minExperience,
+            int page, Long after, int size);
+    List<NearbyElectrician> findNearby(double latitude, double longitude, double radiusKm, int limit);
+    List<ElectricianSearchResult> search(String query, int limit);
+    List<String> suggest(String query, int limit);
     ElectricianDto updateElectrician(Long electricianId,ElectricianDto electricianDto,MultipartFile image);
     void deleteElectrician(Long electricianId);
 
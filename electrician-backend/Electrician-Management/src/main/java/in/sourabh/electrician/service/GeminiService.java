@@ -1,5 +1,19 @@
 package in.sourabh.electrician.service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 public interface GeminiService {
-    String getAiResponse(String prompt);
+    // sessionId may be null for a one-off question with no conversation memory
+    String getAiResponse(String sessionId, String prompt);
+
+    // Streams the answer fragment by fragment; completes with the full text
+    CompletableFuture<String> streamAiResponse(String sessionId, String prompt, Consumer<String> onChunk);
+
+    // Issues a new conversation id bound to owner (null for an anonymous caller)
+    String startSession(String owner);
+
+    boolean isSessionOwner(String sessionId, String owner);
+
+    void endSession(String sessionId);
 }
@@ -0,0 +1,63 @@
+package in.sourabh.electrician.serviceimpl;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import in.sourabh.electrician.entites.Account;
+import in.sourabh.electrician.entites.Electrician;
+import in.sourabh.electrician.entites.Role;
+import in.sourabh.electrician.entites.User;
+import in.sourabh.electrician.exception.ResourceAlreadyExistsException;
+import in.sourabh.electrician.repository.AccountRepository;
+import in.sourabh.electrician.security.AccountType;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps the {@link Account} login index in step with the user and electrician tables.
+ *
+ * Writes must join the transaction that changes the owning row, so the index can never
+ * commit without it (or the other way round).
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountDirectory {
+
+    private final AccountRepository accountRepository;
+
+    // Emails are unique across users and electricians, not just within one table
+    public void checkEmailAvailable(String email, AccountType accountType, Long accountId) {
+        accountRepository.findByEmail(email)
+                .filter(account -> account.getAccountType() != accountType || !account.getAccountId().equals(accountId))
+                .ifPresent(account -> {
+                    throw new ResourceAlreadyExistsException("An account is already registered with email: " + email);
+                });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sync(User user) {
+        upsert(AccountType.USER, user.getId(), user.getEmail(), user.getPassword(), user.getRole());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sync(Electrician electrician) {
+        upsert(AccountType.ELECTRICIAN, electrician.getId(), electrician.getEmail(), electrician.getPassword(),
+                electrician.getRole());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(AccountType accountType, Long accountId) {
+        accountRepository.deleteByOwner(accountType, accountId);
+    }
+
+    private void upsert(AccountType accountType, Long accountId, String email, String password, Role role) {
+        Account account = accountRepository.findByAccountTypeAndAccountId(accountType, accountId)
+                .orElseGet(Account::new);
+        account.setAccountType(accountType);
+        account.setAccountId(accountId);
+        account.setEmail(email);
+        account.setPassword(password);
+        account.setRole(role);
+        accountRepository.save(account);
+    }
+}
@@ -0,0 +1,294 @@
+package in.sourabh.electrician.serviceimpl;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import in.sourabh.electrician.cache.LruCache;
+import in.sourabh.electrician.calendar.ElectricianCalendar;
+import in.sourabh.electrician.calendar.StripedLock;
+import in.sourabh.electrician.dto.AvailabilityDto;
+import in.sourabh.electrician.dto.BlockedIntervalDto;
+import in.sourabh.electrician.entites.BlockedInterval;
+import in.sourabh.electrician.entites.Booking;
+import in.sourabh.electrician.entites.BookingStatus;
+import in.sourabh.electrician.entites.ElectricianAvailability;
+import in.sourabh.electrician.exception.ResourceNotFoundException;
+import in.sourabh.electrician.exception.SlotUnavailableException;
+import in.sourabh.electrician.repository.BlockedIntervalRepository;
+import in.sourabh.electrician.repository.BookingRepository;
+import in.sourabh.electrician.repository.ElectricianAvailabilityRepository;
+import in.sourabh.electrician.repository.ElectricianRepository;
+import in.sourabh.electrician.service.AvailabilityService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Electrician calendars and slot reservation.
+ *
+ * Reservations for one electrician are serialized on this node by a striped lock and
+ * checked against the cached calendar first. The database check and insert then run
+ * in a transaction that force-increments the electrician's availability version, so a
+ * reservation racing on another node fails at commit instead of double-booking.
+ */
+@Service
+@RequiredArgsConstructor
+public class AvailabilityServiceImpl implements AvailabilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityServiceImpl.class);
+
+    // Bookings in these states hold their slot
+    static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.PENDING, BookingStatus.ACCEPTED);
+
+    private static final int MAX_FREE_SLOT_DAYS = 31;
+
+    private final ElectricianAvailabilityRepository availabilityRepository;
+    private final BlockedIntervalRepository blockedIntervalRepository;
+    private final BookingRepository bookingRepository;
+    private final ElectricianRepository electricianRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${booking.calendar.horizon-days:60}")
+    private int horizonDays;
+
+    @Value("${booking.calendar.cache-size:10000}")
+    private int cacheSize;
+
+    // Bounds how long a booking made on another node can be missing from free-slot answers
+    @Value("${booking.calendar.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${booking.calendar.lock-stripes:64}")
+    private int lockStripes;
+
+    private LruCache<Long, ElectricianCalendar> calendars;
+    private StripedLock locks;
+
+    @PostConstruct
+    void init() {
+        calendars = new LruCache<>(cacheSize, Duration.ofSeconds(ttlSeconds));
+        locks = new StripedLock(lockStripes);
+    }
+
+    @Override
+    public AvailabilityDto getAvailability(Long electricianId) {
+        ElectricianAvailability availability = availabilityRepository.findById(electricianId)
+                .orElseGet(() -> new ElectricianAvailability(electricianId));
+        return toDto(availability, blockedIntervalRepository
+                .findByElectricianIdAndEndsAtAfterOrderByStartsAt(electricianId, LocalDateTime.now()));
+    }
+
+    @Override
+    public AvailabilityDto updateAvailability(Long electricianId, AvailabilityDto availabilityDto) {
+        ElectricianAvailability saved = withCalendarLock(electricianId, () -> {
+            ElectricianAvailability availability = lockAvailability(electricianId);
+            availability.setWorkdayStart(availabilityDto.getWorkdayStart());
+            availability.setWorkdayEnd(availabilityDto.getWorkdayEnd());
+            availability.setSlotMinutes(availabilityDto.getSlotMinutes());
+            availability.setWorkingDays(availabilityDto.getWorkingDays().stream()
+                    .distinct().sorted().map(DayOfWeek::name).collect(Collectors.joining(",")));
+            return availability;
+        });
+        // Slot grid may have changed; rebuild on next use
+        calendars.invalidate(electricianId);
+
+        return toDto(saved, blockedIntervalRepository
+                .findByElectricianIdAndEndsAtAfterOrderByStartsAt(electricianId, LocalDateTime.now()));
+    }
+
+    @Override
+    public BlockedIntervalDto blockInterval(Long electricianId, BlockedIntervalDto blockedIntervalDto) {
+        BlockedInterval saved = withCalendarLock(electricianId, () -> {
+            lockAvailability(electricianId);
+            return blockedIntervalRepository.save(new BlockedInterval(null, electricianId,
+                    blockedIntervalDto.getStartsAt(), blockedIntervalDto.getEndsAt(), blockedIntervalDto.getReason()));
+        });
+        ElectricianCalendar calendar = calendars.get(electricianId);
+        if (calendar != null) {
+            calendar.occupy(blockKey(saved.getId()), saved.getStartsAt(), saved.getEndsAt());
+        }
+        return toDto(saved);
+    }
+
+    @Override
+    public void unblockInterval(Long electricianId, Long blockedIntervalId) {
+        BlockedInterval blockedInterval = blockedIntervalRepository.findById(blockedIntervalId)
+                .filter(b -> b.getElectricianId().equals(electricianId))
+                .orElseThrow(() -> new ResourceNotFoundException("Blocked interval not found: " + blockedIntervalId));
+
+        blockedIntervalRepository.delete(blockedInterval);
+        ElectricianCalendar calendar = calendars.get(electricianId);
+        if (calendar != null) {
+            calendar.release(blockKey(blockedIntervalId));
+        }
+    }
+
+    @Override
+    public List<ElectricianCalendar.Slot> getFreeSlots(Long electricianId, LocalDate from, int days) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate start = from == null || from.isBefore(now.toLocalDate()) ? now.toLocalDate() : from;
+        return calendar(electricianId).freeSlots(start, Math.min(Math.max(days, 1), MAX_FREE_SLOT_DAYS), now);
+    }
+
+    @Override
+    public Booking reserveSlot(Booking booking) {
+        Long electricianId = booking.getElectrician().getId();
+        ReentrantLock lock = locks.forKey(electricianId);
+        lock.lock();
+        try {
+            ElectricianCalendar calendar = calendar(electricianId);
+            LocalDateTime start = booking.getScheduledDate();
+            LocalDateTime end = start.plus(calendar.slotLength());
+            calendar.unavailableReason(start, end, LocalDateTime.now()).ifPresent(reason -> {
+                throw new SlotUnavailableException(reason);
+            });
+            booking.setScheduledEnd(end);
+
+            Booking saved = withCalendarLock(electricianId, () -> {
+                lockAvailability(electricianId);
+                // The cached calendar can miss bookings made on other nodes; the database cannot
+                if (bookingRepository.existsOverlapping(electricianId, ACTIVE_STATUSES, start.minusDays(1), start, end)
+                        || blockedIntervalRepository.existsOverlapping(electricianId, start, end)) {
+                    calendars.invalidate(electricianId);
+                    throw new SlotUnavailableException("Slot is already booked");
+                }
+                return bookingRepository.save(booking);
+            });
+            calendar.occupy(bookingKey(saved.getId()), start, end);
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void releaseSlot(Booking booking) {
+        ElectricianCalendar calendar = calendars.get(booking.getElectrician().getId());
+        if (calendar != null) {
+            calendar.release(bookingKey(booking.getId()));
+        }
+    }
+
+    // Runs the work in a transaction under the electrician's stripe; a lost version race becomes a conflict
+    private <T> T withCalendarLock(Long electricianId, Supplier<T> work) {
+        ensureAvailabilityRow(electricianId);
+        ReentrantLock lock = locks.forKey(electricianId);
+        lock.lock();
+        try {
+            return transactionTemplate.execute(status -> work.get());
+        } catch (OptimisticLockingFailureException e) {
+            calendars.invalidate(electricianId);
+            logger.debug("Calendar update for electrician {} lost a concurrent race", electricianId);
+            throw new SlotUnavailableException("The calendar just changed, please try again");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Must be called inside a transaction; the version is bumped when it commits
+    private ElectricianAvailability lockAvailability(Long electricianId) {
+        return availabilityRepository.findForReservation(electricianId)
+                .orElseThrow(() -> new ResourceNotFoundException("Electrician is Not Exist : " + electricianId));
+    }
+
+    // The reservation version lives on this row, so every electrician needs one
+    private void ensureAvailabilityRow(Long electricianId) {
+        if (availabilityRepository.existsById(electricianId)) {
+            return;
+        }
+        try {
+            availabilityRepository.saveAndFlush(new ElectricianAvailability(electricianId));
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently by another request
+        }
+    }
+
+    private ElectricianCalendar calendar(Long electricianId) {
+        ElectricianCalendar calendar = calendars.get(electricianId);
+        if (calendar != null) {
+            return calendar;
+        }
+        // Load under the stripe so a concurrent reservation cannot be missed by a stale load
+        ReentrantLock lock = locks.forKey(electricianId);
+        lock.lock();
+        try {
+            calendar = calendars.get(electricianId);
+            if (calendar == null) {
+                calendar = loadCalendar(electricianId);
+                calendars.put(electricianId, calendar);
+            }
+            return calendar;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ElectricianCalendar loadCalendar(Long electricianId) {
+        if (!electricianRepository.existsById(electricianId)) {
+            throw new ResourceNotFoundException("Electrician is Not Exist : " + electricianId);
+        }
+        ElectricianAvailability availability = availabilityRepository.findById(electricianId)
+                .orElseGet(() -> new ElectricianAvailability(electricianId));
+
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        ElectricianCalendar calendar = new ElectricianCalendar(availability.getWorkdayStart(),
+                availability.getWorkdayEnd(), availability.getSlotMinutes(),
+                parseDays(availability.getWorkingDays()), today.plusDays(horizonDays + 1L));
+
+        for (Object[] row : bookingRepository.findSlots(electricianId, ACTIVE_STATUSES, today.minusDays(1))) {
+            LocalDateTime start = (LocalDateTime) row[1];
+            LocalDateTime end = row[2] != null ? (LocalDateTime) row[2] : start.plus(calendar.slotLength());
+            calendar.occupy(bookingKey((Long) row[0]), start, end);
+        }
+        for (BlockedInterval blocked : blockedIntervalRepository
+                .findByElectricianIdAndEndsAtAfterOrderByStartsAt(electricianId, today)) {
+            calendar.occupy(blockKey(blocked.getId()), blocked.getStartsAt(), blocked.getEndsAt());
+        }
+        return calendar;
+    }
+
+    private static Set<DayOfWeek> parseDays(String days) {
+        Set<DayOfWeek> parsed = EnumSet.noneOf(DayOfWeek.class);
+        Arrays.stream(days.split(","))
+                .map(String::trim)
+                .filter(day -> !day.isEmpty())
+                .map(DayOfWeek::valueOf)
+                .forEach(parsed::add);
+        return parsed;
+    }
+
+    private static String bookingKey(Long bookingId) {
+        return "booking:" + bookingId;
+    }
+
+    private static String blockKey(Long blockedIntervalId) {
+        return "block:" + blockedIntervalId;
+    }
+
+    private static AvailabilityDto toDto(ElectricianAvailability availability, List<BlockedInterval> blocked) {
+        return new AvailabilityDto(availability.getWorkdayStart(), availability.getWorkdayEnd(),
+                availability.getSlotMinutes(), List.copyOf(parseDays(availability.getWorkingDays())),
+                blocked.stream().map(AvailabilityServiceImpl::toDto).toList());
+    }
+
+    private static BlockedIntervalDto toDto(BlockedInterval blocked) {
+        return new BlockedIntervalDto(blocked.getId(), blocked.getStartsAt(), blocked.getEndsAt(),
+                blocked.getReason());
+    }
+}
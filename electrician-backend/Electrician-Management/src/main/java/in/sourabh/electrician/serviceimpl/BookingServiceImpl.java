@@ -8,13 +8,16 @@ import in.sourabh.electrician.entites.Booking;
 import in.sourabh.electrician.entites.BookingStatus;
 import in.sourabh.electrician.entites.Electrician;
 import in.sourabh.electrician.entites.User;
+import in.sourabh.electrician.exception.BookingStateConflictException;
 import in.sourabh.electrician.repository.BookingRepository;
 import in.sourabh.electrician.repository.ElectricianRepository;
 import in.sourabh.electrician.repository.UserRepository;
+import in.sourabh.electrician.service.AvailabilityService;
 import in.sourabh.electrician.service.BookingService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 @Service
 public class BookingServiceImpl implements BookingService {
@@ -28,14 +31,22 @@ public class BookingServiceImpl implements BookingService {
     @Autowired
     private ElectricianRepository electricianRepository;
     
+    @Autowired
+    private AvailabilityService availabilityService;
+    
     @Override
-    public BookingDTO createBooking(BookingDTO dto, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
+    public BookingDTO createBooking(BookingDTO dto, Long userId) {
+        // Still loaded: the response carries the customer's details
+        User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
         Electrician electrician = electricianRepository.findById(dto.getElectricianId())
             .orElseThrow(() -> new RuntimeException("Electrician not found"));
         
+        if (dto.getScheduledDate() == null) {
+            throw new RuntimeException("Scheduled date is required");
+        }
+        
         Booking booking = new Booking();
         booking.setUser(user);
         booking.setElectrician(electrician);
@@ -47,106 +58,77 @@ public class BookingServiceImpl implements BookingService {
         booking.setEstimatedCost(dto.getEstimatedCost());
         booking.setCreatedAt(LocalDateTime.now());
         
-        Booking saved = bookingRepository.save(booking);
+        // Fails if the slot is taken or outside the electrician's working hours
+        Booking saved = availabilityService.reserveSlot(booking);
         return convertToDTO(saved);
     }
     
     @Override
-    public List<BookingDTO> getUserBookings(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        return bookingRepository.findByUserId(user.getId())
+    public List<BookingDTO> getUserBookings(Long userId) {
+        return bookingRepository.findByUserId(userId)
             .stream()
             .map(this::convertToDTO)
             .collect(Collectors.toList());
     }
     
     @Override
-    public List<BookingDTO> getElectricianBookings(String electricianEmail) {
-        Electrician electrician = electricianRepository.findByEmail(electricianEmail)
-            .orElseThrow(() -> new RuntimeException("Electrician not found"));
-        
-        return bookingRepository.findByElectricianIdOrderByCreatedAtDesc(electrician.getId())
+    public List<BookingDTO> getElectricianBookings(Long electricianId) {
+        return bookingRepository.findByElectricianIdOrderByCreatedAtDesc(electricianId)
             .stream()
             .map(this::convertToDTO)
             .collect(Collectors.toList());
     }
     
     @Override
-    public BookingDTO acceptBooking(Long bookingId, String electricianEmail) {
-        Booking booking = bookingRepository.findById(bookingId)
-            .orElseThrow(() -> new RuntimeException("Booking not found"));
-        
-        Electrician electrician = electricianRepository.findByEmail(electricianEmail)
-            .orElseThrow(() -> new RuntimeException("Electrician not found"));
-        
-        if (!booking.getElectrician().getId().equals(electrician.getId())) {
-            throw new RuntimeException("Unauthorized: This booking is not for you");
-        }
-        
-        booking.setStatus(BookingStatus.ACCEPTED);
-        Booking saved = bookingRepository.save(booking);
-        return convertToDTO(saved);
+    public BookingDTO acceptBooking(Long bookingId, Long electricianId) {
+        return transitionAsElectrician(bookingId, electricianId, BookingStatus.ACCEPTED);
     }
     
     @Override
-    public BookingDTO rejectBooking(Long bookingId, String electricianEmail) {
-        Booking booking = bookingRepository.findById(bookingId)
-            .orElseThrow(() -> new RuntimeException("Booking not found"));
-        
-        Electrician electrician = electricianRepository.findByEmail(electricianEmail)
-            .orElseThrow(() -> new RuntimeException("Electrician not found"));
-        
-        if (!booking.getElectrician().getId().equals(electrician.getId())) {
-            throw new RuntimeException("Unauthorized: This booking is not for you");
-        }
-        
-        booking.setStatus(BookingStatus.REJECTED);
-        Booking saved = bookingRepository.save(booking);
-        return convertToDTO(saved);
+    public BookingDTO rejectBooking(Long bookingId, Long electricianId) {
+        return transitionAsElectrician(bookingId, electricianId, BookingStatus.REJECTED);
     }
     
     @Override
-    public BookingDTO completeBooking(Long bookingId, String electricianEmail) {
-        Booking booking = bookingRepository.findById(bookingId)
-            .orElseThrow(() -> new RuntimeException("Booking not found"));
-        
-        Electrician electrician = electricianRepository.findByEmail(electricianEmail)
-            .orElseThrow(() -> new RuntimeException("Electrician not found"));
-        
-        if (!booking.getElectrician().getId().equals(electrician.getId())) {
-            throw new RuntimeException("Unauthorized: This booking is not for you");
-        }
-        
-        if (booking.getStatus() != BookingStatus.ACCEPTED) {
-            throw new RuntimeException("Can only complete accepted bookings");
-        }
-        
-        booking.setStatus(BookingStatus.COMPLETED);
-        Booking saved = bookingRepository.save(booking);
-        return convertToDTO(saved);
+    public BookingDTO completeBooking(Long bookingId, Long electricianId) {
+        return transitionAsElectrician(bookingId, electricianId, BookingStatus.COMPLETED);
     }
     
     @Override
-    public BookingDTO cancelBooking(Long bookingId, String userEmail) {
+    public BookingDTO cancelBooking(Long bookingId, Long userId) {
+        int updated = bookingRepository.transitionForUser(bookingId, userId,
+                BookingStatus.CANCELLED.sources(), BookingStatus.CANCELLED, LocalDateTime.now());
+        return afterTransition(bookingId, updated, BookingStatus.CANCELLED,
+                booking -> booking.getUser().getId().equals(userId), "Unauthorized: This is not your booking");
+    }
+    
+    private BookingDTO transitionAsElectrician(Long bookingId, Long electricianId, BookingStatus target) {
+        int updated = bookingRepository.transitionForElectrician(bookingId, electricianId,
+                target.sources(), target, LocalDateTime.now());
+        return afterTransition(bookingId, updated, target,
+                booking -> booking.getElectrician().getId().equals(electricianId),
+                "Unauthorized: This booking is not for you");
+    }
+    
+    // The conditional UPDATE already decided the race; this only explains a 0-row result
+    private BookingDTO afterTransition(Long bookingId, int updated, BookingStatus target,
+            Predicate<Booking> isOwner, String notOwnerMessage) {
         Booking booking = bookingRepository.findById(bookingId)
             .orElseThrow(() -> new RuntimeException("Booking not found"));
         
-        User user = userRepository.findByEmail(userEmail)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        if (!booking.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("Unauthorized: This is not your booking");
-        }
-        
-        if (booking.getStatus() != BookingStatus.PENDING) {
-            throw new RuntimeException("Can only cancel pending bookings");
+        if (updated == 0) {
+            if (!isOwner.test(booking)) {
+                throw new RuntimeException(notOwnerMessage);
+            }
+            // Repeating a transition that already happened is a no-op, not an error
+            if (booking.getStatus() != target) {
+                throw new BookingStateConflictException("Booking is " + booking.getStatus()
+                        + " and cannot become " + target);
+            }
+        } else if (target != BookingStatus.ACCEPTED) {
+            availabilityService.releaseSlot(booking);
         }
-        
-        booking.setStatus(BookingStatus.CANCELLED);
-        Booking saved = bookingRepository.save(booking);
-        return convertToDTO(saved);
+        return convertToDTO(booking);
     }
     
     // Helper method to convert Entity to DTO
@@ -159,9 +141,11 @@ public class BookingServiceImpl implements BookingService {
         dto.setDescription(booking.getDescription());
         dto.setLocation(booking.getLocation());
         dto.setScheduledDate(booking.getScheduledDate());
+        dto.setScheduledEnd(booking.getScheduledEnd());
         dto.setStatus(booking.getStatus().toString());
         dto.setEstimatedCost(booking.getEstimatedCost());
         dto.setCreatedAt(booking.getCreatedAt());
+        dto.setVersion(booking.getVersion());
         
         // User details
         dto.setUserName(booking.getUser().getName());
@@ -0,0 +1,110 @@
+package in.sourabh.electrician.serviceimpl;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import in.sourabh.electrician.entites.ChatRoom;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Write-behind buffer for chat_rooms.last_message / last_message_time.
+ *
+ * Busy rooms only need their newest preview persisted, so updates are coalesced
+ * per room in memory and flushed as one JDBC batch on a short interval and at
+ * shutdown. Until flushed, the in-memory preview is the source of truth.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatRoomPreviewWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatRoomPreviewWriter.class);
+
+    // The time guard keeps a late flush from overwriting a newer preview
+    private static final String UPDATE_SQL = "UPDATE chat_rooms SET last_message = ?, last_message_time = ? "
+            + "WHERE id = ? AND (last_message_time IS NULL OR last_message_time <= ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, Preview> pending = new ConcurrentHashMap<>();
+
+    record Preview(String content, LocalDateTime time) {
+    }
+
+    public void record(Long chatRoomId, String content, LocalDateTime time) {
+        pending.merge(chatRoomId, new Preview(content, time),
+                (current, next) -> next.time().isBefore(current.time()) ? current : next);
+    }
+
+    public void discard(Long chatRoomId) {
+        pending.remove(chatRoomId);
+    }
+
+    /**
+     * Returns the room with its unflushed preview applied, as a detached copy so the
+     * managed entity never goes dirty.
+     */
+    public ChatRoom overlay(ChatRoom chatRoom) {
+        Preview preview = pending.get(chatRoom.getId());
+        if (preview == null) {
+            return chatRoom;
+        }
+
+        ChatRoom copy = new ChatRoom();
+        copy.setId(chatRoom.getId());
+        copy.setParticipantIds(chatRoom.getParticipantIds());
+        copy.setRoomKey(chatRoom.getRoomKey());
+        copy.setCreatedAt(chatRoom.getCreatedAt());
+        copy.setLastMessage(preview.content());
+        copy.setLastMessageTime(preview.time());
+        return copy;
+    }
+
+    @Scheduled(fixedDelayString = "${chat.preview-flush-interval-ms:500}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Long> roomIds = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>();
+        List<Preview> drained = new ArrayList<>();
+
+        for (Map.Entry<Long, Preview> entry : pending.entrySet()) {
+            Preview preview = entry.getValue();
+            Timestamp time = Timestamp.valueOf(preview.time());
+            roomIds.add(entry.getKey());
+            drained.add(preview);
+            batch.add(new Object[] { preview.content(), time, entry.getKey(), time });
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+        } catch (Exception e) {
+            // Keep the previews buffered; the next tick retries them
+            logger.error("Failed to flush {} chat room previews: {}", batch.size(), e.getMessage());
+            return;
+        }
+
+        // Only drop entries that were not superseded while we were writing
+        for (int i = 0; i < roomIds.size(); i++) {
+            pending.remove(roomIds.get(i), drained.get(i));
+        }
+        logger.debug("Flushed {} chat room previews", batch.size());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -1,36 +1,81 @@
 package in.sourabh.electrician.serviceimpl;
 
+import in.sourabh.electrician.cache.CacheStats;
+import in.sourabh.electrician.cache.LruCache;
+import in.sourabh.electrician.dto.ChatHistoryPage;
+import in.sourabh.electrician.dto.ChatParticipant;
+import in.sourabh.electrician.dto.MessageCursor;
+import in.sourabh.electrician.dto.MessageDto;
 import in.sourabh.electrician.entites.ChatRoom;
+import in.sourabh.electrician.entites.ChatRoomParticipant;
 import in.sourabh.electrician.entites.Message;
+import in.sourabh.electrician.exception.ResourceNotFoundException;
+import in.sourabh.electrician.repository.ChatRoomParticipantRepository;
 import in.sourabh.electrician.repository.ChatRoomRepository;
 import in.sourabh.electrician.repository.MessageRepository;
+import in.sourabh.electrician.security.AccountType;
 import in.sourabh.electrician.service.ChatService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PostConstruct;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class ChatServiceImpl implements ChatService {
 
     private static final Logger logger = LoggerFactory.getLogger(ChatServiceImpl.class);
 
+    // Upper bound for a single history window, whatever the client asks for
+    private static final int MAX_HISTORY_WINDOW = 100;
+
     @Autowired
     private MessageRepository messageRepository;
 
     @Autowired
     private ChatRoomRepository chatRoomRepository;
 
+    @Autowired
+    private ChatRoomParticipantRepository participantRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ChatRoomPreviewWriter previewWriter;
+
+    @Autowired
+    private MessagePersistencePipeline persistencePipeline;
+
+    @Value("${chat.room-cache.max-size:10000}")
+    private int roomCacheSize;
+
+    // room_key -> chat room id, so warm conversations skip the room lookup entirely
+    private LruCache<String, Long> roomIdCache;
+
+    @PostConstruct
+    void initRoomCache() {
+        roomIdCache = new LruCache<>(roomCacheSize);
+    }
+
     @Override
     public Message saveMessage(Message message) {
-        // Get or create chat room based on sender and receiver
-        ChatRoom chatRoom = getOrCreateChatRoom(message.getSenderId(), message.getReceiverId());
+        // Resolve the room id (cache first) and reference it without loading the row
+        ChatRoom chatRoom = new ChatRoom();
+        chatRoom.setId(resolveChatRoomId(sender(message), receiver(message)));
 
         // Set the chat room relationship
         message.setChatRoom(chatRoom);
@@ -43,11 +88,31 @@ public class ChatServiceImpl implements ChatService {
     }
 
     @Override
-    public String createChatRoomId(Long userId1, Long userId2) {
-        // Create a consistent chat room ID regardless of who is user1 or user2
-        Long firstId = Math.min(userId1, userId2);
-        Long secondId = Math.max(userId1, userId2);
-        return firstId + "_" + secondId;
+    public Message submitMessage(Message message) {
+        if (!persistencePipeline.isEnabled()) {
+            return saveMessage(message);
+        }
+
+        ChatRoom chatRoom = new ChatRoom();
+        chatRoom.setId(resolveChatRoomId(sender(message), receiver(message)));
+
+        message.setChatRoom(chatRoom);
+        message.setSentAt(LocalDateTime.now());
+
+        // Id assigned and queued; the row is written by the pipeline's batch writer.
+        // A rejected message must not show up as the room preview, so queue it first.
+        Message queued = persistencePipeline.submit(message);
+        updateChatRoomLastMessage(chatRoom, queued.getContent(), queued.getSentAt());
+        return queued;
+    }
+
+    @Override
+    public String createChatRoomId(ChatParticipant participant1, ChatParticipant participant2) {
+        // Create a consistent chat room ID regardless of who is participant1 or participant2;
+        // the type keeps user 5 and electrician 5 apart
+        ChatParticipant first = participant1.compareTo(participant2) <= 0 ? participant1 : participant2;
+        ChatParticipant second = first == participant1 ? participant2 : participant1;
+        return first.key() + "_" + second.key();
     }
 
     @Override
@@ -55,40 +120,110 @@ public class ChatServiceImpl implements ChatService {
         chatRoom.setLastMessage(content);
         chatRoom.setLastMessageTime(time);
 
-        chatRoomRepository.save(chatRoom);
+        // Coalesced in memory and batch-flushed by ChatRoomPreviewWriter
+        previewWriter.record(chatRoom.getId(), content, time);
     }
 
     @Override
     public List<Message> getChatHistory(String chatRoomId, int page, int size) {
         try {
-            // Parse chatRoomId format: "userId1-userId2"
-            String[] parts = chatRoomId.split("-");
-            if (parts.length != 2) {
-                logger.warn("Invalid chatRoomId format: {}", chatRoomId);
+            Optional<Long> roomId = findChatRoomId(chatRoomId);
+            if (roomId.isEmpty()) {
                 return Collections.emptyList();
             }
 
-            Long userId1 = Long.parseLong(parts[0]);
-            Long userId2 = Long.parseLong(parts[1]);
-
-            // Get or create chat room
-            ChatRoom chatRoom = getOrCreateChatRoom(userId1, userId2);
-
-            // Fetch messages with sorting by sentAt
-            List<Message> messages = messageRepository.findByChatRoom_IdOrderBySentAtAsc(chatRoom.getId());
+            // Newest page first, then flip it so callers still get chronological order
+            Pageable pageable = PageRequest.of(Math.max(page, 0), clampWindow(size),
+                    Sort.by(Sort.Order.desc("sentAt"), Sort.Order.desc("id")));
+            List<Message> messages = new ArrayList<>(
+                    messageRepository.findByChatRoom_Id(roomId.get(), pageable).getContent());
+            Collections.reverse(messages);
 
             logger.info("Retrieved {} messages for chatRoom {}", messages.size(), chatRoomId);
-            return messages != null ? messages : Collections.emptyList();
+            return messages;
 
-        } catch (NumberFormatException e) {
-            logger.error("Invalid userId in chatRoomId: {}", chatRoomId, e);
-            return Collections.emptyList();
         } catch (Exception e) {
             logger.error("Error fetching chat history for {}: {}", chatRoomId, e.getMessage(), e);
             return Collections.emptyList();
         }
     }
 
+    @Override
+    public ChatHistoryPage getChatHistoryWindow(String chatRoomId, String beforeCursor, String afterCursor, int size) {
+        if (beforeCursor != null && afterCursor != null) {
+            throw new IllegalArgumentException("Use either a before or an after cursor, not both");
+        }
+
+        Optional<Long> chatRoom = findChatRoomId(chatRoomId);
+        if (chatRoom.isEmpty()) {
+            return new ChatHistoryPage(Collections.emptyList(), null, afterCursor, false);
+        }
+
+        Long roomId = chatRoom.get();
+        int window = clampWindow(size);
+        // Fetch one extra row to learn whether another window exists without a COUNT query
+        Pageable limit = PageRequest.of(0, window + 1);
+
+        List<MessageDto> rows;
+        if (afterCursor != null) {
+            MessageCursor cursor = MessageCursor.decode(afterCursor);
+            rows = new ArrayList<>(messageRepository.findWindowAfter(roomId, cursor.sentAt(), cursor.id(), limit));
+        } else if (beforeCursor != null) {
+            MessageCursor cursor = MessageCursor.decode(beforeCursor);
+            rows = new ArrayList<>(messageRepository.findWindowBefore(roomId, cursor.sentAt(), cursor.id(), limit));
+        } else {
+            rows = new ArrayList<>(messageRepository.findLatestWindow(roomId, limit));
+        }
+
+        boolean hasMore = rows.size() > window;
+        if (hasMore) {
+            rows.remove(rows.size() - 1);
+        }
+        // "latest" and "before" windows are read newest-first
+        if (afterCursor == null) {
+            Collections.reverse(rows);
+        }
+
+        String olderCursor = rows.isEmpty() ? null : MessageCursor.of(rows.get(0)).encode();
+        String newerCursor = rows.isEmpty() ? afterCursor : MessageCursor.of(rows.get(rows.size() - 1)).encode();
+        return new ChatHistoryPage(rows, olderCursor, newerCursor, hasMore);
+    }
+
+    /**
+     * Resolve a "TYPE:id-TYPE:id" history key (e.g. "USER:3-ELECTRICIAN:7") to its room
+     * without creating one on read.
+     */
+    private Optional<Long> findChatRoomId(String chatRoomId) {
+        String[] parts = chatRoomId.split("-");
+        if (parts.length != 2) {
+            logger.warn("Invalid chatRoomId format: {}", chatRoomId);
+            return Optional.empty();
+        }
+
+        try {
+            String roomKey = createChatRoomId(ChatParticipant.parse(parts[0]), ChatParticipant.parse(parts[1]));
+
+            Long cached = roomIdCache.get(roomKey);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            // Only existing rooms are cached here; reads never create rooms
+            Optional<Long> roomId = chatRoomRepository.findByRoomKey(roomKey).map(ChatRoom::getId);
+            roomId.ifPresent(id -> roomIdCache.put(roomKey, id));
+            return roomId;
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid participant in chatRoomId: {}", chatRoomId, e);
+            return Optional.empty();
+        }
+    }
+
+    private int clampWindow(int size) {
+        if (size <= 0) {
+            return 50;
+        }
+        return Math.min(size, MAX_HISTORY_WINDOW);
+    }
+
     @Override
     public Page<Message> getChatHistoryWithPagination(String chatRoomId, int page, int size) {
         Long id = Long.valueOf(chatRoomId);
@@ -97,27 +232,91 @@ public class ChatServiceImpl implements ChatService {
     }
 
     @Override
-    public List<Message> getUserConversations(Long userId) {
-        return messageRepository.findRecentConversationsByUserId(userId);
+    public List<Message> getUserConversations(AccountType type, Long userId) {
+        return messageRepository.findRecentConversationsByParticipant(type, userId);
     }
 
     @Override
-    public ChatRoom getOrCreateChatRoom(Long userId1, Long userId2) {
+    public ChatRoom getOrCreateChatRoom(ChatParticipant participant1, ChatParticipant participant2) {
+        String roomKey = createChatRoomId(participant1, participant2);
 
-        return chatRoomRepository
-                .findByParticipantIdsContainingAndParticipantIdsContaining(
-                        userId1.toString(),
-                        userId2.toString())
-                .orElseGet(() -> {
-                    ChatRoom room = new ChatRoom();
-                    room.setParticipantIds(userId1 + "," + userId2);
-                    room.setCreatedAt(LocalDateTime.now());
-                    return chatRoomRepository.save(room);
-                });
+        ChatRoom chatRoom = chatRoomRepository.findByRoomKey(roomKey)
+                .orElseGet(() -> createChatRoom(roomKey, participant1, participant2));
+        roomIdCache.put(roomKey, chatRoom.getId());
+        return chatRoom;
+    }
+
+    private Long resolveChatRoomId(ChatParticipant participant1, ChatParticipant participant2) {
+        Long cached = roomIdCache.get(createChatRoomId(participant1, participant2));
+        if (cached != null) {
+            return cached;
+        }
+        return getOrCreateChatRoom(participant1, participant2).getId();
+    }
+
+    private static ChatParticipant sender(Message message) {
+        return new ChatParticipant(message.getSenderType(), message.getSenderId());
+    }
+
+    private static ChatParticipant receiver(Message message) {
+        return new ChatParticipant(message.getReceiverType(), message.getReceiverId());
+    }
+
+    /**
+     * Insert the room and its participant rows in one transaction. If a concurrent
+     * first message won the race, the unique room_key rejects our insert and we
+     * return the winner's room instead.
+     */
+    private ChatRoom createChatRoom(String roomKey, ChatParticipant participant1, ChatParticipant participant2) {
+        try {
+            return transactionTemplate.execute(status -> {
+                ChatRoom room = new ChatRoom();
+                room.setRoomKey(roomKey);
+                room.setParticipantIds(roomKey.replace('_', ','));
+                room.setCreatedAt(LocalDateTime.now());
+                ChatRoom saved = chatRoomRepository.saveAndFlush(room);
+
+                participantRepository.save(
+                        new ChatRoomParticipant(null, saved, participant1.type(), participant1.id()));
+                participantRepository.save(
+                        new ChatRoomParticipant(null, saved, participant2.type(), participant2.id()));
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Chat room {} created concurrently, reusing it", roomKey);
+            return chatRoomRepository.findByRoomKey(roomKey)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    @Override
+    public List<ChatRoom> getUserChatRooms(AccountType type, Long userId) {
+        return participantRepository.findChatRoomsByParticipant(type, userId)
+                .stream()
+                .map(previewWriter::overlay)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void deleteChatRoom(Long chatRoomId) {
+        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
+                .orElseThrow(() -> new ResourceNotFoundException("Chat room not found: " + chatRoomId));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            messageRepository.deleteByChatRoomId(chatRoomId);
+            participantRepository.deleteByChatRoomId(chatRoomId);
+            chatRoomRepository.deleteById(chatRoomId);
+        });
+
+        previewWriter.discard(chatRoomId);
+        if (chatRoom.getRoomKey() != null) {
+            roomIdCache.invalidate(chatRoom.getRoomKey());
+        }
+        logger.info("Deleted chat room {}", chatRoomId);
     }
 
     @Override
-    public List<ChatRoom> getUserChatRooms(Long userId) {
-        return chatRoomRepository.findByParticipantIdsContaining(String.valueOf(userId));
+    public CacheStats getRoomCacheStats() {
+        return roomIdCache.stats();
     }
 }
\ No newline at end of file
@@ -1,32 +1,32 @@
 package in.sourabh.electrician.serviceimpl;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Map;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 
+import in.sourabh.electrician.storage.BlobStore;
 import lombok.RequiredArgsConstructor;
 
 @Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "cloudinary", matchIfMissing = true)
 @RequiredArgsConstructor
-public class CloudinaryService {
+public class CloudinaryService implements BlobStore {
 
     private final Cloudinary cloudinary;
 
-    public String uploadImage(MultipartFile file, String folder) {
-        try {
-            Map uploadResult = cloudinary.uploader().upload(
-                    file.getBytes(),
-                    ObjectUtils.asMap("folder", folder)
-            );
-            return uploadResult.get("secure_url").toString();
-
-        } catch (Exception e) {
-            throw new RuntimeException("Image upload failed", e);
-        }
+    // Passing the File lets the client stream it instead of loading it into a byte[]
+    @Override
+    public String store(Path file, String folder) throws IOException {
+        Map uploadResult = cloudinary.uploader().upload(
+                file.toFile(),
+                ObjectUtils.asMap("folder", folder)
+        );
+        return uploadResult.get("secure_url").toString();
     }
 }
-
@@ -0,0 +1,74 @@
+package in.sourabh.electrician.serviceimpl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import in.sourabh.electrician.entites.Electrician;
+import in.sourabh.electrician.geo.GeoGridIndex;
+import in.sourabh.electrician.repository.ElectricianRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps a {@link GeoGridIndex} of electrician coordinates in step with the database.
+ *
+ * Writes through {@link ElectricianServiceImpl} update this node's index immediately;
+ * a periodic full reload picks up changes made on other nodes or directly in the DB.
+ */
+@Component
+@RequiredArgsConstructor
+public class ElectricianGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ElectricianGeoIndex.class);
+
+    private final ElectricianRepository electricianRepository;
+
+    // 0.1 degree cells are about 11 km tall, a good fit for city-scale radii
+    @Value("${geo.index.cell-degrees:0.1}")
+    private double cellDegrees;
+
+    private GeoGridIndex index;
+
+    @PostConstruct
+    void init() {
+        index = new GeoGridIndex(cellDegrees);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${geo.index.refresh-ms:300000}", initialDelayString = "${geo.index.refresh-ms:300000}")
+    public void reload() {
+        long start = System.nanoTime();
+        Map<Long, double[]> coordinates = new HashMap<>();
+        for (Object[] row : electricianRepository.findAllCoordinates()) {
+            coordinates.put((Long) row[0], new double[] { (Double) row[1], (Double) row[2] });
+        }
+        index.replaceAll(coordinates);
+        logger.debug("Geo index reloaded with {} electricians in {} ms", coordinates.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void sync(Electrician electrician) {
+        if (electrician.getLatitude() != null && electrician.getLongitude() != null) {
+            index.put(electrician.getId(), electrician.getLatitude(), electrician.getLongitude());
+        } else {
+            index.remove(electrician.getId());
+        }
+    }
+
+    public void remove(Long electricianId) {
+        index.remove(electricianId);
+    }
+
+    public List<GeoGridIndex.Hit> nearest(double latitude, double longitude, double radiusKm, int k) {
+        return index.nearest(latitude, longitude, radiusKm, k);
+    }
+}
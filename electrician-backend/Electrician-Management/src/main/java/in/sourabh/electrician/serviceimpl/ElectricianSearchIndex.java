@@ -0,0 +1,99 @@
+package in.sourabh.electrician.serviceimpl;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import in.sourabh.electrician.dto.ElectricianSummary;
+import in.sourabh.electrician.entites.Electrician;
+import in.sourabh.electrician.repository.ElectricianRepository;
+import in.sourabh.electrician.search.InvertedIndex;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Full-text index of electricians over name, degree, experience and location.
+ *
+ * Like {@link ElectricianGeoIndex}, writes through {@link ElectricianServiceImpl} are
+ * applied immediately and a periodic rebuild picks up changes made elsewhere. Hits
+ * carry the listing view, so searches are served without the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class ElectricianSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ElectricianSearchIndex.class);
+
+    private final ElectricianRepository electricianRepository;
+
+    private volatile InvertedIndex<ElectricianSummary> index = newIndex();
+
+    // Rebuilt off to the side and swapped in, so searches never wait on a reload
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${search.index.refresh-ms:300000}", initialDelayString = "${search.index.refresh-ms:300000}")
+    public void reload() {
+        long start = System.nanoTime();
+        InvertedIndex<ElectricianSummary> fresh = newIndex();
+        List<ElectricianSummary> electricians = electricianRepository.findAllSummaries();
+        for (ElectricianSummary summary : electricians) {
+            fresh.put(summary.getId(), fields(summary), summary);
+        }
+        index = fresh;
+        logger.debug("Search index rebuilt with {} electricians ({} terms) in {} ms", electricians.size(),
+                fresh.vocabularySize(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void sync(Electrician electrician) {
+        ElectricianSummary summary = new ElectricianSummary(electrician.getId(), electrician.getName(),
+                electrician.getEmail(), electrician.getMobileNumber(), electrician.getExperience(),
+                electrician.getDegree(), electrician.getLocation(), electrician.getImageProfile(),
+                electrician.getImageThumbnail());
+        index.put(summary.getId(), fields(summary), summary);
+    }
+
+    public void remove(Long electricianId) {
+        index.remove(electricianId);
+    }
+
+    public List<InvertedIndex.Hit<ElectricianSummary>> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    public List<String> suggest(String query, int limit) {
+        return index.suggest(query, limit);
+    }
+
+    public Map<String, Object> stats() {
+        InvertedIndex<ElectricianSummary> current = index;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("documents", current.size());
+        stats.put("terms", current.vocabularySize());
+        return stats;
+    }
+
+    // Names and places are what people type most, so they outweigh the free-text experience
+    private static InvertedIndex<ElectricianSummary> newIndex() {
+        LinkedHashMap<String, Double> boosts = new LinkedHashMap<>();
+        boosts.put("name", 2.0);
+        boosts.put("location", 1.5);
+        boosts.put("degree", 1.2);
+        boosts.put("experience", 1.0);
+        return new InvertedIndex<>(boosts);
+    }
+
+    private static Map<String, String> fields(ElectricianSummary summary) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("name", summary.getName());
+        fields.put("location", summary.getLocation());
+        fields.put("degree", summary.getDegree());
+        fields.put("experience", summary.getExperience());
+        return fields;
+    }
+}
@@ -1,19 +1,35 @@
 package in.sourabh.electrician.serviceimpl;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import in.sourabh.electrician.cache.ReadThroughCache;
+import in.sourabh.electrician.dto.ElectricianDirectoryPage;
 import in.sourabh.electrician.dto.ElectricianDto;
+import in.sourabh.electrician.dto.ElectricianSearchResult;
+import in.sourabh.electrician.dto.ElectricianSummary;
+import in.sourabh.electrician.dto.NearbyElectrician;
 import in.sourabh.electrician.entites.Electrician;
 import in.sourabh.electrician.entites.Role;
-import in.sourabh.electrician.exception.ResourceAlreadyExistsException;
 import in.sourabh.electrician.exception.ResourceNotFoundException;
+import in.sourabh.electrician.geo.GeoGridIndex;
 import in.sourabh.electrician.mapper.ElectricianMapper;
 import in.sourabh.electrician.repository.ElectricianRepository;
+import in.sourabh.electrician.security.AccountType;
 import in.sourabh.electrician.service.ElectricianService;
 import lombok.RequiredArgsConstructor;
 
@@ -21,48 +37,174 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ElectricianServiceImpl implements ElectricianService {
 
+    private static final int MAX_DIRECTORY_PAGE = 100;
+    private static final int MAX_NEARBY_RESULTS = 50;
+    private static final double MAX_NEARBY_RADIUS_KM = 100;
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private static final int MAX_SUGGESTIONS = 10;
+
+    private static final String PROFILE_KEY = "electrician:profile:";
+    private static final String DIRECTORY_GROUP = "electrician:directory";
+
     private final ElectricianRepository electricianRepository;
     private final PasswordEncoder passwordEncoder;
-    private final CloudinaryService cloudinaryService;
+    private final ImageUploadPipeline imageUploadPipeline;
+    private final ReadThroughCache cache;
+    private final ElectricianGeoIndex geoIndex;
+    private final ElectricianSearchIndex searchIndex;
+    private final AccountDirectory accountDirectory;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${cache.electrician.profile-ttl-seconds:600}")
+    private long profileTtlSeconds;
+
+    @Value("${cache.electrician.directory-ttl-seconds:60}")
+    private long directoryTtlSeconds;
 
     // create user
     @Override
     public ElectricianDto createElectrician(ElectricianDto electricianDto, MultipartFile image) {
 
-        if (electricianRepository.existsByEmail(electricianDto.getEmail())) {
-            throw new ResourceAlreadyExistsException(
-                    "Electrician already registered with email: " + electricianDto.getEmail());
-        }
+        accountDirectory.checkEmailAvailable(electricianDto.getEmail(), AccountType.ELECTRICIAN, null);
 
         Electrician electrician = ElectricianMapper.mapToElectrician(electricianDto);
         electrician.setRole(Role.ELECTRICIAN);
         electrician.setPassword(passwordEncoder.encode(electricianDto.getPassword()));
 
-        if (image != null && !image.isEmpty()) {
-            String imageUrl = cloudinaryService
-                    .uploadImage(image, "electrician/profile");
-            electrician.setImageProfile(imageUrl);
-        }
+        // Uploaded in the background once the electrician row exists
+        Path spooledImage = imageUploadPipeline.spool(image);
 
-        Electrician savedElectrician = electricianRepository.save(electrician);
-        return ElectricianMapper.mapToElectricianDto(savedElectrician);
+        Electrician savedElectrician = saveWithAccount(electrician);
+        cache.invalidateGroup(DIRECTORY_GROUP);
+        geoIndex.sync(savedElectrician);
+        searchIndex.sync(savedElectrician);
+        ElectricianDto savedDto = ElectricianMapper.mapToElectricianDto(savedElectrician);
+        savedDto.setImageUploadId(imageUploadPipeline.submit(AccountType.ELECTRICIAN, savedElectrician.getId(),
+                "electrician/profile", spooledImage));
+        return savedDto;
     }
 
-    // get electricianBy Id
+    // get electricianBy Id (read-through cache; misses are not cached)
     @Override
     public ElectricianDto getElectrician(Long electricianId) {
 
+        // Each profile key carries its own generation, so a load that started before an
+        // update can only fill a key that the update has already retired
+        String group = PROFILE_KEY + electricianId;
+        long generation = cache.generation(group);
+        if (generation < 0) {
+            // Cache store unavailable; serve straight from the database
+            return loadProfile(electricianId);
+        }
+        return cache.get(group + ":" + generation, ElectricianDto.class,
+                Duration.ofSeconds(profileTtlSeconds), () -> loadProfile(electricianId));
+    }
+
+    private ElectricianDto loadProfile(Long electricianId) {
         Electrician electrician = electricianRepository.findById(electricianId)
                 .orElseThrow(() -> new ResourceNotFoundException("Electrician is Not Exist : " + electricianId));
-        return ElectricianMapper.mapToElectricianDto(electrician);
+        ElectricianDto profile = ElectricianMapper.mapToElectricianDto(electrician);
+        // The cache store may be a shared Redis; the password hash never goes into it
+        profile.setPassword(null);
+        return profile;
     }
 
-    // get All Electrician
+    // the full list is only served a page at a time, see getDirectory
     @Override
-    public List<ElectricianDto> getAllElectrician() {
-        List<Electrician> electrician = electricianRepository.findAll();
-        return electrician.stream().map((electricians) -> ElectricianMapper.mapToElectricianDto(electricians))
-                .collect(Collectors.toList());
+    public long countElectricians() {
+        return electricianRepository.count();
+    }
+
+    // directory page: filters are optional; "after" (last id seen) takes precedence over page
+    @Override
+    public ElectricianDirectoryPage getDirectory(String location, String degree, Integer minExperience,
+            int page, Long after, int size) {
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_DIRECTORY_PAGE);
+        int pageNumber = after != null ? 0 : Math.max(page, 0);
+
+        long generation = cache.generation(DIRECTORY_GROUP);
+        if (generation < 0) {
+            // Cache store unavailable; serve straight from the database
+            return loadDirectory(location, degree, minExperience, pageNumber, after, pageSize);
+        }
+
+        // location matching is case-insensitive in MySQL, so the key is too
+        String key = String.join("|", DIRECTORY_GROUP + ":" + generation,
+                String.valueOf(blankToNull(location)).toLowerCase(Locale.ROOT), String.valueOf(blankToNull(degree)),
+                String.valueOf(minExperience), String.valueOf(pageNumber), String.valueOf(after),
+                String.valueOf(pageSize));
+        return cache.get(key, ElectricianDirectoryPage.class, Duration.ofSeconds(directoryTtlSeconds),
+                () -> loadDirectory(location, degree, minExperience, pageNumber, after, pageSize));
+    }
+
+    private ElectricianDirectoryPage loadDirectory(String location, String degree, Integer minExperience,
+            int pageNumber, Long after, int pageSize) {
+
+        Slice<ElectricianSummary> slice = electricianRepository.findDirectory(
+                toPrefixPattern(location),
+                blankToNull(degree),
+                minExperience,
+                after,
+                PageRequest.of(pageNumber, pageSize));
+
+        List<ElectricianSummary> electricians = slice.getContent();
+        Long nextCursor = slice.hasNext() ? electricians.get(electricians.size() - 1).getId() : null;
+        return new ElectricianDirectoryPage(electricians, pageNumber, pageSize, slice.hasNext(), nextCursor);
+    }
+
+    // k nearest electricians with coordinates, from the in-memory geo index
+    @Override
+    public List<NearbyElectrician> findNearby(double latitude, double longitude, double radiusKm, int limit) {
+
+        List<GeoGridIndex.Hit> hits = geoIndex.nearest(latitude, longitude,
+                Math.min(radiusKm, MAX_NEARBY_RADIUS_KM), Math.min(Math.max(limit, 1), MAX_NEARBY_RESULTS));
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, ElectricianSummary> summaries = new HashMap<>();
+        for (ElectricianSummary summary : electricianRepository
+                .findSummariesByIdIn(hits.stream().map(GeoGridIndex.Hit::id).toList())) {
+            summaries.put(summary.getId(), summary);
+        }
+
+        List<NearbyElectrician> nearby = new ArrayList<>(hits.size());
+        for (GeoGridIndex.Hit hit : hits) {
+            ElectricianSummary summary = summaries.get(hit.id());
+            // Skip ids deleted on another node since the last index reload
+            if (summary != null) {
+                nearby.add(new NearbyElectrician(summary, hit.distanceKm()));
+            }
+        }
+        return nearby;
+    }
+
+    // free-text search, served from the in-memory index
+    @Override
+    public List<ElectricianSearchResult> search(String query, int limit) {
+        return searchIndex.search(query, Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS)).stream()
+                .map(hit -> new ElectricianSearchResult(hit.document(), hit.score()))
+                .toList();
+    }
+
+    // type-ahead completions of the query's last word
+    @Override
+    public List<String> suggest(String query, int limit) {
+        return searchIndex.suggest(query, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS));
+    }
+
+    // "Pun" -> "Pun%", with LIKE wildcards in the input matched literally
+    private static String toPrefixPattern(String location) {
+        String value = blankToNull(location);
+        if (value == null) {
+            return null;
+        }
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
     }
 
     // Update Electrician
@@ -71,6 +213,7 @@ public class ElectricianServiceImpl implements ElectricianService {
 
         Electrician electrician = electricianRepository.findById(electricianId)
                 .orElseThrow(() -> new ResourceNotFoundException("Electrician is Not Exist : " + electricianId));
+        accountDirectory.checkEmailAvailable(electricianDto.getEmail(), AccountType.ELECTRICIAN, electricianId);
 
         electrician.setEmail(electricianDto.getEmail());
         electrician.setName(electricianDto.getName());
@@ -81,6 +224,11 @@ public class ElectricianServiceImpl implements ElectricianService {
         // electrician.setImageProfile(electricianDto.getImageProfile()); // Remove this
         // line
         electrician.setMobileNumber(electricianDto.getMobileNumber());
+        // Coordinates are optional in the edit form; keep the old ones unless both are sent
+        if (electricianDto.getLatitude() != null && electricianDto.getLongitude() != null) {
+            electrician.setLatitude(electricianDto.getLatitude());
+            electrician.setLongitude(electricianDto.getLongitude());
+        }
         // Don't set password unconditionally - remove this line:
         // electrician.setPassword(electricianDto.getPassword());
 
@@ -89,14 +237,17 @@ public class ElectricianServiceImpl implements ElectricianService {
             electrician.setPassword(passwordEncoder.encode(electricianDto.getPassword()));
         }
 
-        // Only update image if a new image is provided
-        if (image != null && !image.isEmpty()) {
-            String imageurl = cloudinaryService.uploadImage(image, "electrician/profile");
-            electrician.setImageProfile(imageurl);
-        }
+        // Only update image if a new image is provided (uploaded in the background)
+        Path spooledImage = imageUploadPipeline.spool(image);
 
-        Electrician updateElectrician = electricianRepository.save(electrician);
-        return ElectricianMapper.mapToElectricianDto(updateElectrician);
+        Electrician updateElectrician = saveWithAccount(electrician);
+        evictElectrician(electricianId);
+        geoIndex.sync(updateElectrician);
+        searchIndex.sync(updateElectrician);
+        ElectricianDto updatedDto = ElectricianMapper.mapToElectricianDto(updateElectrician);
+        updatedDto.setImageUploadId(imageUploadPipeline.submit(AccountType.ELECTRICIAN, electricianId,
+                "electrician/profile", spooledImage));
+        return updatedDto;
     }
 
     // delete Electrician
@@ -105,7 +256,38 @@ public class ElectricianServiceImpl implements ElectricianService {
         Electrician electrician = electricianRepository.findById(electricianId)
                 .orElseThrow(() -> new ResourceNotFoundException("Electrician is Not Exist : " + electricianId));
 
-        electricianRepository.delete(electrician);
+        transactionTemplate.executeWithoutResult(status -> {
+            electricianRepository.delete(electrician);
+            accountDirectory.remove(AccountType.ELECTRICIAN, electricianId);
+        });
+        evictElectrician(electricianId);
+        geoIndex.remove(electricianId);
+        searchIndex.remove(electricianId);
+    }
+
+    // The login index row commits together with the electrician row
+    private Electrician saveWithAccount(Electrician electrician) {
+        return transactionTemplate.execute(status -> {
+            Electrician saved = electricianRepository.save(electrician);
+            accountDirectory.sync(saved);
+            return saved;
+        });
+    }
+
+    // A background upload landed in imageProfile; cached views and the search index still hold the old URL
+    @EventListener
+    public void onProfileImageUpdated(ImageUploadPipeline.ProfileImageUpdated event) {
+        if (event.ownerType() != AccountType.ELECTRICIAN) {
+            return;
+        }
+        evictElectrician(event.ownerId());
+        electricianRepository.findById(event.ownerId()).ifPresent(searchIndex::sync);
+    }
+
+    // Runs after the write has committed (see saveWithAccount)
+    private void evictElectrician(Long electricianId) {
+        cache.invalidateGroup(PROFILE_KEY + electricianId);
+        cache.invalidateGroup(DIRECTORY_GROUP);
     }
 
 }
@@ -0,0 +1,228 @@
+package in.sourabh.electrician.serviceimpl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-process intent classifier for common platform questions.
+ *
+ * Every example question in the FAQ corpus (classpath:ai/faq.json) is indexed as a
+ * TF-IDF vector over words and character trigrams; the trigrams make it tolerant of
+ * typos and word forms. A prompt is scored by cosine similarity against each example,
+ * and an intent's confidence is its best example score. Confident matches are answered
+ * directly; weaker ones are only used as a fallback when the AI backend fails.
+ */
+@Component
+public class FaqIntentRouter {
+
+    private static final String CORPUS = "ai/faq.json";
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "i", "me", "my", "we", "you", "your", "it", "is", "am", "are", "was", "be",
+            "do", "does", "can", "could", "to", "of", "in", "on", "for", "and", "or", "with", "this", "that",
+            "there", "here", "what", "how", "where", "why", "please", "as", "if", "so");
+
+    @Value("${ai.faq.route-threshold:0.6}")
+    private double routeThreshold;
+
+    @Value("${ai.faq.fallback-threshold:0.25}")
+    private double fallbackThreshold;
+
+    private List<FaqEntry> entries;
+    private Map<String, Integer> featureIds;
+    private double[] idf;
+    private double unknownIdf;
+    private List<Example> examples;
+
+    private final LongAdder routed = new LongAdder();
+    private final LongAdder escalated = new LongAdder();
+
+    record FaqEntry(String intent, List<String> examples, String answer) {
+    }
+
+    // Unit-length sparse vector: feature ids ascending, with matching weights
+    private record Example(FaqEntry entry, int[] features, double[] weights) {
+    }
+
+    public record Match(String intent, String answer, double confidence) {
+    }
+
+    @PostConstruct
+    void load() {
+        try (InputStream in = new ClassPathResource(CORPUS).getInputStream()) {
+            index(new ObjectMapper().readValue(in, new TypeReference<List<FaqEntry>>() {
+            }));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load " + CORPUS, e);
+        }
+    }
+
+    /**
+     * Returns a direct answer when the prompt is confidently one of the FAQ intents;
+     * otherwise the caller should escalate to the AI backend.
+     */
+    public Optional<Match> route(String prompt) {
+        Match match = classify(prompt);
+        if (match != null && match.confidence() >= routeThreshold) {
+            routed.increment();
+            return Optional.of(match);
+        }
+        escalated.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Best available canned answer for when the AI backend is unavailable.
+     */
+    public Optional<String> fallback(String prompt) {
+        Match match = classify(prompt);
+        return match != null && match.confidence() >= fallbackThreshold
+                ? Optional.of(match.answer())
+                : Optional.empty();
+    }
+
+    /**
+     * Highest-scoring intent for the prompt, or null if it shares no features with the corpus.
+     */
+    public Match classify(String prompt) {
+        Map<String, Integer> counts = features(prompt);
+        if (counts.isEmpty()) {
+            return null;
+        }
+
+        // Query weights keyed by feature id; unseen features only add to the norm
+        Map<Integer, Double> query = new HashMap<>();
+        double norm = 0;
+        for (Map.Entry<String, Integer> feature : counts.entrySet()) {
+            Integer id = featureIds.get(feature.getKey());
+            double weight = (1 + Math.log(feature.getValue())) * (id != null ? idf[id] : unknownIdf);
+            norm += weight * weight;
+            if (id != null) {
+                query.put(id, weight);
+            }
+        }
+        if (query.isEmpty()) {
+            return null;
+        }
+        norm = Math.sqrt(norm);
+
+        Example best = null;
+        double bestScore = 0;
+        for (Example example : examples) {
+            double dot = 0;
+            for (int i = 0; i < example.features().length; i++) {
+                Double weight = query.get(example.features()[i]);
+                if (weight != null) {
+                    dot += weight * example.weights()[i];
+                }
+            }
+            if (dot > bestScore) {
+                best = example;
+                bestScore = dot;
+            }
+        }
+        return best == null ? null : new Match(best.entry().intent(), best.entry().answer(), bestScore / norm);
+    }
+
+    public Map<String, Object> stats() {
+        long routedCount = routed.sum();
+        long total = routedCount + escalated.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("intents", entries.size());
+        stats.put("examples", examples.size());
+        stats.put("routed", routedCount);
+        stats.put("escalated", total - routedCount);
+        stats.put("deflectionRate", total == 0 ? 0.0 : (double) routedCount / total);
+        return stats;
+    }
+
+    void index(List<FaqEntry> corpus) {
+        List<FaqEntry> sources = new ArrayList<>();
+        List<Map<String, Integer>> documents = new ArrayList<>();
+        for (FaqEntry entry : corpus) {
+            for (String example : entry.examples()) {
+                sources.add(entry);
+                documents.add(features(example));
+            }
+        }
+
+        Map<String, Integer> ids = new HashMap<>();
+        List<Integer> documentFrequency = new ArrayList<>();
+        for (Map<String, Integer> document : documents) {
+            for (String feature : document.keySet()) {
+                Integer id = ids.computeIfAbsent(feature, f -> {
+                    documentFrequency.add(0);
+                    return documentFrequency.size() - 1;
+                });
+                documentFrequency.set(id, documentFrequency.get(id) + 1);
+            }
+        }
+
+        int n = documents.size();
+        double[] inverse = new double[ids.size()];
+        for (int id = 0; id < inverse.length; id++) {
+            inverse[id] = Math.log((n + 1.0) / (documentFrequency.get(id) + 1.0)) + 1;
+        }
+
+        List<Example> vectors = new ArrayList<>(n);
+        for (int d = 0; d < n; d++) {
+            Map<String, Integer> document = documents.get(d);
+            int[] features = document.keySet().stream().mapToInt(ids::get).sorted().toArray();
+            double[] weights = new double[features.length];
+            Map<Integer, Integer> byId = new HashMap<>();
+            document.forEach((feature, count) -> byId.put(ids.get(feature), count));
+            double norm = 0;
+            for (int i = 0; i < features.length; i++) {
+                weights[i] = (1 + Math.log(byId.get(features[i]))) * inverse[features[i]];
+                norm += weights[i] * weights[i];
+            }
+            norm = Math.sqrt(norm);
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] /= norm;
+            }
+            vectors.add(new Example(sources.get(d), features, weights));
+        }
+
+        this.entries = List.copyOf(corpus);
+        this.featureIds = ids;
+        this.idf = inverse;
+        this.unknownIdf = Math.log(n + 1.0) + 1;
+        this.examples = vectors;
+    }
+
+    // Word features plus boundary-marked character trigrams of each word
+    private static Map<String, Integer> features(String text) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String word : NON_ALPHANUMERIC.split(text.toLowerCase(Locale.ROOT))) {
+            if (word.isEmpty() || STOP_WORDS.contains(word)) {
+                continue;
+            }
+            counts.merge("w:" + word, 1, Integer::sum);
+            String padded = "^" + word + "$";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                counts.merge(padded.substring(i, i + 3), 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,469 @@
+package in.sourabh.electrician.serviceimpl;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import in.sourabh.electrician.exception.AiUnavailableException;
+import in.sourabh.electrician.metrics.LatencyRecorder;
+import in.sourabh.electrician.resilience.CircuitBreaker;
+import in.sourabh.electrician.resilience.TokenBucket;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * HTTP client for the Gemini generateContent API.
+ *
+ * Backed by one shared JDK HttpClient, which keeps connections alive and negotiates
+ * HTTP/2 when the server supports it. Connect and read deadlines are separate, and a
+ * semaphore bulkhead caps in-flight calls so a slow upstream cannot absorb every
+ * request thread. Built by {@link in.sourabh.electrician.config.GeminiClientConfig}.
+ *
+ * Streaming calls use streamGenerateContent with alt=sse and parse each SSE event as it
+ * arrives, so the first tokens reach the caller without buffering the whole reply.
+ *
+ * Every call first passes a circuit breaker and a token bucket sized to the upstream
+ * quota, so an unhealthy or throttled upstream is rejected immediately instead of
+ * making each caller wait out the failure. Blocking calls may also retry 429/5xx and
+ * timeouts with jittered backoff, and may send a hedged second copy when the first is slow.
+ */
+public class GeminiClient {
+
+    private final HttpClient httpClient;
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String apiUrl;
+    private final String streamUrl;
+    private final Duration readTimeout;
+    private final String apiKey;
+
+    private final int maxConcurrentCalls;
+    private final Duration acquireTimeout;
+    private final Semaphore permits;
+
+    private final Resilience resilience;
+    private final CircuitBreaker circuitBreaker;
+    private final TokenBucket rateLimiter;
+    private final ExecutorService hedgeExecutor;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong hedged = new AtomicLong();
+    private final LatencyRecorder latency = new LatencyRecorder();
+
+    /**
+     * Retry, hedging, rate limit and circuit breaker settings. maxAttempts of 1 disables
+     * retries, a zero hedgeDelay disables hedging and a zero rate disables the limiter.
+     */
+    public record Resilience(int maxAttempts, Duration retryBaseDelay, Duration hedgeDelay,
+            double requestsPerSecond, int burst,
+            int breakerWindow, int breakerMinimumCalls, double breakerFailureRate, Duration breakerOpenDuration) {
+
+        public static Resilience defaults() {
+            return new Resilience(1, Duration.ofMillis(200), Duration.ZERO, 0, 1, 20, 10, 0.5, Duration.ofSeconds(30));
+        }
+    }
+
+    public GeminiClient(String apiUrl, String apiKey, Duration connectTimeout, Duration readTimeout,
+            int maxConcurrentCalls, Duration acquireTimeout) {
+        this(apiUrl, apiKey, connectTimeout, readTimeout, maxConcurrentCalls, acquireTimeout, Resilience.defaults());
+    }
+
+    public GeminiClient(String apiUrl, String apiKey, Duration connectTimeout, Duration readTimeout,
+            int maxConcurrentCalls, Duration acquireTimeout, Resilience resilience) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.apiUrl = apiUrl;
+        this.streamUrl = apiUrl.replace(":generateContent", ":streamGenerateContent");
+        this.readTimeout = readTimeout;
+        this.apiKey = apiKey;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.acquireTimeout = acquireTimeout;
+        this.permits = new Semaphore(maxConcurrentCalls);
+        this.resilience = resilience;
+        this.circuitBreaker = new CircuitBreaker(resilience.breakerWindow(), resilience.breakerMinimumCalls(),
+                resilience.breakerFailureRate(), resilience.breakerOpenDuration());
+        this.rateLimiter = new TokenBucket(resilience.requestsPerSecond(), resilience.burst());
+        this.hedgeExecutor = resilience.hedgeDelay().isZero() ? null : Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (hedgeExecutor == null) {
+            return;
+        }
+        // Interrupts in-flight hedged calls so none of them outlive the context
+        hedgeExecutor.shutdownNow();
+        hedgeExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * POSTs a generateContent request and returns the parsed JSON body.
+     *
+     * @throws AiUnavailableException if the call is rejected locally: circuit open,
+     *                                quota exhausted or bulkhead full for the acquire timeout
+     */
+    @SuppressWarnings("rawtypes")
+    public Map generateContent(Map<String, Object> requestBody) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return guardedCall(requestBody);
+            } catch (AiUnavailableException e) {
+                // Rejected locally; retrying would only add load
+                throw e;
+            } catch (RuntimeException e) {
+                if (attempt >= resilience.maxAttempts() || !isUpstreamFailure(e)) {
+                    throw e;
+                }
+                retries.incrementAndGet();
+                backOff(attempt);
+            }
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Map guardedCall(Map<String, Object> requestBody) {
+        admit();
+        try {
+            Map response = hedgeExecutor != null ? hedgedCall(requestBody) : call(requestBody);
+            circuitBreaker.onSuccess();
+            return response;
+        } catch (RuntimeException e) {
+            recordOutcome(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Sends the request; if no answer arrives within the hedge delay and quota allows,
+     * sends a second copy and returns whichever succeeds first.
+     */
+    @SuppressWarnings("rawtypes")
+    private Map hedgedCall(Map<String, Object> requestBody) {
+        CompletableFuture<Map> primary = CompletableFuture.supplyAsync(() -> call(requestBody), hedgeExecutor);
+        try {
+            return primary.get(resilience.hedgeDelay().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Slow primary; race a backup below
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiUnavailableException("Interrupted while waiting for the AI assistant");
+        }
+
+        if (!rateLimiter.tryAcquire()) {
+            return join(primary);
+        }
+        hedged.incrementAndGet();
+        CompletableFuture<Map> backup = CompletableFuture.supplyAsync(() -> call(requestBody), hedgeExecutor);
+
+        // The loser keeps its bulkhead permit until it finishes or hits the read timeout
+        CompletableFuture<Map> winner = new CompletableFuture<>();
+        AtomicInteger failed = new AtomicInteger();
+        for (CompletableFuture<Map> attempt : List.of(primary, backup)) {
+            attempt.whenComplete((response, error) -> {
+                if (error == null) {
+                    winner.complete(response);
+                } else if (failed.incrementAndGet() == 2) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        }
+        return join(winner);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Map call(Map<String, Object> requestBody) {
+        acquirePermit();
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+
+            ResponseEntity<Map> responseEntity = restTemplate.postForEntity(
+                    apiUrl + "?key=" + apiKey, new HttpEntity<>(requestBody, headers), Map.class);
+            success = true;
+            return responseEntity.getBody();
+        } catch (CancellationException e) {
+            // JdkClientHttpRequestFactory reports its read timeout by cancelling the exchange
+            throw readTimedOut(e);
+        } catch (RuntimeException e) {
+            throw !(e instanceof ResourceAccessException) && causedByTimeout(e) ? readTimedOut(e) : e;
+        } finally {
+            latency.record(System.nanoTime() - start, success);
+            permits.release();
+        }
+    }
+
+    /**
+     * Streams a generateContent request. Each text fragment is handed to {@code onText}
+     * as soon as its SSE event is parsed; the future completes when the upstream ends.
+     *
+     * @throws AiUnavailableException if the bulkhead stays full for the acquire timeout
+     */
+    public CompletableFuture<Void> streamGenerateContent(Map<String, Object> requestBody, Consumer<String> onText) {
+        admit();
+        try {
+            acquirePermit();
+        } catch (AiUnavailableException e) {
+            circuitBreaker.onIgnored();
+            throw e;
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<Void> done;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(streamUrl + "?alt=sse&key=" + apiKey))
+                    .timeout(readTimeout)
+                    .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(requestBody)))
+                    .build();
+
+            // The response future fires on headers; the subscriber signals the end of the body
+            SseTextSubscriber subscriber = new SseTextSubscriber(onText);
+            done = httpClient
+                    .sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(subscriber))
+                    .thenCompose(response -> {
+                        if (response.statusCode() >= 400) {
+                            throw new UpstreamStatusException(response.statusCode());
+                        }
+                        return subscriber.finished;
+                    });
+        } catch (JsonProcessingException | RuntimeException e) {
+            permits.release();
+            latency.record(System.nanoTime() - start, false);
+            circuitBreaker.onIgnored();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return done.whenComplete((ignored, error) -> {
+            latency.record(System.nanoTime() - start, error == null);
+            permits.release();
+            if (error == null) {
+                circuitBreaker.onSuccess();
+            } else {
+                recordOutcome(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            }
+        });
+    }
+
+    /**
+     * Error status from the streaming endpoint, kept so the breaker can classify it.
+     */
+    private static final class UpstreamStatusException extends AiUnavailableException {
+
+        private final int status;
+
+        UpstreamStatusException(int status) {
+            super("AI Error: upstream returned status " + status);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Collects SSE "data:" lines into events and emits the candidate text of each event.
+     */
+    private final class SseTextSubscriber implements Flow.Subscriber<String> {
+
+        private final Consumer<String> onText;
+        private final StringBuilder data = new StringBuilder();
+        private final CompletableFuture<Void> finished = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+
+        SseTextSubscriber(Consumer<String> onText) {
+            this.onText = onText;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.isEmpty()) {
+                dispatch();
+            } else if (line.startsWith("data:")) {
+                data.append(line.substring(5).trim());
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            finished.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            dispatch();
+            finished.complete(null);
+        }
+
+        private void dispatch() {
+            if (data.isEmpty()) {
+                return;
+            }
+            String event = data.toString();
+            data.setLength(0);
+            try {
+                JsonNode parts = objectMapper.readTree(event).path("candidates").path(0).path("content").path("parts");
+                for (JsonNode part : parts) {
+                    String text = part.path("text").asText("");
+                    if (!text.isEmpty()) {
+                        onText.accept(text);
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                // Error payloads and keep-alives are not candidate events; skip them
+            } catch (RuntimeException e) {
+                // The consumer went away (e.g. browser closed the stream); stop reading
+                subscription.cancel();
+                finished.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void admit() {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new AiUnavailableException("AI assistant is temporarily unavailable, please try again later");
+        }
+        if (!rateLimiter.tryAcquire()) {
+            circuitBreaker.onIgnored();
+            throw new AiUnavailableException("AI assistant is over its request quota, please try again shortly");
+        }
+    }
+
+    private void recordOutcome(Throwable error) {
+        if (isUpstreamFailure(error)) {
+            circuitBreaker.onFailure();
+        } else if (error instanceof HttpStatusCodeException || error instanceof UpstreamStatusException) {
+            // Upstream answered, it just rejected this request
+            circuitBreaker.onSuccess();
+        } else {
+            circuitBreaker.onIgnored();
+        }
+    }
+
+    // One exception type for every way a read deadline can surface, so callers and the breaker see a timeout
+    private ResourceAccessException readTimedOut(Throwable cause) {
+        HttpTimeoutException timeout = new HttpTimeoutException(
+                "No answer from the AI upstream within " + readTimeout.toMillis() + " ms");
+        timeout.initCause(cause);
+        return new ResourceAccessException(timeout.getMessage(), timeout);
+    }
+
+    private static boolean causedByTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Throttling, server errors and timeouts say the upstream is unhealthy
+    private static boolean isUpstreamFailure(Throwable error) {
+        if (error instanceof HttpStatusCodeException e) {
+            return e.getStatusCode().value() == 429 || e.getStatusCode().is5xxServerError();
+        }
+        if (error instanceof UpstreamStatusException e) {
+            return e.status == 429 || e.status >= 500;
+        }
+        return error instanceof ResourceAccessException || error instanceof IOException;
+    }
+
+    // Full jitter: a random wait up to base * 2^(attempt-1), so retries do not arrive in step
+    private void backOff(int attempt) {
+        long capMillis = resilience.retryBaseDelay().toMillis() << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(capMillis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiUnavailableException("Interrupted while waiting for the AI assistant");
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+
+    private void acquirePermit() {
+        try {
+            if (permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.incrementAndGet();
+        throw new AiUnavailableException("AI assistant is busy, please try again shortly");
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        int inFlight = maxConcurrentCalls - permits.availablePermits();
+        stats.put("maxConcurrentCalls", maxConcurrentCalls);
+        stats.put("inFlight", inFlight);
+        stats.put("saturation", (double) inFlight / maxConcurrentCalls);
+        stats.put("waiting", permits.getQueueLength());
+        stats.put("rejected", rejected.get());
+        stats.put("rateLimited", rateLimiter.refused());
+        stats.put("retries", retries.get());
+        stats.put("hedgedCalls", hedged.get());
+        stats.put("circuitBreaker", circuitBreaker.stats());
+        stats.put("upstreamLatency", latency.snapshot());
+        return stats;
+    }
+}
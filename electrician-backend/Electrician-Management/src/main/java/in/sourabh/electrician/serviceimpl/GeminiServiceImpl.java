@@ -1,87 +1,196 @@
 package in.sourabh.electrician.serviceimpl;
 
+import in.sourabh.electrician.cache.AiResponseCache;
+import in.sourabh.electrician.cache.AiSessionStore;
+import in.sourabh.electrician.exception.AiUnavailableException;
 import in.sourabh.electrician.service.GeminiService;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.ResourceAccessException;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 @Service
+@RequiredArgsConstructor
 public class GeminiServiceImpl implements GeminiService {
 
-    private final RestTemplate restTemplate;
+    private static final String SYSTEM_PREAMBLE = """
+            You are the intelligent assistant for the 'Electrician Management System'.
+            Your goal is to help two types of users:
+            1. Customers (Users): Who want to register, search for electricians, and book services.
+            2. Electricians: Who want to register, manage their profiles, and accept booking requests.
 
-    @Value("${gemini.api.key}")
-    private String apiKey;
+            Platform Features:
+            - Registration: Separate flows for Users and Electricians.
+            - Dashboard: Users see electricians; Electricians see connection requests.
+            - Booking: Users can 'Book' an electrician. The electrician must 'Accept' or 'Reject' the request.
 
-    @Value("${gemini.api.url}")
-    private String apiUrl;
+            Please answer queries specifically about this platform. If the question is technical electrical advice, give a brief safety warning and suggest booking a professional through the app.
+            """;
 
-    public GeminiServiceImpl() {
-        this.restTemplate = new RestTemplate();
+    // Built once and shared by every request
+    private static final Map<String, Object> PREAMBLE_PART = Map.of("text", SYSTEM_PREAMBLE);
+    private static final Map<String, Object> SYSTEM_INSTRUCTION = Map.of("parts", List.of(PREAMBLE_PART));
+
+    private final GeminiClient geminiClient;
+    private final AiResponseCache responseCache;
+    private final AiSessionStore sessionStore;
+    private final FaqIntentRouter faqRouter;
+
+    @Override
+    public String getAiResponse(String sessionId, String prompt) {
+        Optional<FaqIntentRouter.Match> faq = faqRouter.route(prompt);
+        if (faq.isPresent()) {
+            remember(sessionId, prompt, faq.get().answer());
+            return faq.get().answer();
+        }
+
+        try {
+            AiSessionStore.Context context = contextFor(sessionId);
+            // Without history the answer depends only on the prompt, so it can be shared
+            String answer = context.isEmpty()
+                    ? responseCache.get(prompt, () -> askGemini(prompt, context))
+                    : askGemini(prompt, context);
+            remember(sessionId, prompt, answer);
+            return answer;
+        } catch (AiUnavailableException e) {
+            return degrade(prompt, e.getMessage());
+        } catch (HttpStatusCodeException e) {
+            return degrade(prompt, "AI Error: " + e.getStatusCode() + " - " + e.getResponseBodyAsString());
+        } catch (ResourceAccessException e) {
+            return degrade(prompt, "AI Error: The AI service timed out, please try again.");
+        } catch (RuntimeException e) {
+            // Unexpected reply shape and the like; never show the user a raw exception message
+            return degrade(prompt, "AI Error: The AI service is unavailable, please try again.");
+        }
     }
 
     @Override
-    public String getAiResponse(String prompt) {
+    public CompletableFuture<String> streamAiResponse(String sessionId, String prompt, Consumer<String> onChunk) {
+        Optional<FaqIntentRouter.Match> faq = faqRouter.route(prompt);
+        if (faq.isPresent()) {
+            onChunk.accept(faq.get().answer());
+            remember(sessionId, prompt, faq.get().answer());
+            return CompletableFuture.completedFuture(faq.get().answer());
+        }
+
+        AiSessionStore.Context context = contextFor(sessionId);
+        boolean cacheable = context.isEmpty();
+
+        String cached = cacheable ? responseCache.lookup(prompt) : null;
+        if (cached != null) {
+            onChunk.accept(cached);
+            remember(sessionId, prompt, cached);
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        long start = System.nanoTime();
+        StringBuilder answer = new StringBuilder();
+        CompletableFuture<Void> upstream;
         try {
-            String systemContext = """
-                    You are the intelligent assistant for the 'Electrician Management System'.
-                    Your goal is to help two types of users:
-                    1. Customers (Users): Who want to register, search for electricians, and book services.
-                    2. Electricians: Who want to register, manage their profiles, and accept booking requests.
-
-                    Platform Features:
-                    - Registration: Separate flows for Users and Electricians.
-                    - Dashboard: Users see electricians; Electricians see connection requests.
-                    - Booking: Users can 'Book' an electrician. The electrician must 'Accept' or 'Reject' the request.
-
-                    Please answer queries specifically about this platform. If the question is technical electrical advice, give a brief safety warning and suggest booking a professional through the app.
-
-                    User Query:
-                    """
-                    + prompt;
-
-            // Prepare the body
-            Map<String, Object> requestBody = Map.of(
-                    "contents", List.of(
-                            Map.of(
-                                    "role", "user",
-                                    "parts", List.of(
-                                            Map.of("text", systemContext)))));
-
-            // Prepare headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-            // Make the call
-            String url = apiUrl + "?key=" + apiKey;
-            ResponseEntity<Map> responseEntity = restTemplate.postForEntity(url, entity, Map.class);
-
-            Map response = responseEntity.getBody();
-            if (response != null) {
-                List<?> candidates = (List<?>) response.get("candidates");
-                if (candidates != null && !candidates.isEmpty()) {
-                    Map<?, ?> candidate = (Map<?, ?>) candidates.get(0);
-                    Map<?, ?> content = (Map<?, ?>) candidate.get("content");
-                    List<?> parts = (List<?>) content.get("parts");
-                    Map<?, ?> part = (Map<?, ?>) parts.get(0);
-                    return (String) part.get("text");
+            upstream = geminiClient.streamGenerateContent(buildRequest(prompt, context), chunk -> {
+                answer.append(chunk);
+                onChunk.accept(chunk);
+            });
+        } catch (AiUnavailableException e) {
+            upstream = CompletableFuture.failedFuture(e);
+        }
+
+        return upstream.handle((done, error) -> {
+            String full = answer.toString();
+            if (error != null) {
+                // Only substitute a canned answer if nothing has been streamed yet
+                Optional<String> fallback = full.isEmpty() ? faqRouter.fallback(prompt) : Optional.empty();
+                if (fallback.isEmpty()) {
+                    throw error instanceof CompletionException completion ? completion : new CompletionException(error);
                 }
+                onChunk.accept(fallback.get());
+                return fallback.get();
             }
-            return "No response from AI.";
-        } catch (HttpStatusCodeException e) {
-            return "AI Error: " + e.getStatusCode() + " - " + e.getResponseBodyAsString();
-        } catch (Exception e) {
-            return "AI Error: " + e.getMessage();
+            if (!full.isEmpty()) {
+                if (cacheable) {
+                    responseCache.store(prompt, full, System.nanoTime() - start);
+                }
+                remember(sessionId, prompt, full);
+            }
+            return full;
+        });
+    }
+
+    @Override
+    public String startSession(String owner) {
+        return sessionStore.open(owner);
+    }
+
+    @Override
+    public boolean isSessionOwner(String sessionId, String owner) {
+        return sessionStore.isOwnedBy(sessionId, owner);
+    }
+
+    @Override
+    public void endSession(String sessionId) {
+        sessionStore.end(sessionId);
+    }
+
+    // Canned platform answer while the AI backend is failing; never cached or remembered
+    private String degrade(String prompt, String errorMessage) {
+        return faqRouter.fallback(prompt).orElse(errorMessage);
+    }
+
+    private AiSessionStore.Context contextFor(String sessionId) {
+        return sessionId != null ? sessionStore.context(sessionId) : AiSessionStore.Context.EMPTY;
+    }
+
+    private void remember(String sessionId, String prompt, String answer) {
+        if (sessionId != null) {
+            sessionStore.append(sessionId, prompt, answer);
         }
     }
+
+    private String askGemini(String prompt, AiSessionStore.Context context) {
+        // Make the call (pooled client, bounded deadlines and concurrency)
+        Map response = geminiClient.generateContent(buildRequest(prompt, context));
+        if (response != null) {
+            List<?> candidates = (List<?>) response.get("candidates");
+            if (candidates != null && !candidates.isEmpty()) {
+                Map<?, ?> candidate = (Map<?, ?>) candidates.get(0);
+                Map<?, ?> content = (Map<?, ?>) candidate.get("content");
+                List<?> parts = (List<?>) content.get("parts");
+                Map<?, ?> part = (Map<?, ?>) parts.get(0);
+                return (String) part.get("text");
+            }
+        }
+        throw new AiUnavailableException("No response from AI.");
+    }
+
+    private Map<String, Object> buildRequest(String prompt, AiSessionStore.Context context) {
+        // The preamble goes in systemInstruction; summary and turns are already budgeted
+        Map<String, Object> systemInstruction = context.summary() == null
+                ? SYSTEM_INSTRUCTION
+                : Map.of("parts", List.of(PREAMBLE_PART, Map.of("text", context.summary())));
+
+        List<Map<String, Object>> contents = new ArrayList<>(context.turns().size() + 1);
+        for (AiSessionStore.Turn turn : context.turns()) {
+            contents.add(content(turn.role(), turn.text()));
+        }
+        contents.add(content("user", prompt));
+
+        // Prepare the body
+        return Map.of(
+                "systemInstruction", systemInstruction,
+                "contents", contents);
+    }
+
+    private static Map<String, Object> content(String role, String text) {
+        return Map.of(
+                "role", role,
+                "parts", List.of(Map.of("text", text)));
+    }
 }
@@ -0,0 +1,75 @@
+package in.sourabh.electrician.serviceimpl;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import in.sourabh.electrician.entites.IdSequences;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Owns the id_sequences rows behind the pooled @TableGenerator ids.
+ *
+ * On startup each sequence is moved past the existing MAX(id) of its table, because
+ * those tables were filled through AUTO_INCREMENT before. Outside Hibernate, callers
+ * can reserve a block of ids with the same pooled-lo semantics Hibernate uses.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdSequenceAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceAllocator.class);
+
+    // Sequence names double as the table they number
+    private static final List<String> SEQUENCES = List.of(IdSequences.MESSAGES, IdSequences.BOOKINGS);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Injected only so the schema (including id_sequences) exists before we seed it
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void seed() {
+        for (String sequence : SEQUENCES) {
+            Long floor = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(id), 0) + 1 FROM " + sequence, Long.class);
+
+            int updated = jdbcTemplate.update(
+                    "UPDATE " + IdSequences.TABLE + " SET " + IdSequences.VALUE_COLUMN + " = GREATEST("
+                            + IdSequences.VALUE_COLUMN + ", ?) WHERE " + IdSequences.NAME_COLUMN + " = ?",
+                    floor, sequence);
+            if (updated == 0) {
+                jdbcTemplate.update(
+                        "INSERT INTO " + IdSequences.TABLE + " (" + IdSequences.NAME_COLUMN + ", "
+                                + IdSequences.VALUE_COLUMN + ") VALUES (?, ?)",
+                        sequence, floor);
+            }
+            logger.debug("Id sequence {} starts at or after {}", sequence, floor);
+        }
+    }
+
+    /**
+     * Reserves {@code size} consecutive ids and returns the first one.
+     */
+    public long reserve(String sequence, int size) {
+        Long first = transactionTemplate.execute(status -> {
+            Long next = jdbcTemplate.queryForObject(
+                    "SELECT " + IdSequences.VALUE_COLUMN + " FROM " + IdSequences.TABLE
+                            + " WHERE " + IdSequences.NAME_COLUMN + " = ? FOR UPDATE",
+                    Long.class, sequence);
+            jdbcTemplate.update(
+                    "UPDATE " + IdSequences.TABLE + " SET " + IdSequences.VALUE_COLUMN + " = ? WHERE "
+                            + IdSequences.NAME_COLUMN + " = ?",
+                    next + size, sequence);
+            return next;
+        });
+        return first;
+    }
+}
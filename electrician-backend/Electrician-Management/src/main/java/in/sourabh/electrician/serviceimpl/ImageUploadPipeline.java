@@ -0,0 +1,347 @@
+package in.sourabh.electrician.serviceimpl;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import in.sourabh.electrician.entites.ImageUpload;
+import in.sourabh.electrician.entites.ImageUploadStatus;
+import in.sourabh.electrician.repository.ElectricianRepository;
+import in.sourabh.electrician.repository.ImageUploadRepository;
+import in.sourabh.electrician.repository.UserRepository;
+import in.sourabh.electrician.security.AccountType;
+import in.sourabh.electrician.storage.BlobStore;
+import in.sourabh.electrician.storage.ImageResizer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Background upload of profile images, so registration and profile edits never wait on
+ * the image host.
+ *
+ * The request thread only moves the multipart into a spool file (the container's own
+ * temp file is moved or streamed, never copied onto the heap) and records a PENDING job.
+ * Workers claim jobs with a conditional UPDATE, resize the spool file into the
+ * {@link ImageResizer.Variant}s, upload those, then patch the owner's image columns and
+ * mark the job DONE in one transaction. Resizing is CPU bound, so at most
+ * processing-concurrency workers decode at once while the rest wait on the image host.
+ * Failures retry with exponential backoff up to max-attempts, except for files that are
+ * not images at all. Jobs survive restarts: on startup, unfinished jobs whose spool file
+ * is still on this node are picked up again.
+ *
+ * A newer image for the same profile supersedes unfinished older ones, so a slow early
+ * upload can never overwrite a later picture.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImageUploadPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageUploadPipeline.class);
+
+    private static final String SPOOL_SUFFIX = ".upload";
+    private static final String VARIANT_SUFFIX = ".jpg";
+    private static final int MAX_ERROR_LENGTH = 500;
+    // Requests that spooled a file but have not recorded the job yet must keep it
+    private static final Duration ORPHAN_GRACE = Duration.ofHours(1);
+
+    private final ImageUploadRepository imageUploadRepository;
+    private final BlobStore blobStore;
+    private final UserRepository userRepository;
+    private final ElectricianRepository electricianRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${upload.spool-dir:${java.io.tmpdir}/electrician-uploads}")
+    private String spoolDir;
+
+    @Value("${upload.workers:4}")
+    private int workers;
+
+    @Value("${upload.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${upload.retry-base-delay-ms:2000}")
+    private long retryBaseDelayMs;
+
+    // 0 means one per core
+    @Value("${upload.processing-concurrency:0}")
+    private int processingConcurrency;
+
+    // Larger sources are rejected from the header, before any pixels are decoded
+    @Value("${upload.max-source-pixels:50000000}")
+    private long maxSourcePixels;
+
+    @Value("${upload.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    // Unfinished jobs whose spool file is gone (another node, wiped disk) fail after this
+    @Value("${upload.stale-after-hours:24}")
+    private long staleAfterHours;
+
+    private Path spoolRoot;
+    private ScheduledExecutorService executor;
+    private ImageResizer imageResizer;
+    private Semaphore processingSlots;
+
+    /**
+     * Published after a finished upload has been written to the owner's row.
+     */
+    public record ProfileImageUpdated(AccountType ownerType, Long ownerId, String imageUrl) {
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        spoolRoot = Files.createDirectories(Paths.get(spoolDir).toAbsolutePath());
+        AtomicInteger threadCount = new AtomicInteger();
+        ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(workers, runnable -> {
+            Thread thread = new Thread(runnable, "image-upload-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.setRemoveOnCancelPolicy(true);
+        executor = pool;
+        imageResizer = new ImageResizer(maxSourcePixels, jpegQuality);
+        processingSlots = new Semaphore(processingConcurrency > 0
+                ? processingConcurrency
+                : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Jobs cut off mid-upload stay UPLOADING and are resumed on the next start
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Moves the multipart into the spool. Returns null when there is no image.
+     */
+    public Path spool(MultipartFile image) {
+        if (image == null || image.isEmpty()) {
+            return null;
+        }
+        Path target = spoolRoot.resolve(UUID.randomUUID() + SPOOL_SUFFIX);
+        try {
+            image.transferTo(target);
+            return target;
+        } catch (IOException e) {
+            throw new RuntimeException("Image upload failed", e);
+        }
+    }
+
+    /**
+     * Records a job for a spooled image and hands it to the workers. Call after the owner
+     * row has committed. Returns the job id to poll, or null when nothing was spooled.
+     */
+    public Long submit(AccountType ownerType, Long ownerId, String folder, Path spooled) {
+        if (spooled == null) {
+            return null;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        ImageUpload job = transactionTemplate.execute(status -> {
+            imageUploadRepository.supersede(ownerType, ownerId, now);
+            return imageUploadRepository.save(new ImageUpload(null, ownerType, ownerId, folder,
+                    spooled.toString(), ImageUploadStatus.PENDING, 0, null, null, null, null, now, now));
+        });
+        dispatch(job.getId(), 0);
+        return job.getId();
+    }
+
+    public Optional<ImageUpload> find(Long uploadId) {
+        return imageUploadRepository.findById(uploadId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        LocalDateTime staleBefore = LocalDateTime.now().minusHours(staleAfterHours);
+        Set<Path> referenced = new HashSet<>();
+        int resumed = 0;
+
+        for (ImageUpload job : imageUploadRepository
+                .findByStatusIn(List.of(ImageUploadStatus.PENDING, ImageUploadStatus.UPLOADING))) {
+            Path spooled = Paths.get(job.getSpoolPath());
+            if (Files.exists(spooled)) {
+                referenced.add(spooled);
+                // UPLOADING here means the previous run died mid-attempt
+                if (job.getStatus() == ImageUploadStatus.UPLOADING) {
+                    imageUploadRepository.transition(job.getId(), ImageUploadStatus.UPLOADING,
+                            ImageUploadStatus.PENDING, job.getLastError(), LocalDateTime.now());
+                }
+                dispatch(job.getId(), 0);
+                resumed++;
+            } else if (job.getUpdatedAt().isBefore(staleBefore)) {
+                imageUploadRepository.transition(job.getId(), job.getStatus(), ImageUploadStatus.FAILED,
+                        "Spool file missing", LocalDateTime.now());
+            }
+        }
+
+        // Spool files without a live job (the owner save failed, or the job already ended),
+        // and variants left behind by a run that died mid-upload
+        Instant orphanedBefore = Instant.now().minus(ORPHAN_GRACE);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolRoot,
+                "*{" + SPOOL_SUFFIX + "," + VARIANT_SUFFIX + "}")) {
+            for (Path file : files) {
+                if (!referenced.contains(file) && Files.getLastModifiedTime(file).toInstant().isBefore(orphanedBefore)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not clean image spool {}", spoolRoot, e);
+        }
+
+        if (resumed > 0) {
+            logger.info("Resumed {} unfinished image uploads", resumed);
+        }
+    }
+
+    private void dispatch(Long uploadId, long delayMs) {
+        executor.schedule(() -> {
+            try {
+                process(uploadId);
+            } catch (RuntimeException e) {
+                // Left PENDING/UPLOADING; picked up again on the next start
+                logger.error("Image upload {} could not be processed", uploadId, e);
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    void process(Long uploadId) {
+        boolean claimed = imageUploadRepository.claim(uploadId, LocalDateTime.now()) > 0;
+        ImageUpload job = imageUploadRepository.findById(uploadId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        Path spooled = Paths.get(job.getSpoolPath());
+        if (!claimed) {
+            // Superseded before it started; nothing will read the spool file again
+            if (job.getStatus() == ImageUploadStatus.SUPERSEDED) {
+                deleteSpool(spooled);
+            }
+            return;
+        }
+
+        Map<ImageResizer.Variant, String> urls;
+        try {
+            urls = resizeAndStore(job, spooled);
+        } catch (Exception e) {
+            retryOrFail(job, spooled, e);
+            return;
+        }
+        String imageUrl = urls.get(ImageResizer.Variant.LARGE);
+        String mediumUrl = urls.get(ImageResizer.Variant.MEDIUM);
+        String thumbnailUrl = urls.get(ImageResizer.Variant.THUMBNAIL);
+
+        Boolean applied = transactionTemplate.execute(status -> {
+            if (imageUploadRepository.complete(uploadId, imageUrl, mediumUrl, thumbnailUrl,
+                    LocalDateTime.now()) == 0) {
+                return false;
+            }
+            if (job.getOwnerType() == AccountType.USER) {
+                userRepository.updateImages(job.getOwnerId(), imageUrl, mediumUrl, thumbnailUrl);
+            } else {
+                electricianRepository.updateImages(job.getOwnerId(), imageUrl, mediumUrl, thumbnailUrl);
+            }
+            return true;
+        });
+        deleteSpool(spooled);
+
+        if (Boolean.TRUE.equals(applied)) {
+            eventPublisher.publishEvent(new ProfileImageUpdated(job.getOwnerType(), job.getOwnerId(), imageUrl));
+        } else {
+            logger.debug("Image upload {} was superseded; discarding {}", uploadId, imageUrl);
+        }
+    }
+
+    private Map<ImageResizer.Variant, String> resizeAndStore(ImageUpload job, Path spooled) throws IOException {
+        Map<ImageResizer.Variant, Path> variants;
+        processingSlots.acquireUninterruptibly();
+        try {
+            variants = imageResizer.resize(spooled, spoolRoot, "job-" + job.getId());
+        } finally {
+            processingSlots.release();
+        }
+
+        try {
+            Map<ImageResizer.Variant, String> urls = new EnumMap<>(ImageResizer.Variant.class);
+            for (Map.Entry<ImageResizer.Variant, Path> variant : variants.entrySet()) {
+                urls.put(variant.getKey(), blobStore.store(variant.getValue(), job.getFolder()));
+            }
+            return urls;
+        } finally {
+            // A retry resizes again from the spool file, which is cheaper than tracking partial uploads
+            variants.values().forEach(this::deleteSpool);
+        }
+    }
+
+    private void retryOrFail(ImageUpload job, Path spooled, Exception error) {
+        String message = truncate(error.getClass().getSimpleName() + ": " + error.getMessage());
+        if (error instanceof ImageResizer.UnsupportedImageException) {
+            logger.info("Image upload {} rejected: {}", job.getId(), error.getMessage());
+            failAndDeleteSpool(job, spooled, message);
+            return;
+        }
+        if (job.getAttempts() >= maxAttempts) {
+            logger.warn("Image upload {} failed after {} attempts", job.getId(), job.getAttempts(), error);
+            failAndDeleteSpool(job, spooled, message);
+            return;
+        }
+
+        long delayMs = retryBaseDelayMs << Math.min(job.getAttempts() - 1, 10);
+        logger.debug("Image upload {} attempt {} failed, retrying in {} ms", job.getId(), job.getAttempts(), delayMs,
+                error);
+        if (imageUploadRepository.transition(job.getId(), ImageUploadStatus.UPLOADING, ImageUploadStatus.PENDING,
+                message, LocalDateTime.now()) > 0) {
+            dispatch(job.getId(), delayMs);
+        } else {
+            // Superseded while we were uploading
+            deleteSpool(spooled);
+        }
+    }
+
+    private void failAndDeleteSpool(ImageUpload job, Path spooled, String message) {
+        // Not changed means superseded meanwhile; the spool file is unused either way
+        imageUploadRepository.transition(job.getId(), ImageUploadStatus.UPLOADING, ImageUploadStatus.FAILED, message,
+                LocalDateTime.now());
+        deleteSpool(spooled);
+    }
+
+    private void deleteSpool(Path spooled) {
+        try {
+            Files.deleteIfExists(spooled);
+        } catch (IOException e) {
+            logger.warn("Could not delete spooled image {}", spooled, e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,330 @@
+package in.sourabh.electrician.serviceimpl;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import in.sourabh.electrician.entites.IdSequences;
+import in.sourabh.electrician.entites.Message;
+import in.sourabh.electrician.entites.MessageType;
+import in.sourabh.electrician.exception.MessageRejectedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Opt-in asynchronous persistence for chat messages (chat.async-persistence.enabled).
+ *
+ * Messages get their id up front so they can be broadcast immediately, then a single
+ * writer thread drains the bounded queue into JDBC batch inserts. One FIFO writer keeps
+ * insert order identical to arrival order, which preserves per-room ordering. Once a
+ * batch commits, each sender gets an ack on /topic/chat/{senderType}/{senderId}/ack.
+ *
+ * Queued messages have already been shown to both clients, so they are never dropped. A
+ * batch that fails to insert stays at the head of the line and is retried with backoff
+ * until the database takes it; the insert is idempotent on the message id, so a retry
+ * after a lost commit is harmless. Rows the schema itself rejects are moved to
+ * message_dead_letters rather than blocking the queue forever.
+ *
+ * When the queue stays full for offer-timeout-ms the message is rejected with
+ * {@link MessageRejectedException} before it is broadcast, so a slow database pushes back
+ * on senders instead of growing the heap or jumping the queue.
+ *
+ * Ids are reserved in blocks from the same id_sequences row Hibernate uses for Message,
+ * so queued and synchronously saved messages never collide.
+ */
+@Component
+@RequiredArgsConstructor
+public class MessagePersistencePipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessagePersistencePipeline.class);
+
+    private static final String INSERT_SQL = "INSERT INTO messages "
+            + "(id, content, sender_id, receiver_id, sender_type, receiver_type, sent_at, message_type, seen, chat_room_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            // A retry of a batch that did commit re-inserts the same ids; keep those no-ops
+            + "ON DUPLICATE KEY UPDATE id = id";
+
+    private static final String DEAD_LETTER_SQL = "INSERT INTO message_dead_letters "
+            + "(message_id, chat_room_id, sender_id, receiver_id, sender_type, receiver_type, content, "
+            + "message_type, sent_at, error, failed_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE message_id = message_id";
+
+    private static final long INITIAL_RETRY_BACKOFF_MS = 100;
+    private static final long MAX_RETRY_BACKOFF_MS = 10_000;
+
+    // Attempts per batch when stop() flushes on its own thread after the writer is gone
+    private static final int SHUTDOWN_WRITE_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final IdSequenceAllocator idSequenceAllocator;
+
+    @Value("${chat.async-persistence.enabled:false}")
+    private boolean enabled;
+
+    @Value("${chat.async-persistence.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${chat.async-persistence.batch-size:200}")
+    private int batchSize;
+
+    @Value("${chat.async-persistence.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    @Value("${chat.async-persistence.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    // Current reserved id block: [nextId, blockEnd). Guarded by a lock rather than
+    // synchronized, since refilling does JDBC I/O and must not pin virtual threads.
+    private final ReentrantLock idLock = new ReentrantLock();
+    private long nextId;
+    private long blockEnd;
+
+    private BlockingQueue<Message> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    // Batch the writer held when it was interrupted at shutdown; stop() persists it
+    private volatile List<Message> unwritten = List.of();
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::drainLoop, "chat-message-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Async message persistence enabled (queue={}, batch={})", queueCapacity, batchSize);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Assigns the message id and hands it to the writer. Returns once the message is
+     * queued.
+     *
+     * @throws MessageRejectedException if the queue stayed full or the writer is stopping;
+     *         the message was neither stored nor queued
+     */
+    public Message submit(Message message) {
+        if (!running) {
+            throw new MessageRejectedException("Chat is shutting down, please send the message again shortly");
+        }
+        message.setId(nextMessageId());
+
+        try {
+            if (queue.offer(message, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return message;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Writing it here would put it ahead of everything queued and break per-room order
+        logger.warn("Message queue full, rejecting message {}", message.getId());
+        throw new MessageRejectedException("Chat is busy, please send the message again");
+    }
+
+    private long nextMessageId() {
+        idLock.lock();
+        try {
+            if (nextId >= blockEnd) {
+                nextId = idSequenceAllocator.reserve(IdSequences.MESSAGES, IdSequences.ALLOCATION_SIZE);
+                blockEnd = nextId + IdSequences.ALLOCATION_SIZE;
+            }
+            return nextId++;
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    public int backlog() {
+        return queue != null ? queue.size() : 0;
+    }
+
+    private void drainLoop() {
+        List<Message> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                Message first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeUntilPersisted(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // stop() gave up waiting; hand it the batch we still hold
+                unwritten = List.copyOf(batch);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Retries the batch with exponential backoff until it is stored. Only an interrupt
+     * from stop() ends the loop early, and then the caller keeps the batch.
+     */
+    private void writeUntilPersisted(List<Message> batch) throws InterruptedException {
+        long backoffMs = INITIAL_RETRY_BACKOFF_MS;
+        for (int attempt = 1;; attempt++) {
+            try {
+                writeBatch(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == 1 || attempt % 10 == 0) {
+                    logger.error("Batch insert of {} messages failed (attempt {}), retrying in {} ms: {}",
+                            batch.size(), attempt, backoffMs, e.getMessage());
+                }
+                Thread.sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, MAX_RETRY_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void writeBatch(List<Message> batch) {
+        try {
+            insert(batch);
+        } catch (DataIntegrityViolationException e) {
+            // One rejected row fails the whole batch: write the rest one at a time and park
+            // the rows the schema rejects, since retrying them can never succeed
+            for (Message m : batch) {
+                try {
+                    insert(List.of(m));
+                } catch (DataIntegrityViolationException rejected) {
+                    deadLetter(m, rejected);
+                }
+            }
+        }
+        for (Message m : batch) {
+            acknowledge(m);
+        }
+    }
+
+    private void insert(List<Message> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Message m : batch) {
+            rows.add(new Object[] {
+                    m.getId(),
+                    m.getContent(),
+                    m.getSenderId(),
+                    m.getReceiverId(),
+                    m.getSenderType().name(),
+                    m.getReceiverType().name(),
+                    Timestamp.valueOf(m.getSentAt()),
+                    (m.getMessageType() != null ? m.getMessageType() : MessageType.TEXT).name(),
+                    m.isSeen(),
+                    m.getChatRoom().getId()
+            });
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+    }
+
+    private void deadLetter(Message m, DataIntegrityViolationException cause) {
+        String error = String.valueOf(cause.getMostSpecificCause().getMessage());
+        jdbcTemplate.update(DEAD_LETTER_SQL,
+                m.getId(),
+                m.getChatRoom().getId(),
+                m.getSenderId(),
+                m.getReceiverId(),
+                m.getSenderType().name(),
+                m.getReceiverType().name(),
+                m.getContent(),
+                (m.getMessageType() != null ? m.getMessageType() : MessageType.TEXT).name(),
+                Timestamp.valueOf(m.getSentAt()),
+                error.length() > 500 ? error.substring(0, 500) : error,
+                Timestamp.valueOf(LocalDateTime.now()));
+        logger.error("Message {} in room {} was rejected by the database and moved to message_dead_letters: {}",
+                m.getId(), m.getChatRoom().getId(), error);
+    }
+
+    private void acknowledge(Message message) {
+        try {
+            messagingTemplate.convertAndSend(
+                    "/topic/chat/" + message.getSenderType() + "/" + message.getSenderId() + "/ack",
+                    Map.of("id", message.getId(),
+                            "chatRoomId", message.getChatRoom().getId().toString(),
+                            "persisted", true));
+        } catch (Exception e) {
+            logger.debug("Could not ack message {}: {}", message.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Lets the writer drain the queue, then interrupts it if it is stuck retrying and
+     * persists whatever is left on this thread. Messages that still cannot be written are
+     * logged by id.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(shutdownTimeoutMs);
+        if (writer.isAlive()) {
+            writer.interrupt();
+            writer.join();
+        }
+
+        List<Message> remaining = new ArrayList<>(unwritten);
+        queue.drainTo(remaining);
+        if (remaining.isEmpty()) {
+            logger.info("Message writer stopped with an empty queue");
+            return;
+        }
+
+        List<Long> lost = new ArrayList<>();
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            List<Message> batch = remaining.subList(from, Math.min(from + batchSize, remaining.size()));
+            if (!flushOnShutdown(batch)) {
+                batch.forEach(m -> lost.add(m.getId()));
+            }
+        }
+        if (lost.isEmpty()) {
+            logger.info("Persisted {} queued messages while stopping", remaining.size());
+        } else {
+            logger.error("Could not persist {} of {} queued chat messages at shutdown, ids: {}",
+                    lost.size(), remaining.size(), lost);
+        }
+    }
+
+    private boolean flushOnShutdown(List<Message> batch) {
+        for (int attempt = 1; attempt <= SHUTDOWN_WRITE_ATTEMPTS; attempt++) {
+            try {
+                writeBatch(batch);
+                return true;
+            } catch (RuntimeException e) {
+                logger.warn("Shutdown flush of {} messages failed (attempt {}/{}): {}",
+                        batch.size(), attempt, SHUTDOWN_WRITE_ATTEMPTS, e.getMessage());
+            }
+        }
+        return false;
+    }
+}
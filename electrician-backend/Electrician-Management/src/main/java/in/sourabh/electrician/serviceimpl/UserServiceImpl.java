@@ -1,19 +1,21 @@
 package in.sourabh.electrician.serviceimpl;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import in.sourabh.electrician.dto.UserDto;
 import in.sourabh.electrician.entites.Role;
 import in.sourabh.electrician.entites.User;
-import in.sourabh.electrician.exception.ResourceAlreadyExistsException;
 import in.sourabh.electrician.exception.ResourceNotFoundException;
 import in.sourabh.electrician.mapper.UserMapper;
 import in.sourabh.electrician.repository.UserRepository;
+import in.sourabh.electrician.security.AccountType;
 import in.sourabh.electrician.service.UserService;
 import lombok.RequiredArgsConstructor;
 
@@ -23,28 +25,31 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final CloudinaryService cloudinaryService;
+    private final ImageUploadPipeline imageUploadPipeline;
+    private final AccountDirectory accountDirectory;
+    private final TransactionTemplate transactionTemplate;
 
     // Create User
     @Override
     public UserDto createUser(UserDto userDto, MultipartFile image) {
 
-        if (userRepository.existsByEmail(userDto.getEmail())) {
-            throw new ResourceAlreadyExistsException(
-                    "User already registered with email: " + userDto.getEmail());
-        }
+        accountDirectory.checkEmailAvailable(userDto.getEmail(), AccountType.USER, null);
         User user = UserMapper.maToUser(userDto);
         user.setRole(Role.USER);
         user.setPassword(passwordEncoder.encode(userDto.getPassword()));
 
-        if (image != null && !image.isEmpty()) {
-            String imageUrl = cloudinaryService
-                    .uploadImage(image, "users/profile");
-            user.setImageProfile(imageUrl);
-        }
-
-        User savedUser = userRepository.save(user);
-        return UserMapper.mapToUserDto(savedUser);
+        // Uploaded in the background once the user row exists
+        Path spooledImage = imageUploadPipeline.spool(image);
+
+        User savedUser = transactionTemplate.execute(status -> {
+            User saved = userRepository.save(user);
+            accountDirectory.sync(saved);
+            return saved;
+        });
+        UserDto savedDto = UserMapper.mapToUserDto(savedUser);
+        savedDto.setImageUploadId(
+                imageUploadPipeline.submit(AccountType.USER, savedUser.getId(), "users/profile", spooledImage));
+        return savedDto;
     }
 
     // Get userById
@@ -69,6 +74,7 @@ public class UserServiceImpl implements UserService {
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id : " + userId));
+        accountDirectory.checkEmailAvailable(userDto.getEmail(), AccountType.USER, userId);
 
         user.setName(userDto.getName());
         user.setEmail(userDto.getEmail());
@@ -80,14 +86,18 @@ public class UserServiceImpl implements UserService {
             user.setPassword(passwordEncoder.encode(userDto.getPassword()));
         }
 
-        // ✅ Image update
-        if (image != null && !image.isEmpty()) {
-            String imageUrl = cloudinaryService.uploadImage(image, "user/profile");
-            user.setImageProfile(imageUrl);
-        }
-
-        User updatedUser = userRepository.save(user);
-        return UserMapper.mapToUserDto(updatedUser);
+        // ✅ Image update (uploaded in the background; imageProfile changes when it lands)
+        Path spooledImage = imageUploadPipeline.spool(image);
+
+        User updatedUser = transactionTemplate.execute(status -> {
+            User saved = userRepository.save(user);
+            accountDirectory.sync(saved);
+            return saved;
+        });
+        UserDto updatedDto = UserMapper.mapToUserDto(updatedUser);
+        updatedDto.setImageUploadId(
+                imageUploadPipeline.submit(AccountType.USER, userId, "user/profile", spooledImage));
+        return updatedDto;
     }
 
     // Delete user
@@ -96,7 +106,10 @@ public class UserServiceImpl implements UserService {
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("user is not exist with given id : " + userId));
-        userRepository.delete(user);
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.delete(user);
+            accountDirectory.remove(AccountType.USER, userId);
+        });
     }
 
 }
@@ -0,0 +1,18 @@
+package in.sourabh.electrician.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Where uploaded images end up. Implementations read the file themselves, so callers
+ * never need the image bytes on the heap. Cloudinary hosts them for production; the
+ * local-disk store serves them from this application for load tests and on-prem
+ * installs. Selected with storage.backend=cloudinary|local.
+ */
+public interface BlobStore {
+
+    /**
+     * Stores the file under {@code folder} and returns its public URL.
+     */
+    String store(Path file, String folder) throws IOException;
+}
@@ -0,0 +1,65 @@
+package in.sourabh.electrician.storage;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A single satisfiable byte range from a Range header, with inclusive bounds (RFC 9110, 14.1.2).
+ *
+ * Only one range per request is supported; multi-range requests get the whole file,
+ * which the RFC allows and which is all an image or video element ever needs.
+ */
+public record ByteRange(long start, long end) {
+
+    /**
+     * The header was well formed but no byte of it lies within the file: answer 416.
+     */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private static final Pattern SINGLE_RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+    /**
+     * Returns the range to send, {@link #UNSATISFIABLE}, or null when the whole file should be
+     * sent (no header, a malformed one, or several ranges).
+     */
+    public static ByteRange parse(String header, long size) {
+        if (header == null) {
+            return null;
+        }
+        Matcher matcher = SINGLE_RANGE.matcher(header.trim().toLowerCase(Locale.ROOT));
+        if (!matcher.matches()) {
+            return null;
+        }
+        String first = matcher.group(1);
+        String last = matcher.group(2);
+        try {
+            if (first.isEmpty()) {
+                // Suffix range: the final N bytes
+                if (last.isEmpty()) {
+                    return null;
+                }
+                long suffix = Long.parseLong(last);
+                return suffix == 0 || size == 0 ? UNSATISFIABLE : new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (end < start) {
+                return null;
+            }
+            return start >= size ? UNSATISFIABLE : new ByteRange(start, Math.min(end, size - 1));
+        } catch (NumberFormatException e) {
+            // More digits than a long holds
+            return null;
+        }
+    }
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    // Value for the Content-Range header of a 206
+    public String contentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+}
@@ -0,0 +1,190 @@
+package in.sourabh.electrician.storage;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+/**
+ * Turns an uploaded photo into fixed-size JPEG variants.
+ *
+ * The source is decoded once, with ImageIO subsampling so a 12 MP phone photo is never
+ * fully inflated when the largest variant is 1024 px. Each smaller variant is scaled
+ * from the previous one by repeated halving with bilinear filtering, which is close to
+ * area averaging in quality at a fraction of its cost. Images are never upscaled.
+ */
+public class ImageResizer {
+
+    public enum Variant {
+        LARGE(1024),
+        MEDIUM(320),
+        THUMBNAIL(160);
+
+        private final int maxEdge;
+
+        Variant(int maxEdge) {
+            this.maxEdge = maxEdge;
+        }
+
+        public int maxEdge() {
+            return maxEdge;
+        }
+    }
+
+    /**
+     * The upload is not a decodable image (or is too large to decode safely); retrying
+     * will not help.
+     */
+    public static class UnsupportedImageException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        public UnsupportedImageException(String message) {
+            super(message);
+        }
+    }
+
+    private final long maxSourcePixels;
+    private final float jpegQuality;
+
+    public ImageResizer(long maxSourcePixels, float jpegQuality) {
+        this.maxSourcePixels = maxSourcePixels;
+        this.jpegQuality = jpegQuality;
+    }
+
+    /**
+     * Writes {@code <baseName>-<variant>.jpg} into {@code outDir} for every variant.
+     */
+    public Map<Variant, Path> resize(Path source, Path outDir, String baseName) throws IOException {
+        BufferedImage image = decode(source, Variant.LARGE.maxEdge());
+
+        Map<Variant, Path> files = new EnumMap<>(Variant.class);
+        try {
+            for (Variant variant : Variant.values()) {
+                image = scaleToFit(image, variant.maxEdge());
+                Path target = outDir.resolve(baseName + "-" + variant.name().toLowerCase(Locale.ROOT) + ".jpg");
+                writeJpeg(image, target);
+                files.put(variant, target);
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Path file : files.values()) {
+                Files.deleteIfExists(file);
+            }
+            throw e;
+        }
+        return files;
+    }
+
+    BufferedImage decode(Path source, int targetEdge) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new UnsupportedImageException("Not a supported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                // Checked from the header, before a decompression bomb can allocate anything
+                if ((long) width * height > maxSourcePixels) {
+                    throw new UnsupportedImageException("Image is " + width + "x" + height + ", too large to process");
+                }
+
+                // Skip rows/columns while decoding, keeping at least 2x the target for filtering
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (2 * targetEdge));
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return toRgb(reader.read(0, param));
+            } catch (IIOException | IllegalArgumentException | IllegalStateException e) {
+                // Truncated or corrupt data, CMYK JPEGs and the like
+                throw new UnsupportedImageException("Cannot decode image: " + e.getMessage());
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    static BufferedImage scaleToFit(BufferedImage image, int maxEdge) {
+        int longest = Math.max(image.getWidth(), image.getHeight());
+        if (longest <= maxEdge) {
+            return image;
+        }
+        double scale = (double) maxEdge / longest;
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        while (width != targetWidth || height != targetHeight) {
+            // Halve until within 2x of the target, then one final bilinear step
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    // JPEG has no alpha; transparent areas become white instead of black
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        // In-memory cache: ImageIO's default disk cache adds a temp file per write
+        try (OutputStream out = Files.newOutputStream(target);
+                ImageOutputStream output = new MemoryCacheImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package in.sourabh.electrician.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores blobs as plain files under storage.local.root, served back by BlobController.
+ *
+ * Files are content-addressed: the name is a hash of the bytes, so a stored blob never
+ * changes. That makes the hash a valid strong ETag and lets clients cache forever, and
+ * re-uploading the same picture costs no extra space. Copies go channel to channel
+ * (copy_file_range/sendfile where the OS has it) into a temp file that is renamed into
+ * place, so readers never see a partial blob.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalBlobStore implements BlobStore {
+
+    // Folders and file names only; no "..", no hidden temp files, no separators
+    private static final Pattern SEGMENT = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]*");
+    private static final Pattern EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,8}");
+    private static final String TEMP_PREFIX = ".";
+    private static final int HASH_BYTES = 16;
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    private final Path root;
+    private final String publicUrl;
+
+    public LocalBlobStore(@Value("${storage.local.root:./data/blobs}") String root,
+            @Value("${storage.local.public-url:http://localhost:8083/api/blobs}") String publicUrl) throws IOException {
+        this.root = Files.createDirectories(Paths.get(root)).toRealPath();
+        this.publicUrl = publicUrl.endsWith("/") ? publicUrl.substring(0, publicUrl.length() - 1) : publicUrl;
+    }
+
+    /**
+     * A stored blob: the file to send and its strong ETag (quoted, ready for the header).
+     */
+    public record Blob(Path file, long size, String etag) {
+    }
+
+    @Override
+    public String store(Path file, String folder) throws IOException {
+        String key = folder + "/" + hash(file) + extension(file);
+        Path target = resolve(key)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid storage folder: " + folder));
+
+        // Same name means same bytes, so an existing file is already the right one
+        if (!Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), TEMP_PREFIX, ".tmp");
+            try {
+                copy(file, temp);
+                move(temp, target);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return publicUrl + "/" + key;
+    }
+
+    /**
+     * Looks up a key from a public URL; empty for unknown or malformed keys.
+     */
+    public Optional<Blob> find(String key) throws IOException {
+        Optional<Path> file = resolve(key);
+        if (file.isEmpty() || !Files.isRegularFile(file.get())) {
+            return Optional.empty();
+        }
+        String name = file.get().getFileName().toString();
+        int dot = name.indexOf('.');
+        String etag = "\"" + (dot < 0 ? name : name.substring(0, dot)) + "\"";
+        return Optional.of(new Blob(file.get(), Files.size(file.get()), etag));
+    }
+
+    Optional<Path> resolve(String key) {
+        String[] segments = key.split("/", -1);
+        for (String segment : segments) {
+            if (!SEGMENT.matcher(segment).matches()) {
+                return Optional.empty();
+            }
+        }
+        Path path = root.resolve(key).normalize();
+        // Belt and braces: the segment rules already keep keys inside the root
+        return path.startsWith(root) ? Optional.of(path) : Optional.empty();
+    }
+
+    private static void copy(Path source, Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+            // Durable before the rename publishes it
+            out.force(true);
+        }
+    }
+
+    private static void move(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (in.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        byte[] hash = digest.digest();
+        return HexFormat.of().formatHex(hash, 0, HASH_BYTES);
+    }
+
+    private static String extension(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String extension = dot < 0 ? "" : name.substring(dot).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? extension : "";
+    }
+}
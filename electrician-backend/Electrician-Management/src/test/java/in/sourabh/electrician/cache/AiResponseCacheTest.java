@@ -0,0 +1,103 @@
+package in.sourabh.electrician.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class AiResponseCacheTest {
+
+	private static final String PROMPT = "How can I book an electrician for wiring repair at my house?";
+
+	private AiResponseCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new AiResponseCache();
+		ReflectionTestUtils.setField(cache, "maxSize", 100);
+		ReflectionTestUtils.setField(cache, "ttlMinutes", 60L);
+		ReflectionTestUtils.setField(cache, "similarityThreshold", 0.9);
+		cache.init();
+	}
+
+	@Test
+	void nearDuplicatePromptReusesTheCachedAnswer() {
+		cache.get(PROMPT, () -> "Open the directory and press Book");
+
+		// Same words after normalization: an exact hit
+		assertEquals("Open the directory and press Book",
+				cache.get("how can i book an electrician for wiring repair, at my house", () -> "upstream"));
+		// One word changed, trigram similarity about 0.92
+		assertEquals("Open the directory and press Book",
+				cache.get("How can I book an electrician for wiring repairs at my house", () -> "upstream"));
+		assertEquals(1L, cache.stats().get("similarHits"));
+	}
+
+	@Test
+	void promptBelowTheThresholdGoesUpstream() {
+		cache.get(PROMPT, () -> "Open the directory and press Book");
+
+		// Shares most words with PROMPT but asks something else (similarity about 0.54)
+		assertEquals("Use Cancel on the booking",
+				cache.get("How can I cancel an electrician booking for my house?", () -> "Use Cancel on the booking"));
+		assertEquals(0L, cache.stats().get("similarHits"));
+	}
+
+	@Test
+	void expiredAnswersAreLoadedAgain() throws InterruptedException {
+		// The configured TTL is in minutes; swap in a short-lived store
+		ReflectionTestUtils.setField(cache, "answers", new LruCache<>(100, Duration.ofMillis(50)));
+		cache.get(PROMPT, () -> "old answer");
+
+		Thread.sleep(100);
+
+		assertEquals("new answer", cache.get(PROMPT, () -> "new answer"));
+		assertEquals("new answer", cache.lookup(PROMPT));
+	}
+
+	@Test
+	void concurrentMissesShareOneLoad() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(pool.submit(() -> cache.get(PROMPT, () -> {
+					loads.incrementAndGet();
+					await(release);
+					return "Open the directory and press Book";
+				})));
+			}
+			Thread.sleep(100);
+			release.countDown();
+
+			for (Future<String> result : results) {
+				assertEquals("Open the directory and press Book", result.get(2, TimeUnit.SECONDS));
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertEquals(1, loads.get());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(2, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
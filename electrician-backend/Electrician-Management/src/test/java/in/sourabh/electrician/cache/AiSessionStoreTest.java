@@ -0,0 +1,88 @@
+package in.sourabh.electrician.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class AiSessionStoreTest {
+
+	private AiSessionStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new AiSessionStore();
+		ReflectionTestUtils.setField(store, "maxSessions", 2);
+		ReflectionTestUtils.setField(store, "idleTtlMinutes", 30L);
+		ReflectionTestUtils.setField(store, "historyTokenBudget", 100);
+		ReflectionTestUtils.setField(store, "summaryTokenBudget", 40);
+		store.init();
+	}
+
+	@Test
+	void keepsRecentTurnsInOrder() {
+		String s1 = store.open(null);
+		store.append(s1, "How do I book?", "Open a profile and press Book.");
+		store.append(s1, "And cancel?", "Use the bookings page.");
+
+		AiSessionStore.Context context = store.context(s1);
+
+		assertEquals(4, context.turns().size());
+		assertEquals("user", context.turns().get(0).role());
+		assertEquals("And cancel?", context.turns().get(2).text());
+		assertNull(context.summary());
+	}
+
+	@Test
+	void contextSizeStaysFlatAsConversationGrows() {
+		String s1 = store.open(null);
+		String answer = "x".repeat(120);
+		for (int i = 0; i < 200; i++) {
+			store.append(s1, "question number " + i, answer);
+		}
+
+		AiSessionStore.Context context = store.context(s1);
+		int chars = context.summary().length();
+		for (AiSessionStore.Turn turn : context.turns()) {
+			chars += turn.text().length();
+		}
+
+		assertNotNull(context.summary());
+		assertFalse(context.summary().contains("question number 199"));
+		assertTrue(chars < (100 + 40) * 4 + 200, "context grew to " + chars + " chars");
+		assertEquals("question number 199", context.turns().get(context.turns().size() - 2).text());
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedSession() {
+		String a = store.open(null);
+		String b = store.open(null);
+		store.append(a, "q", "a");
+		store.append(b, "q", "a");
+		store.context(a);
+		String c = store.open(null);
+		store.append(c, "q", "a");
+
+		assertTrue(store.context(b).isEmpty());
+		assertEquals(2, store.context(a).turns().size());
+	}
+
+	@Test
+	void sessionsAreIssuedAndBoundToTheirOwner() {
+		String mine = store.open("USER:5");
+
+		assertEquals(43, mine.length());
+		assertTrue(store.isOwnedBy(mine, "USER:5"));
+		assertFalse(store.isOwnedBy(mine, "USER:6"));
+		assertFalse(store.isOwnedBy(mine, null));
+		// An id the server never issued is not a session, and appending does not create one
+		store.append("guessed", "q", "a");
+		assertFalse(store.isOwnedBy("guessed", null));
+		assertTrue(store.context("guessed").isEmpty());
+	}
+}
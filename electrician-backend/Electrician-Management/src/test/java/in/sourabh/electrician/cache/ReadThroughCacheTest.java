@@ -0,0 +1,129 @@
+package in.sourabh.electrician.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import in.sourabh.electrician.dto.ElectricianSummary;
+
+class ReadThroughCacheTest {
+
+	private final ReadThroughCache cache = new ReadThroughCache(new LocalKeyValueStore(100), new ObjectMapper());
+
+	@Test
+	void concurrentMissesShareOneLoad() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<ElectricianSummary>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(pool.submit(() -> cache.get("electrician:profile:1", ElectricianSummary.class,
+						Duration.ofMinutes(1), () -> {
+							loads.incrementAndGet();
+							await(release);
+							return summary("Asha");
+						})));
+			}
+			Thread.sleep(100);
+			release.countDown();
+
+			for (Future<ElectricianSummary> result : results) {
+				assertEquals("Asha", result.get(2, TimeUnit.SECONDS).getName());
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertEquals(1, loads.get());
+		// Later reads are hits served from the store's JSON copy
+		assertEquals("Asha", cache.get("electrician:profile:1", ElectricianSummary.class, Duration.ofMinutes(1),
+				() -> summary("stale")).getName());
+	}
+
+	@Test
+	void evictAndGroupInvalidationForceReload() {
+		long generation = cache.generation("electrician:directory");
+		cache.get("electrician:profile:2", ElectricianSummary.class, Duration.ofMinutes(1), () -> summary("Old"));
+
+		cache.evict("electrician:profile:2");
+		cache.invalidateGroup("electrician:directory");
+
+		assertEquals("New", cache.get("electrician:profile:2", ElectricianSummary.class, Duration.ofMinutes(1),
+				() -> summary("New")).getName());
+		assertNotEquals(generation, cache.generation("electrician:directory"));
+	}
+
+	@Test
+	void unreachableStoreFallsThroughToLoader() {
+		ReadThroughCache broken = new ReadThroughCache(new FailingStore(), new ObjectMapper());
+
+		assertEquals("Live", broken.get("k", ElectricianSummary.class, Duration.ofMinutes(1),
+				() -> summary("Live")).getName());
+		assertEquals(-1, broken.generation("g"));
+	}
+
+	private static ElectricianSummary summary(String name) {
+		return new ElectricianSummary(1L, name, null, null, "5 years", "ITI", "Pune", null, null);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(2, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static class FailingStore implements KeyValueStore {
+
+		@Override
+		public String get(String key) {
+			throw new IllegalStateException("down");
+		}
+
+		@Override
+		public void put(String key, String value, Duration ttl) {
+			throw new IllegalStateException("down");
+		}
+
+		@Override
+		public boolean putIfAbsent(String key, String value, Duration ttl) {
+			throw new IllegalStateException("down");
+		}
+
+		@Override
+		public void delete(String key) {
+			throw new IllegalStateException("down");
+		}
+
+		@Override
+		public long increment(String key) {
+			throw new IllegalStateException("down");
+		}
+
+		@Override
+		public long counter(String key) {
+			throw new IllegalStateException("down");
+		}
+
+		@Override
+		public Map<String, Object> stats() {
+			return Map.of();
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package in.sourabh.electrician.calendar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+class ElectricianCalendarTest {
+
+	// A Monday
+	private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+	private static final LocalDateTime NOW = MONDAY.minusDays(1).atTime(12, 0);
+
+	private final ElectricianCalendar calendar = new ElectricianCalendar(LocalTime.of(9, 0), LocalTime.of(13, 0), 60,
+			EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), MONDAY.plusDays(30).atStartOfDay());
+
+	@Test
+	void freeSlotsSkipBookingsBlocksAndDaysOff() {
+		calendar.occupy("booking:1", MONDAY.atTime(10, 0), MONDAY.atTime(11, 0));
+		calendar.occupy("block:1", MONDAY.atTime(11, 30), MONDAY.atTime(12, 15));
+
+		List<ElectricianCalendar.Slot> slots = calendar.freeSlots(MONDAY.minusDays(2), 3, NOW);
+
+		// Saturday and Sunday are off; on Monday 10:00 is booked and the block covers 11:00 and 12:00
+		assertEquals(List.of(new ElectricianCalendar.Slot(MONDAY.atTime(9, 0), MONDAY.atTime(10, 0))), slots);
+	}
+
+	@Test
+	void releasedSlotsBecomeFreeAgain() {
+		calendar.occupy("booking:1", MONDAY.atTime(9, 0), MONDAY.atTime(10, 0));
+		assertEquals(Optional.of("Slot is already booked"),
+				calendar.unavailableReason(MONDAY.atTime(9, 30), MONDAY.atTime(10, 30), NOW));
+
+		calendar.release("booking:1");
+		assertEquals(Optional.empty(), calendar.unavailableReason(MONDAY.atTime(9, 0), MONDAY.atTime(10, 0), NOW));
+	}
+
+	@Test
+	void rejectsSlotsOutsideWorkingHoursOrHorizon() {
+		assertEquals(Optional.of("Slot is outside the electrician's working hours"),
+				calendar.unavailableReason(MONDAY.atTime(12, 30), MONDAY.atTime(13, 30), NOW));
+		assertEquals(Optional.of("Slot is outside the electrician's working hours"),
+				calendar.unavailableReason(MONDAY.minusDays(1).atTime(9, 0), MONDAY.minusDays(1).atTime(10, 0),
+						NOW.minusDays(1)));
+		assertEquals(Optional.of("Slot is in the past"),
+				calendar.unavailableReason(NOW.minusHours(1), NOW, NOW));
+		assertEquals(Optional.of("Slot is too far ahead to book"),
+				calendar.unavailableReason(MONDAY.plusDays(35).atTime(9, 0), MONDAY.plusDays(35).atTime(10, 0), NOW));
+	}
+
+	@Test
+	void busyWeekLeavesTheGapsBetweenBookings() {
+		ElectricianCalendar busy = busyCalendar();
+
+		// Every other half hour is booked, leaving 12 free slots on each of the 7 days
+		List<ElectricianCalendar.Slot> slots = busy.freeSlots(MONDAY, 7, NOW);
+		assertEquals(84, slots.size());
+		assertEquals(MONDAY.atTime(8, 30), slots.get(0).start());
+	}
+
+	@Test
+	@Tag("benchmark")
+	void weekOfFreeSlotsTakesMicroseconds() {
+		ElectricianCalendar busy = busyCalendar();
+
+		for (int i = 0; i < 5_000; i++) {
+			busy.freeSlots(MONDAY, 7, NOW);
+		}
+		int iterations = 20_000;
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			busy.freeSlots(MONDAY.plusDays(i % 50), 7, NOW);
+		}
+		double micros = (System.nanoTime() - start) / 1_000.0 / iterations;
+
+		System.out.printf("Free slots (7 days, 720 bookings): %.1f us/query%n", micros);
+		// Generous bound so shared CI machines do not flake; well under a millisecond in practice
+		assertTrue(micros < 1_000, micros + " us/query");
+	}
+
+	// 60 days of 12-hour workdays with every other half-hour slot booked
+	private static ElectricianCalendar busyCalendar() {
+		ElectricianCalendar busy = new ElectricianCalendar(LocalTime.of(8, 0), LocalTime.of(20, 0), 30,
+				EnumSet.allOf(DayOfWeek.class), MONDAY.plusDays(60).atStartOfDay());
+		for (int day = 0; day < 60; day++) {
+			for (int slot = 0; slot < 24; slot += 2) {
+				LocalDateTime start = MONDAY.plusDays(day).atTime(8, 0).plusMinutes(30L * slot);
+				busy.occupy("booking:" + day + ":" + slot, start, start.plusMinutes(30));
+			}
+		}
+		return busy;
+	}
+}
@@ -0,0 +1,76 @@
+package in.sourabh.electrician.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class WebSocketConfigTest {
+
+	private static final int SENDERS = 2_000;
+	// Roughly one synchronous MySQL insert on the send path
+	private static final long HANDLER_MILLIS = 20;
+
+	@Test
+	@Tag("benchmark")
+	void virtualChannelWorkersCutSendLatencyUnderLoad() throws InterruptedException {
+		assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21");
+
+		// Spring's default inbound channel pool: two platform threads per core
+		ThreadPoolTaskExecutor platform = new ThreadPoolTaskExecutor();
+		platform.setCorePoolSize(Runtime.getRuntime().availableProcessors() * 2);
+		platform.setAllowCoreThreadTimeOut(true);
+
+		WebSocketConfig config = new WebSocketConfig();
+		ReflectionTestUtils.setField(config, "channelConcurrency", 512);
+		ThreadPoolTaskExecutor virtual = ReflectionTestUtils.invokeMethod(config, "channelExecutor", "ws-inbound-");
+
+		long[] platformMillis = sendAll(platform);
+		long[] virtualMillis = sendAll(virtual);
+
+		System.out.printf("%d concurrent sends, %d ms handler: platform p50 %d ms p99 %d ms, "
+				+ "virtual p50 %d ms p99 %d ms%n", SENDERS, HANDLER_MILLIS,
+				percentile(platformMillis, 50), percentile(platformMillis, 99),
+				percentile(virtualMillis, 50), percentile(virtualMillis, 99));
+		assertTrue(percentile(virtualMillis, 99) < percentile(platformMillis, 99));
+	}
+
+	// Every sender's message arrives at once; latency runs from arrival to handler completion
+	private static long[] sendAll(ThreadPoolTaskExecutor executor) throws InterruptedException {
+		executor.initialize();
+		long[] latencies = new long[SENDERS];
+		CountDownLatch done = new CountDownLatch(SENDERS);
+		try {
+			for (int i = 0; i < SENDERS; i++) {
+				int sender = i;
+				long arrived = System.nanoTime();
+				executor.execute(() -> {
+					try {
+						Thread.sleep(HANDLER_MILLIS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					latencies[sender] = (System.nanoTime() - arrived) / 1_000_000;
+					done.countDown();
+				});
+			}
+			assertTrue(done.await(2, TimeUnit.MINUTES));
+		} finally {
+			executor.shutdown();
+		}
+		return latencies;
+	}
+
+	private static long percentile(long[] values, int percentile) {
+		long[] sorted = values.clone();
+		Arrays.sort(sorted);
+		return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+	}
+}
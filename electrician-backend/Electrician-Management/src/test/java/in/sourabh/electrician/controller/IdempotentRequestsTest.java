@@ -0,0 +1,43 @@
+package in.sourabh.electrician.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import in.sourabh.electrician.cache.LocalKeyValueStore;
+import in.sourabh.electrician.cache.ReadThroughCache;
+
+class IdempotentRequestsTest {
+
+	@Test
+	void cacheChurnDoesNotEvictIdempotencyKeys() {
+		LocalKeyValueStore cacheStore = new LocalKeyValueStore(100);
+		ReadThroughCache cache = new ReadThroughCache(cacheStore, new ObjectMapper());
+		IdempotentRequests requests = new IdempotentRequests(cacheStore, new ObjectMapper(), 100);
+		ReflectionTestUtils.setField(requests, "ttlHours", 24L);
+		ReflectionTestUtils.setField(requests, "inProgressSeconds", 60L);
+		AtomicInteger bookings = new AtomicInteger();
+
+		ResponseEntity<?> first = requests.execute("key-1", "USER:5", "booking", Map.of("slot", "10:00"),
+				() -> ResponseEntity.ok(Map.of("bookingId", bookings.incrementAndGet())));
+		// Far more directory pages than the cache store holds
+		for (int i = 0; i < 1_000; i++) {
+			int page = i;
+			cache.get("electrician:directory:0|" + page, String.class, Duration.ofMinutes(1), () -> "page " + page);
+		}
+		ResponseEntity<?> retry = requests.execute("key-1", "USER:5", "booking", Map.of("slot", "10:00"),
+				() -> ResponseEntity.ok(Map.of("bookingId", bookings.incrementAndGet())));
+
+		assertEquals(1, bookings.get());
+		assertEquals("true", retry.getHeaders().getFirst("Idempotent-Replayed"));
+		assertEquals(first.getStatusCode(), retry.getStatusCode());
+	}
+}
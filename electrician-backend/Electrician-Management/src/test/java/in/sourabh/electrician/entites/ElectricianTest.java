@@ -0,0 +1,32 @@
+package in.sourabh.electrician.entites;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class ElectricianTest {
+
+	@Test
+	void experienceYearsComesFromTheFirstNumber() {
+		assertEquals(5, yearsFor("5 years"));
+		assertEquals(8, yearsFor("Over 08 yrs, 3 of them solar"));
+		assertNull(yearsFor("fresher"));
+		assertNull(yearsFor(null));
+	}
+
+	@Test
+	void longDigitRunsAreClampedInsteadOfOverflowing() {
+		assertEquals(99, yearsFor("99999999999 years"));
+		assertEquals(99, yearsFor("120 years"));
+		assertEquals(99, yearsFor("1".repeat(40)));
+		assertEquals(7, yearsFor("0000000000000007 years"));
+	}
+
+	private static Integer yearsFor(String experience) {
+		Electrician electrician = new Electrician();
+		electrician.setExperience(experience);
+		electrician.syncExperienceYears();
+		return electrician.getExperienceYears();
+	}
+}
@@ -0,0 +1,103 @@
+package in.sourabh.electrician.geo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+class GeoGridIndexTest {
+
+	private static final int ELECTRICIANS = 100_000;
+
+	@Test
+	void matchesBruteForceNearestNeighbours() {
+		Map<Long, double[]> points = randomPoints(20_000, new Random(7));
+		GeoGridIndex index = new GeoGridIndex(0.1);
+		index.replaceAll(points);
+
+		Random random = new Random(11);
+		for (int i = 0; i < 200; i++) {
+			double[] query = randomIndiaPoint(random);
+			double radiusKm = 1 + random.nextDouble() * 50;
+
+			List<Long> expected = points.entrySet().stream()
+					.filter(e -> distance(query, e.getValue()) <= radiusKm)
+					.sorted(Comparator.comparingDouble(e -> distance(query, e.getValue())))
+					.limit(10)
+					.map(Map.Entry::getKey)
+					.toList();
+			List<Long> actual = index.nearest(query[0], query[1], radiusKm, 10).stream()
+					.map(GeoGridIndex.Hit::id)
+					.toList();
+
+			assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	void putAndRemoveKeepIndexInStep() {
+		GeoGridIndex index = new GeoGridIndex(0.1);
+		index.put(1, 18.52, 73.85);
+		index.put(2, 18.53, 73.86);
+		// Moving an electrician replaces the old position
+		index.put(1, 19.07, 72.87);
+		index.remove(2);
+
+		assertEquals(1, index.size());
+		assertEquals(List.of(), index.nearest(18.52, 73.85, 20, 5));
+		assertEquals(1L, index.nearest(19.07, 72.88, 5, 5).get(0).id());
+	}
+
+	@Test
+	@Tag("benchmark")
+	void nearestAt100kElectriciansTakesMicroseconds() {
+		GeoGridIndex index = new GeoGridIndex(0.1);
+		index.replaceAll(randomPoints(ELECTRICIANS, new Random(3)));
+
+		Random random = new Random(5);
+		double[][] queries = new double[1_000][];
+		for (int i = 0; i < queries.length; i++) {
+			queries[i] = randomIndiaPoint(random);
+		}
+		for (int i = 0; i < 20_000; i++) {
+			double[] q = queries[i % queries.length];
+			index.nearest(q[0], q[1], 25, 20);
+		}
+
+		int iterations = 50_000;
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			double[] q = queries[i % queries.length];
+			index.nearest(q[0], q[1], 25, 20);
+		}
+		double micros = (System.nanoTime() - start) / 1_000.0 / iterations;
+
+		System.out.printf("Geo nearest (100k electricians, 25 km, k=20): %.1f us/op%n", micros);
+		// Generous bound so shared CI machines do not flake; typical is tens of microseconds
+		assertTrue(micros < 2_000, micros + " us/op");
+	}
+
+	private static Map<Long, double[]> randomPoints(int count, Random random) {
+		Map<Long, double[]> points = new HashMap<>();
+		for (long id = 1; id <= count; id++) {
+			points.put(id, randomIndiaPoint(random));
+		}
+		return points;
+	}
+
+	// Roughly the bounding box of India, where the platform operates
+	private static double[] randomIndiaPoint(Random random) {
+		return new double[] { 8 + random.nextDouble() * 24, 68 + random.nextDouble() * 29 };
+	}
+
+	private static double distance(double[] a, double[] b) {
+		return GeoGridIndex.distanceKm(a[0], a[1], b[0], b[1]);
+	}
+}
@@ -0,0 +1,50 @@
+package in.sourabh.electrician.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+	@Test
+	void opensOnceFailureRateReachesThreshold() {
+		CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, Duration.ofMinutes(1));
+
+		for (int i = 0; i < 3; i++) {
+			assertTrue(breaker.tryAcquire());
+			breaker.onFailure();
+		}
+		// Below minimum calls the breaker stays closed
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+		assertTrue(breaker.tryAcquire());
+		breaker.onSuccess();
+		assertTrue(breaker.tryAcquire());
+		breaker.onFailure();
+
+		assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+		assertFalse(breaker.tryAcquire());
+	}
+
+	@Test
+	void halfOpenAllowsSingleTrialThenCloses() throws InterruptedException {
+		CircuitBreaker breaker = new CircuitBreaker(2, 1, 0.5, Duration.ofMillis(20));
+		assertTrue(breaker.tryAcquire());
+		breaker.onFailure();
+		assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+		Thread.sleep(40);
+
+		assertTrue(breaker.tryAcquire());
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+		assertFalse(breaker.tryAcquire());
+
+		breaker.onSuccess();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+		assertTrue(breaker.tryAcquire());
+	}
+}
@@ -0,0 +1,106 @@
+package in.sourabh.electrician.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+class InvertedIndexTest {
+
+	private InvertedIndex<String> index;
+
+	@BeforeEach
+	void setUp() {
+		LinkedHashMap<String, Double> boosts = new LinkedHashMap<>();
+		boosts.put("name", 2.0);
+		boosts.put("location", 1.5);
+		boosts.put("degree", 1.2);
+		boosts.put("experience", 1.0);
+		index = new InvertedIndex<>(boosts);
+
+		put(1, "Ramesh Patil", "Indore", "ITI Electrician", "8 years solar inverter installation");
+		put(2, "Suresh Yadav", "Indore", "Diploma Electrical", "5 years house wiring");
+		put(3, "Anita Joshi", "Pune", "ITI Electrician", "10 years solar panel and inverter repair");
+		put(4, "Vikas Sharma", "Bhopal", "BE Electrical", "3 years industrial wiring");
+	}
+
+	@Test
+	void ranksDocumentsMatchingMoreTermsFirst() {
+		assertEquals(List.of(1L, 3L, 2L), ids("solar inverter installation near Indore "));
+	}
+
+	@Test
+	void toleratesTypos() {
+		assertEquals(1L, ids("solr invertr indor ").get(0));
+		// Transposed letters count as one edit
+		assertEquals(List.of(3L), ids("Anita Psune "));
+	}
+
+	@Test
+	void completesTheLastWordAsAPrefix() {
+		assertEquals(List.of(4L), ids("Bho"));
+		assertEquals(List.of("pune"), index.suggest("pu", 5));
+		assertEquals(List.of("house wiring"), index.suggest("house wir", 5));
+		assertEquals(List.of(), index.suggest("pu ", 5));
+	}
+
+	@Test
+	void updatesAndRemovalsAreVisibleImmediately() {
+		put(2, "Suresh Yadav", "Gwalior", "Diploma Electrical", "5 years house wiring");
+		index.remove(4);
+
+		assertEquals(List.of(1L), ids("indore "));
+		assertEquals(List.of(2L), ids("gwalior "));
+		assertEquals(List.of(), ids("bhopal "));
+		assertEquals(List.of(), index.suggest("bho", 5));
+	}
+
+	@Test
+	@Tag("benchmark")
+	void searchAt100kElectriciansTakesMilliseconds() {
+		String[] cities = { "Indore", "Bhopal", "Pune", "Nagpur", "Jaipur", "Lucknow", "Surat", "Nashik" };
+		String[] skills = { "solar", "inverter", "wiring", "installation", "repair", "industrial", "panel", "meter" };
+		String[] names = { "Ramesh", "Suresh", "Anita", "Vikas", "Pooja", "Imran", "Kavita", "Manoj" };
+		Random random = new Random(1);
+		for (int id = 10; id < 100_010; id++) {
+			index.put(id, Map.of(
+					"name", names[random.nextInt(names.length)] + " " + Integer.toString(id, 36),
+					"location", cities[random.nextInt(cities.length)],
+					"degree", random.nextBoolean() ? "ITI Electrician" : "Diploma Electrical",
+					"experience", random.nextInt(20) + " years " + skills[random.nextInt(skills.length)] + " "
+							+ skills[random.nextInt(skills.length)]),
+					"doc");
+		}
+
+		String[] queries = { "solar inverter installation near Indore ", "wirng Pune ", "industrial rep", "Kavita" };
+		for (int i = 0; i < 50; i++) {
+			index.search(queries[i % queries.length], 20);
+		}
+		int iterations = 200;
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			index.search(queries[i % queries.length], 20);
+		}
+		double millis = (System.nanoTime() - start) / 1_000_000.0 / iterations;
+
+		System.out.printf("Search (100k electricians): %.2f ms/query%n", millis);
+		// Generous bound so shared CI machines do not flake
+		assertTrue(millis < 500, millis + " ms/query");
+	}
+
+	private void put(long id, String name, String location, String degree, String experience) {
+		index.put(id, Map.of("name", name, "location", location, "degree", degree, "experience", experience),
+				name);
+	}
+
+	private List<Long> ids(String query) {
+		return index.search(query, 10).stream().map(InvertedIndex.Hit::id).toList();
+	}
+}
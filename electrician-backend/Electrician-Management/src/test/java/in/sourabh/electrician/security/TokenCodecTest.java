@@ -0,0 +1,86 @@
+package in.sourabh.electrician.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+class TokenCodecTest {
+
+	private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+	private static final long NOW = 1_800_000_000L;
+
+	private final TokenCodec codec = new TokenCodec(SECRET);
+
+	@Test
+	void roundTripsClaims() {
+		TokenCodec.Claims claims = new TokenCodec.Claims(TokenCodec.Kind.ACCESS, 42, AccountType.ELECTRICIAN,
+				"a|b.c@example.com", List.of("ROLE_ELECTRICIAN"), NOW + 900);
+
+		assertEquals(Optional.of(claims), codec.decode(codec.encode(claims), TokenCodec.Kind.ACCESS, NOW));
+	}
+
+	@Test
+	void rejectsTamperedExpiredAndWrongKindTokens() {
+		TokenCodec.Claims claims = new TokenCodec.Claims(TokenCodec.Kind.REFRESH, 7, AccountType.USER,
+				"user@example.com", List.of("ROLE_USER"), NOW + 60);
+		String token = codec.encode(claims);
+
+		// A refresh token is not an access token
+		assertEquals(Optional.empty(), codec.decode(token, TokenCodec.Kind.ACCESS, NOW));
+		assertEquals(Optional.empty(), codec.decode(token, TokenCodec.Kind.REFRESH, NOW + 60));
+
+		// Promoting yourself to ADMIN breaks the signature
+		String forged = new TokenCodec(SECRET).encode(new TokenCodec.Claims(TokenCodec.Kind.REFRESH, 7,
+				AccountType.USER, "user@example.com", List.of("ROLE_ADMIN"), NOW + 60));
+		String spliced = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+		assertEquals(Optional.empty(), codec.decode(spliced, TokenCodec.Kind.REFRESH, NOW));
+
+		byte[] otherSecret = "another-secret-another-secret-xx".getBytes(StandardCharsets.UTF_8);
+		assertEquals(Optional.empty(), new TokenCodec(otherSecret).decode(token, TokenCodec.Kind.REFRESH, NOW));
+		assertEquals(Optional.empty(), codec.decode("not-a-token", TokenCodec.Kind.REFRESH, NOW));
+		assertEquals(Optional.empty(), codec.decode("%%%.###", TokenCodec.Kind.REFRESH, NOW));
+		assertThrows(IllegalArgumentException.class, () -> new TokenCodec(new byte[16]));
+	}
+
+	@Test
+	@Tag("benchmark")
+	void tokenCheckIsOrdersOfMagnitudeCheaperThanBasicAuth() {
+		String token = codec.encode(new TokenCodec.Claims(TokenCodec.Kind.ACCESS, 42, AccountType.USER,
+				"user@example.com", List.of("ROLE_USER"), NOW + 900));
+		// The Basic flow runs this on every request (plus one or two account lookups)
+		BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
+		String hash = bcrypt.encode("secret-password");
+
+		for (int i = 0; i < 20_000; i++) {
+			codec.decode(token, TokenCodec.Kind.ACCESS, NOW);
+		}
+		bcrypt.matches("secret-password", hash);
+
+		int tokenIterations = 100_000;
+		long start = System.nanoTime();
+		for (int i = 0; i < tokenIterations; i++) {
+			assertTrue(codec.decode(token, TokenCodec.Kind.ACCESS, NOW).isPresent());
+		}
+		double tokenMicros = (System.nanoTime() - start) / 1_000.0 / tokenIterations;
+
+		int basicIterations = 20;
+		start = System.nanoTime();
+		for (int i = 0; i < basicIterations; i++) {
+			assertTrue(bcrypt.matches("secret-password", hash));
+		}
+		double basicMicros = (System.nanoTime() - start) / 1_000.0 / basicIterations;
+
+		System.out.printf("Auth check per request: token %.1f us (%.0f/s), Basic/BCrypt %.0f us (%.0f/s)%n",
+				tokenMicros, 1_000_000 / tokenMicros, basicMicros, 1_000_000 / basicMicros);
+		// Typical gap is ~10,000x; a loose bound keeps shared CI machines from flaking
+		assertTrue(tokenMicros * 100 < basicMicros, tokenMicros + " us vs " + basicMicros + " us");
+	}
+}
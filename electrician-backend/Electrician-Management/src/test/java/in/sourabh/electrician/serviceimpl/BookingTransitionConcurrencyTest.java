@@ -0,0 +1,209 @@
+package in.sourabh.electrician.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import in.sourabh.electrician.dto.BookingDTO;
+import in.sourabh.electrician.entites.Booking;
+import in.sourabh.electrician.entites.BookingStatus;
+import in.sourabh.electrician.entites.Electrician;
+import in.sourabh.electrician.entites.User;
+import in.sourabh.electrician.exception.BookingStateConflictException;
+import in.sourabh.electrician.repository.BookingRepository;
+import in.sourabh.electrician.service.AvailabilityService;
+
+/**
+ * Hammers accept/reject/complete/cancel on the same bookings from many threads. The
+ * repository fake applies each conditional UPDATE atomically, as the database does, and
+ * records every status change so the state machine can be checked afterwards.
+ */
+class BookingTransitionConcurrencyTest {
+
+	private static final int BOOKINGS = 300;
+	private static final int CALLS_PER_BOOKING = 12;
+
+	private final Map<Long, BookingStatus> statuses = new ConcurrentHashMap<>();
+	private final Map<Long, List<BookingStatus[]>> history = new ConcurrentHashMap<>();
+
+	private final Electrician electrician = new Electrician();
+	private final User user = new User();
+
+	private BookingServiceImpl bookingService;
+	private AvailabilityService availabilityService;
+
+	@BeforeEach
+	void setUp() {
+		electrician.setId(7L);
+		user.setId(11L);
+
+		BookingRepository bookingRepository = mock(BookingRepository.class);
+		availabilityService = mock(AvailabilityService.class);
+
+		when(bookingRepository.transitionForElectrician(anyLong(), anyLong(), any(), any(), any()))
+				.thenAnswer(this::compareAndSet);
+		when(bookingRepository.transitionForUser(anyLong(), anyLong(), any(), any(), any()))
+				.thenAnswer(this::compareAndSet);
+		when(bookingRepository.findById(anyLong())).thenAnswer(invocation -> {
+			Long id = invocation.getArgument(0);
+			return Optional.ofNullable(statuses.get(id)).map(status -> booking(id, status));
+		});
+
+		bookingService = new BookingServiceImpl();
+		ReflectionTestUtils.setField(bookingService, "bookingRepository", bookingRepository);
+		ReflectionTestUtils.setField(bookingService, "availabilityService", availabilityService);
+
+		for (long id = 1; id <= BOOKINGS; id++) {
+			statuses.put(id, BookingStatus.PENDING);
+			history.put(id, new CopyOnWriteArrayList<>());
+		}
+	}
+
+	@Test
+	void concurrentTransitionsKeepTheStateMachineValid() throws Exception {
+		BookingStatus[] targets = { BookingStatus.ACCEPTED, BookingStatus.REJECTED, BookingStatus.COMPLETED,
+				BookingStatus.CANCELLED };
+		List<String> unexpected = new CopyOnWriteArrayList<>();
+		AtomicInteger conflicts = new AtomicInteger();
+
+		ExecutorService pool = Executors.newFixedThreadPool(32);
+		CountDownLatch start = new CountDownLatch(1);
+		Random random = new Random(42);
+		List<Runnable> calls = new ArrayList<>();
+		for (long id = 1; id <= BOOKINGS; id++) {
+			for (int i = 0; i < CALLS_PER_BOOKING; i++) {
+				long bookingId = id;
+				BookingStatus target = targets[random.nextInt(targets.length)];
+				calls.add(() -> {
+					try {
+						BookingDTO result = apply(bookingId, target);
+						BookingStatus returned = BookingStatus.valueOf(result.getStatus());
+						if (returned != target && !reachable(target, returned)) {
+							unexpected.add(bookingId + ": " + target + " returned " + returned);
+						}
+					} catch (BookingStateConflictException e) {
+						conflicts.incrementAndGet();
+					} catch (RuntimeException e) {
+						unexpected.add(bookingId + ": " + e);
+					}
+				});
+			}
+		}
+		for (Runnable call : calls) {
+			pool.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				call.run();
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+		assertEquals(List.of(), unexpected);
+		assertTrue(conflicts.get() > 0, "expected some lost races");
+
+		int released = 0;
+		for (long id = 1; id <= BOOKINGS; id++) {
+			BookingStatus current = BookingStatus.PENDING;
+			List<BookingStatus> path = new ArrayList<>();
+			for (BookingStatus[] step : history.get(id)) {
+				// Each change starts from the state the previous one left, through an allowed edge
+				assertEquals(current, step[0], "booking " + id);
+				assertTrue(step[1].sources().contains(step[0]), "booking " + id + ": " + step[0] + " -> " + step[1]);
+				current = step[1];
+				path.add(current);
+			}
+			assertEquals(current, statuses.get(id));
+			assertFalse(path.contains(BookingStatus.ACCEPTED) && path.contains(BookingStatus.CANCELLED),
+					"booking " + id + " was both accepted and cancelled");
+			if (current != BookingStatus.PENDING && current != BookingStatus.ACCEPTED) {
+				released++;
+			}
+		}
+		// Exactly one slot release per booking that reached a final state
+		verify(availabilityService, times(released)).releaseSlot(any());
+	}
+
+	@Test
+	void repeatingACompletedTransitionIsANoOp() {
+		bookingService.acceptBooking(1L, electrician.getId());
+		BookingDTO again = bookingService.acceptBooking(1L, electrician.getId());
+
+		assertEquals("ACCEPTED", again.getStatus());
+		assertEquals(1, history.get(1L).size());
+	}
+
+	private BookingDTO apply(long bookingId, BookingStatus target) {
+		return switch (target) {
+			case ACCEPTED -> bookingService.acceptBooking(bookingId, electrician.getId());
+			case REJECTED -> bookingService.rejectBooking(bookingId, electrician.getId());
+			case COMPLETED -> bookingService.completeBooking(bookingId, electrician.getId());
+			case CANCELLED -> bookingService.cancelBooking(bookingId, user.getId());
+			default -> throw new IllegalArgumentException(target.name());
+		};
+	}
+
+	// What the conditional UPDATE does in one statement
+	private int compareAndSet(InvocationOnMock invocation) {
+		Long id = invocation.getArgument(0);
+		Collection<BookingStatus> sources = invocation.getArgument(2);
+		BookingStatus target = invocation.getArgument(3);
+		int[] updated = { 0 };
+		statuses.computeIfPresent(id, (key, current) -> {
+			if (!sources.contains(current)) {
+				return current;
+			}
+			history.get(id).add(new BookingStatus[] { current, target });
+			updated[0] = 1;
+			return target;
+		});
+		return updated[0];
+	}
+
+	private static boolean reachable(BookingStatus from, BookingStatus to) {
+		for (BookingStatus next : BookingStatus.values()) {
+			if (next.sources().contains(from) && (next == to || reachable(next, to))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Booking booking(Long id, BookingStatus status) {
+		Booking booking = new Booking();
+		booking.setId(id);
+		booking.setUser(user);
+		booking.setElectrician(electrician);
+		booking.setStatus(status);
+		return booking;
+	}
+}
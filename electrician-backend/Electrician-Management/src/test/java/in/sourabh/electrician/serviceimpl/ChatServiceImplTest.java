@@ -0,0 +1,146 @@
+package in.sourabh.electrician.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import in.sourabh.electrician.dto.ChatParticipant;
+import in.sourabh.electrician.entites.ChatRoom;
+import in.sourabh.electrician.entites.ChatRoomParticipant;
+import in.sourabh.electrician.entites.Message;
+import in.sourabh.electrician.repository.ChatRoomParticipantRepository;
+import in.sourabh.electrician.repository.ChatRoomRepository;
+import in.sourabh.electrician.repository.MessageRepository;
+import in.sourabh.electrician.security.AccountType;
+
+/**
+ * User and electrician ids come from separate tables and overlap. The repository fakes
+ * enforce the same unique keys as the schema, so a room key or participant row that
+ * ignored the account type would fail here the way it fails against MySQL.
+ */
+class ChatServiceImplTest {
+
+	private final Map<String, ChatRoom> roomsByKey = new HashMap<>();
+	private final List<ChatRoomParticipant> participants = new ArrayList<>();
+
+	private ChatServiceImpl chatService;
+
+	@BeforeEach
+	void setUp() {
+		ChatRoomRepository chatRoomRepository = mock(ChatRoomRepository.class);
+		when(chatRoomRepository.findByRoomKey(anyString()))
+				.thenAnswer(invocation -> Optional.ofNullable(roomsByKey.get(invocation.getArgument(0))));
+		when(chatRoomRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+			ChatRoom room = invocation.getArgument(0);
+			if (roomsByKey.putIfAbsent(room.getRoomKey(), room) != null) {
+				throw new DataIntegrityViolationException("uk_chat_rooms_room_key");
+			}
+			room.setId((long) roomsByKey.size());
+			return room;
+		});
+
+		ChatRoomParticipantRepository participantRepository = mock(ChatRoomParticipantRepository.class);
+		when(participantRepository.save(any())).thenAnswer(invocation -> {
+			ChatRoomParticipant participant = invocation.getArgument(0);
+			for (ChatRoomParticipant existing : participants) {
+				if (existing.getChatRoom() == participant.getChatRoom()
+						&& existing.getParticipantType() == participant.getParticipantType()
+						&& existing.getUserId().equals(participant.getUserId())) {
+					throw new DataIntegrityViolationException("uk_chat_room_participant_type");
+				}
+			}
+			participants.add(participant);
+			return participant;
+		});
+		when(participantRepository.findChatRoomsByParticipant(any(), any())).thenAnswer(invocation -> participants
+				.stream()
+				.filter(p -> p.getParticipantType() == invocation.getArgument(0)
+						&& p.getUserId().equals(invocation.getArgument(1)))
+				.map(ChatRoomParticipant::getChatRoom)
+				.collect(Collectors.toList()));
+
+		MessageRepository messageRepository = mock(MessageRepository.class);
+		when(messageRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+		when(transactionTemplate.execute(any()))
+				.thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+
+		ChatRoomPreviewWriter previewWriter = mock(ChatRoomPreviewWriter.class);
+		when(previewWriter.overlay(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		chatService = new ChatServiceImpl();
+		ReflectionTestUtils.setField(chatService, "chatRoomRepository", chatRoomRepository);
+		ReflectionTestUtils.setField(chatService, "participantRepository", participantRepository);
+		ReflectionTestUtils.setField(chatService, "messageRepository", messageRepository);
+		ReflectionTestUtils.setField(chatService, "transactionTemplate", transactionTemplate);
+		ReflectionTestUtils.setField(chatService, "previewWriter", previewWriter);
+		ReflectionTestUtils.setField(chatService, "roomCacheSize", 100);
+		chatService.initRoomCache();
+	}
+
+	@Test
+	void userAndElectricianWithTheSameIdCanChat() {
+		Message saved = chatService.saveMessage(message(AccountType.USER, 5L, AccountType.ELECTRICIAN, 5L));
+
+		ChatRoom room = roomsByKey.get("USER:5_ELECTRICIAN:5");
+		assertEquals(room.getId(), saved.getChatRoom().getId());
+		assertEquals(Set.of(AccountType.USER, AccountType.ELECTRICIAN), participants.stream()
+				.map(ChatRoomParticipant::getParticipantType)
+				.collect(Collectors.toSet()));
+
+		// The reply from the other side lands in the same room
+		Message reply = chatService.saveMessage(message(AccountType.ELECTRICIAN, 5L, AccountType.USER, 5L));
+		assertEquals(room.getId(), reply.getChatRoom().getId());
+		assertEquals(1, roomsByKey.size());
+	}
+
+	@Test
+	void equalIdsOfDifferentTypesKeepTheirRoomsApart() {
+		Long userAndElectrician9 = chatService.saveMessage(
+				message(AccountType.USER, 5L, AccountType.ELECTRICIAN, 9L)).getChatRoom().getId();
+		Long electricianAndUser9 = chatService.saveMessage(
+				message(AccountType.ELECTRICIAN, 5L, AccountType.USER, 9L)).getChatRoom().getId();
+
+		assertNotEquals(userAndElectrician9, electricianAndUser9);
+		assertEquals(List.of(userAndElectrician9), roomIds(chatService.getUserChatRooms(AccountType.USER, 5L)));
+		assertEquals(List.of(electricianAndUser9),
+				roomIds(chatService.getUserChatRooms(AccountType.ELECTRICIAN, 5L)));
+		assertNotEquals(chatService.createChatRoomId(new ChatParticipant(AccountType.USER, 5L),
+				new ChatParticipant(AccountType.ELECTRICIAN, 9L)),
+				chatService.createChatRoomId(new ChatParticipant(AccountType.USER, 9L),
+						new ChatParticipant(AccountType.ELECTRICIAN, 5L)));
+	}
+
+	private static Message message(AccountType senderType, Long senderId, AccountType receiverType, Long receiverId) {
+		Message message = new Message();
+		message.setSenderType(senderType);
+		message.setSenderId(senderId);
+		message.setReceiverType(receiverType);
+		message.setReceiverId(receiverId);
+		message.setContent("hello");
+		return message;
+	}
+
+	private static List<Long> roomIds(List<ChatRoom> rooms) {
+		return rooms.stream().map(ChatRoom::getId).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,82 @@
+package in.sourabh.electrician.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import in.sourabh.electrician.cache.LocalKeyValueStore;
+import in.sourabh.electrician.cache.ReadThroughCache;
+import in.sourabh.electrician.dto.ElectricianDto;
+import in.sourabh.electrician.entites.Electrician;
+import in.sourabh.electrician.repository.ElectricianRepository;
+
+class ElectricianServiceImplTest {
+
+	private static final String HASH = "$2a$10$abcdefghijklmnopqrstuvwxyz0123456789ABCDEFGHIJKLMNOPQ";
+
+	@Test
+	void cachedProfileAndResponseCarryNoPasswordHash() throws Exception {
+		Electrician electrician = new Electrician();
+		electrician.setId(7L);
+		electrician.setName("Asha Patil");
+		electrician.setEmail("asha@example.com");
+		electrician.setPassword(HASH);
+		ElectricianRepository repository = mock(ElectricianRepository.class);
+		when(repository.findById(7L)).thenReturn(Optional.of(electrician));
+
+		LocalKeyValueStore store = new LocalKeyValueStore(100);
+		ObjectMapper objectMapper = new ObjectMapper();
+		ElectricianServiceImpl service = service(repository, store);
+
+		ElectricianDto profile = service.getElectrician(7L);
+
+		assertEquals("Asha Patil", profile.getName());
+		assertNull(profile.getPassword());
+		assertFalse(store.get("electrician:profile:7:0").contains(HASH));
+		// Even a DTO that still holds a password never writes it out
+		profile.setPassword(HASH);
+		assertFalse(objectMapper.writeValueAsString(profile).contains("password"));
+	}
+
+	@Test
+	void loadRacingAnUpdateCannotCacheTheOldProfile() {
+		Electrician before = new Electrician();
+		before.setId(7L);
+		before.setName("Asha Patil");
+		Electrician after = new Electrician();
+		after.setId(7L);
+		after.setName("Asha Kulkarni");
+
+		ElectricianRepository repository = mock(ElectricianRepository.class);
+		ElectricianServiceImpl service = service(repository, new LocalKeyValueStore(100));
+		// The update commits and evicts while the first load is still holding the old row
+		when(repository.findById(7L)).thenAnswer(invocation -> {
+			ReflectionTestUtils.invokeMethod(service, "evictElectrician", 7L);
+			return Optional.of(before);
+		}).thenReturn(Optional.of(after));
+
+		assertEquals("Asha Patil", service.getElectrician(7L).getName());
+		assertEquals("Asha Kulkarni", service.getElectrician(7L).getName());
+		assertEquals("Asha Kulkarni", service.getElectrician(7L).getName());
+	}
+
+	private static ElectricianServiceImpl service(ElectricianRepository repository, LocalKeyValueStore store) {
+		ElectricianServiceImpl service = new ElectricianServiceImpl(repository, mock(PasswordEncoder.class),
+				mock(ImageUploadPipeline.class), new ReadThroughCache(store, new ObjectMapper()),
+				mock(ElectricianGeoIndex.class), mock(ElectricianSearchIndex.class), mock(AccountDirectory.class),
+				mock(TransactionTemplate.class));
+		ReflectionTestUtils.setField(service, "profileTtlSeconds", 60L);
+		return service;
+	}
+}
@@ -0,0 +1,87 @@
+package in.sourabh.electrician.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class FaqIntentRouterTest {
+
+	private FaqIntentRouter router;
+
+	@BeforeEach
+	void setUp() {
+		router = new FaqIntentRouter();
+		ReflectionTestUtils.setField(router, "routeThreshold", 0.6);
+		ReflectionTestUtils.setField(router, "fallbackThreshold", 0.25);
+		router.load();
+	}
+
+	@Test
+	void deflectsMostPlatformQuestionsWithoutMisrouting() throws IOException {
+		int inDomain = 0;
+		int deflected = 0;
+		List<String> misrouted = new ArrayList<>();
+
+		for (String[] sample : evalCorpus()) {
+			String expected = sample[0];
+			Optional<FaqIntentRouter.Match> match = router.route(sample[1]);
+			if (!expected.equals("none")) {
+				inDomain++;
+			}
+			if (match.isPresent()) {
+				if (match.get().intent().equals(expected)) {
+					deflected++;
+				} else {
+					misrouted.add(sample[1] + " -> " + match.get().intent());
+				}
+			}
+		}
+
+		double deflectionRate = (double) deflected / inDomain;
+		assertTrue(deflectionRate >= 0.8, "deflection rate " + deflectionRate);
+		assertEquals(List.of(), misrouted);
+	}
+
+	@Test
+	@Tag("benchmark")
+	void classifiesInMicroseconds() {
+		String[] prompts = { "how do i cancel my booking", "electrician sign up process", "tell me a joke" };
+		for (int i = 0; i < 20_000; i++) {
+			router.classify(prompts[i % prompts.length]);
+		}
+
+		int iterations = 100_000;
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			router.classify(prompts[i % prompts.length]);
+		}
+		double micros = (System.nanoTime() - start) / 1_000.0 / iterations;
+
+		System.out.printf("FAQ classification: %.1f us/op%n", micros);
+		// Generous bound so shared CI machines do not flake; typical is tens of microseconds
+		assertTrue(micros < 1_000, micros + " us/op");
+	}
+
+	private static List<String[]> evalCorpus() throws IOException {
+		List<String[]> samples = new ArrayList<>();
+		try (InputStream in = FaqIntentRouterTest.class.getResourceAsStream("/ai/faq-eval.tsv")) {
+			for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+				if (!line.isBlank() && !line.startsWith("#")) {
+					samples.add(line.split("\t", 2));
+				}
+			}
+		}
+		return samples;
+	}
+}
@@ -0,0 +1,162 @@
+package in.sourabh.electrician.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import in.sourabh.electrician.exception.AiUnavailableException;
+import in.sourabh.electrician.metrics.LatencySnapshot;
+
+class GeminiClientTest {
+
+	private static final String REPLY = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"hi\"}]}}]}";
+
+	private HttpServer server;
+
+	@AfterEach
+	void stopServer() {
+		if (server != null) {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	void returnsParsedBodyAndRecordsLatency() throws IOException {
+		String url = startStub(0, null);
+		GeminiClient client = new GeminiClient(url, "test", Duration.ofSeconds(1), Duration.ofSeconds(2), 4,
+				Duration.ofMillis(100));
+
+		Map<?, ?> body = client.generateContent(Map.of("contents", "x"));
+
+		assertEquals(1, ((List<?>) body.get("candidates")).size());
+		assertEquals(1L, ((LatencySnapshot) client.stats().get("upstreamLatency")).count());
+	}
+
+	@Test
+	void readTimeoutBoundsSlowUpstream() throws IOException {
+		String url = startStub(2_000, null);
+		GeminiClient client = new GeminiClient(url, "test", Duration.ofSeconds(1), Duration.ofMillis(200), 4,
+				Duration.ofMillis(100));
+
+		ResourceAccessException timeout = assertThrows(ResourceAccessException.class,
+				() -> client.generateContent(Map.of("contents", "x")));
+		assertTrue(timeout.getCause() instanceof HttpTimeoutException, String.valueOf(timeout.getCause()));
+	}
+
+	@Test
+	void bulkheadRejectsWhenSaturated() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		String url = startStub(0, release);
+		GeminiClient client = new GeminiClient(url, "test", Duration.ofSeconds(1), Duration.ofSeconds(5), 1,
+				Duration.ofMillis(50));
+
+		Thread inFlight = new Thread(() -> client.generateContent(Map.of("contents", "x")));
+		inFlight.start();
+		waitUntilInFlight(client);
+
+		assertThrows(AiUnavailableException.class, () -> client.generateContent(Map.of("contents", "y")));
+		assertEquals(1L, client.stats().get("rejected"));
+
+		release.countDown();
+		inFlight.join(2_000);
+	}
+
+	@Test
+	void streamsChunksBeforeUpstreamFinishes() throws Exception {
+		CountDownLatch firstChunkSeen = new CountDownLatch(1);
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.createContext("/models/test:streamGenerateContent", exchange -> {
+			exchange.getRequestBody().readAllBytes();
+			exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+			exchange.sendResponseHeaders(200, 0);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(sseEvent("Hello"));
+				out.flush();
+				// Hold the stream open until the client has seen the first chunk
+				firstChunkSeen.await(5, TimeUnit.SECONDS);
+				out.write(sseEvent(" world"));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		server.start();
+		String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/models/test:generateContent";
+		GeminiClient client = new GeminiClient(url, "test", Duration.ofSeconds(1), Duration.ofSeconds(2), 4,
+				Duration.ofMillis(100));
+
+		List<String> chunks = new CopyOnWriteArrayList<>();
+		CompletableFuture<Void> done = client.streamGenerateContent(Map.of("contents", "x"), chunk -> {
+			chunks.add(chunk);
+			firstChunkSeen.countDown();
+		});
+
+		assertTrue(firstChunkSeen.await(2, TimeUnit.SECONDS));
+		done.get(5, TimeUnit.SECONDS);
+		assertEquals(List.of("Hello", " world"), chunks);
+		assertFalse(done.isCompletedExceptionally());
+		assertEquals(0, client.stats().get("inFlight"));
+	}
+
+	private static byte[] sseEvent(String text) {
+		String json = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + text + "\"}]}}]}";
+		return ("data: " + json + "\n\n").getBytes(StandardCharsets.UTF_8);
+	}
+
+	private void waitUntilInFlight(GeminiClient client) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+		while ((int) client.stats().get("inFlight") == 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	private String startStub(long delayMillis, CountDownLatch release) throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.createContext("/generate", exchange -> respond(exchange, delayMillis, release));
+		server.start();
+		return "http://127.0.0.1:" + server.getAddress().getPort() + "/generate";
+	}
+
+	private void respond(HttpExchange exchange, long delayMillis, CountDownLatch release) throws IOException {
+		try {
+			exchange.getRequestBody().readAllBytes();
+			if (delayMillis > 0) {
+				Thread.sleep(delayMillis);
+			}
+			if (release != null) {
+				release.await(5, TimeUnit.SECONDS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		byte[] bytes = REPLY.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package in.sourabh.electrician.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sun.net.httpserver.HttpServer;
+
+import in.sourabh.electrician.cache.AiResponseCache;
+import in.sourabh.electrician.cache.AiSessionStore;
+
+class GeminiServiceImplTest {
+
+	// Close enough to the register_user examples for a fallback, never routed directly
+	private static final String PROMPT = "How do I sign up?";
+
+	private HttpServer server;
+	private FaqIntentRouter router;
+	private AiResponseCache responseCache;
+
+	@BeforeEach
+	void setUp() {
+		router = new FaqIntentRouter();
+		ReflectionTestUtils.setField(router, "routeThreshold", 1.1);
+		ReflectionTestUtils.setField(router, "fallbackThreshold", 0.25);
+		router.load();
+
+		responseCache = mock(AiResponseCache.class);
+		when(responseCache.get(anyString(), any()))
+				.thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+	}
+
+	@AfterEach
+	void stopServer() {
+		if (server != null) {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	void timeoutIsRetriedCountedAndAnsweredFromTheFaq() throws IOException {
+		GeminiClient client = new GeminiClient(startSlowStub(), "test", Duration.ofSeconds(1), Duration.ofMillis(100),
+				4, Duration.ofMillis(100), new GeminiClient.Resilience(2, Duration.ofMillis(10), Duration.ZERO, 0, 1,
+						20, 10, 0.5, Duration.ofSeconds(30)));
+		GeminiServiceImpl service = new GeminiServiceImpl(client, responseCache, mock(AiSessionStore.class), router);
+
+		String answer = service.getAiResponse(null, PROMPT);
+
+		assertEquals(router.fallback(PROMPT).orElseThrow(), answer);
+		assertEquals(1L, client.stats().get("retries"));
+		Map<?, ?> breaker = (Map<?, ?>) client.stats().get("circuitBreaker");
+		assertEquals(2, breaker.get("windowCalls"));
+		assertEquals(1.0, breaker.get("windowFailureRate"));
+	}
+
+	@Test
+	void unexpectedErrorIsAnsweredFromTheFaq() {
+		GeminiClient client = mock(GeminiClient.class);
+		when(client.generateContent(any())).thenThrow(new IllegalStateException());
+		GeminiServiceImpl service = new GeminiServiceImpl(client, responseCache, mock(AiSessionStore.class), router);
+
+		assertEquals(router.fallback(PROMPT).orElseThrow(), service.getAiResponse(null, PROMPT));
+	}
+
+	private String startSlowStub() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.createContext("/generate", exchange -> {
+			exchange.getRequestBody().readAllBytes();
+			try {
+				Thread.sleep(1_000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			byte[] bytes = "{}".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, bytes.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(bytes);
+			} catch (IOException e) {
+				// The client gave up long ago
+			}
+		});
+		server.start();
+		return "http://127.0.0.1:" + server.getAddress().getPort() + "/generate";
+	}
+}
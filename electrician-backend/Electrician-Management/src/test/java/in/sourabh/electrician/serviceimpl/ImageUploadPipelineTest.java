@@ -0,0 +1,309 @@
+package in.sourabh.electrician.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import in.sourabh.electrician.entites.ImageUpload;
+import in.sourabh.electrician.entites.ImageUploadStatus;
+import in.sourabh.electrician.repository.ElectricianRepository;
+import in.sourabh.electrician.repository.ImageUploadRepository;
+import in.sourabh.electrician.repository.UserRepository;
+import in.sourabh.electrician.security.AccountType;
+import in.sourabh.electrician.storage.BlobStore;
+import in.sourabh.electrician.storage.ImageResizer;
+
+/**
+ * Runs the upload pipeline against a local-folder storage fake and an in-memory job
+ * table whose conditional updates behave like the real ones.
+ */
+class ImageUploadPipelineTest {
+
+	@TempDir
+	Path tempDir;
+
+	private final Map<Long, ImageUpload> jobs = new ConcurrentHashMap<>();
+	private final AtomicLong ids = new AtomicLong();
+
+	private LocalFolderStorage storage;
+	private UserRepository userRepository;
+	private ApplicationEventPublisher eventPublisher;
+	private ImageUploadPipeline pipeline;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		storage = new LocalFolderStorage(tempDir.resolve("remote"));
+		userRepository = mock(UserRepository.class);
+		eventPublisher = mock(ApplicationEventPublisher.class);
+
+		ImageUploadRepository repository = mock(ImageUploadRepository.class);
+		when(repository.save(any())).thenAnswer(invocation -> {
+			ImageUpload job = copy(invocation.getArgument(0));
+			job.setId(ids.incrementAndGet());
+			jobs.put(job.getId(), job);
+			return copy(job);
+		});
+		when(repository.findById(anyLong()))
+				.thenAnswer(invocation -> Optional.ofNullable(jobs.get(invocation.getArgument(0))).map(this::copy));
+		when(repository.claim(anyLong(), any())).thenAnswer(invocation -> update(invocation.getArgument(0), job -> {
+			if (job.getStatus() != ImageUploadStatus.PENDING) {
+				return false;
+			}
+			job.setStatus(ImageUploadStatus.UPLOADING);
+			job.setAttempts(job.getAttempts() + 1);
+			return true;
+		}));
+		when(repository.transition(anyLong(), any(), any(), any(), any()))
+				.thenAnswer(invocation -> update(invocation.getArgument(0), job -> {
+					if (job.getStatus() != invocation.getArgument(1)) {
+						return false;
+					}
+					job.setStatus(invocation.getArgument(2));
+					job.setLastError(invocation.getArgument(3));
+					return true;
+				}));
+		when(repository.complete(anyLong(), anyString(), anyString(), anyString(), any()))
+				.thenAnswer(invocation -> update(invocation.getArgument(0), job -> {
+					if (job.getStatus() != ImageUploadStatus.UPLOADING) {
+						return false;
+					}
+					job.setStatus(ImageUploadStatus.DONE);
+					job.setImageUrl(invocation.getArgument(1));
+					job.setMediumUrl(invocation.getArgument(2));
+					job.setThumbnailUrl(invocation.getArgument(3));
+					return true;
+				}));
+		when(repository.supersede(any(), anyLong(), any())).thenAnswer(invocation -> {
+			int superseded = 0;
+			for (ImageUpload job : jobs.values()) {
+				superseded += update(job.getId(), j -> {
+					if (j.getOwnerType() != invocation.getArgument(0) || !j.getOwnerId().equals(invocation.getArgument(1))
+							|| (j.getStatus() != ImageUploadStatus.PENDING && j.getStatus() != ImageUploadStatus.UPLOADING)) {
+						return false;
+					}
+					j.setStatus(ImageUploadStatus.SUPERSEDED);
+					return true;
+				});
+			}
+			return superseded;
+		});
+
+		TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+		when(transactionTemplate.execute(any()))
+				.thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+
+		pipeline = new ImageUploadPipeline(repository, storage, userRepository, mock(ElectricianRepository.class),
+				transactionTemplate, eventPublisher);
+		ReflectionTestUtils.setField(pipeline, "spoolDir", tempDir.resolve("spool").toString());
+		ReflectionTestUtils.setField(pipeline, "workers", 2);
+		ReflectionTestUtils.setField(pipeline, "maxAttempts", 3);
+		ReflectionTestUtils.setField(pipeline, "retryBaseDelayMs", 10L);
+		ReflectionTestUtils.setField(pipeline, "processingConcurrency", 1);
+		ReflectionTestUtils.setField(pipeline, "maxSourcePixels", 50_000_000L);
+		ReflectionTestUtils.setField(pipeline, "jpegQuality", 0.8f);
+		pipeline.init();
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		pipeline.shutdown();
+	}
+
+	@Test
+	void retriesUntilStoredThenPatchesTheOwner() throws Exception {
+		storage.failuresLeft.set(2);
+
+		Path spooled = pipeline.spool(new MockMultipartFile("image", "me.png", "image/png", png(2000, 1500)));
+		Long uploadId = pipeline.submit(AccountType.USER, 5L, "users/profile", spooled);
+		ImageUpload job = awaitStatus(uploadId, ImageUploadStatus.DONE);
+
+		assertEquals(3, job.getAttempts());
+		assertEquals(ImageResizer.Variant.LARGE.maxEdge(), ImageIO.read(Path.of(job.getImageUrl()).toFile()).getWidth());
+		assertEquals(ImageResizer.Variant.MEDIUM.maxEdge(),
+				ImageIO.read(Path.of(job.getMediumUrl()).toFile()).getWidth());
+		assertEquals(ImageResizer.Variant.THUMBNAIL.maxEdge(),
+				ImageIO.read(Path.of(job.getThumbnailUrl()).toFile()).getWidth());
+		assertFalse(Files.exists(spooled));
+		// Variants are temporary too
+		awaitSpoolEmpty();
+		verify(userRepository).updateImages(5L, job.getImageUrl(), job.getMediumUrl(), job.getThumbnailUrl());
+		verify(eventPublisher).publishEvent(new ImageUploadPipeline.ProfileImageUpdated(AccountType.USER, 5L,
+				job.getImageUrl()));
+	}
+
+	@Test
+	void newerImageSupersedesASlowerOlderUpload() throws Exception {
+		storage.gate = new CountDownLatch(1);
+		Path first = pipeline.spool(new MockMultipartFile("image", "a.png", "image/png", png(400, 300)));
+		Long firstId = pipeline.submit(AccountType.USER, 5L, "users/profile", first);
+		assertTrue(storage.entered.await(5, TimeUnit.SECONDS));
+
+		// The first upload is stuck in storage when the user picks another picture
+		Path second = pipeline.spool(new MockMultipartFile("image", "b.png", "image/png", png(300, 400)));
+		Long secondId = pipeline.submit(AccountType.USER, 5L, "users/profile", second);
+		storage.gate.countDown();
+
+		ImageUpload done = awaitStatus(secondId, ImageUploadStatus.DONE);
+		awaitSpoolDeleted(first);
+
+		assertEquals(ImageUploadStatus.SUPERSEDED, jobs.get(firstId).getStatus());
+		assertNull(jobs.get(firstId).getImageUrl());
+		verify(userRepository).updateImages(5L, done.getImageUrl(), done.getMediumUrl(), done.getThumbnailUrl());
+		// The only owner update is the newer image's
+		verify(userRepository).updateImages(anyLong(), anyString(), anyString(), anyString());
+	}
+
+	@Test
+	void givesUpAfterMaxAttempts() throws Exception {
+		storage.failuresLeft.set(Integer.MAX_VALUE);
+
+		Path spooled = pipeline.spool(new MockMultipartFile("image", "me.png", "image/png", png(64, 64)));
+		ImageUpload job = awaitStatus(pipeline.submit(AccountType.USER, 5L, "users/profile", spooled),
+				ImageUploadStatus.FAILED);
+
+		assertEquals(3, job.getAttempts());
+		assertTrue(job.getLastError().contains("storage unavailable"), job.getLastError());
+		assertFalse(Files.exists(spooled));
+		verify(userRepository, never()).updateImages(anyLong(), anyString(), anyString(), anyString());
+	}
+
+	@Test
+	void fileThatIsNotAnImageFailsWithoutRetrying() throws Exception {
+		Path spooled = pipeline.spool(new MockMultipartFile("image", "cv.png", "image/png", new byte[] { 1, 2, 3 }));
+		ImageUpload job = awaitStatus(pipeline.submit(AccountType.USER, 5L, "users/profile", spooled),
+				ImageUploadStatus.FAILED);
+
+		assertEquals(1, job.getAttempts());
+		assertTrue(job.getLastError().startsWith("UnsupportedImageException"), job.getLastError());
+		assertFalse(Files.exists(spooled));
+		// Never reached the image host
+		assertEquals(1L, storage.entered.getCount());
+	}
+
+	private ImageUpload awaitStatus(Long uploadId, ImageUploadStatus status) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (System.nanoTime() < deadline) {
+			ImageUpload job = copy(jobs.get(uploadId));
+			if (job.getStatus() == status) {
+				return job;
+			}
+			Thread.sleep(5);
+		}
+		throw new AssertionError("Upload " + uploadId + " is " + jobs.get(uploadId).getStatus() + ", not " + status);
+	}
+
+	private static void awaitSpoolDeleted(Path spooled) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (Files.exists(spooled) && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertFalse(Files.exists(spooled));
+	}
+
+	private void awaitSpoolEmpty() throws InterruptedException, IOException {
+		Path spoolDir = tempDir.resolve("spool");
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (hasFiles(spoolDir) && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertFalse(hasFiles(spoolDir));
+	}
+
+	private static boolean hasFiles(Path dir) throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.findAny().isPresent();
+		}
+	}
+
+	private static byte[] png(int width, int height) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+		return out.toByteArray();
+	}
+
+	private int update(Long id, Predicate<ImageUpload> change) {
+		ImageUpload job = jobs.get(id);
+		synchronized (job) {
+			return change.test(job) ? 1 : 0;
+		}
+	}
+
+	private ImageUpload copy(ImageUpload job) {
+		synchronized (job) {
+			return new ImageUpload(job.getId(), job.getOwnerType(), job.getOwnerId(), job.getFolder(),
+					job.getSpoolPath(), job.getStatus(), job.getAttempts(), job.getImageUrl(), job.getMediumUrl(),
+					job.getThumbnailUrl(), job.getLastError(), job.getCreatedAt(), job.getUpdatedAt());
+		}
+	}
+
+	/**
+	 * Stand-in for the image host: copies files into a local folder and returns the path as URL.
+	 */
+	private static class LocalFolderStorage implements BlobStore {
+
+		private final Path root;
+		private final AtomicInteger failuresLeft = new AtomicInteger();
+		private final CountDownLatch entered = new CountDownLatch(1);
+		private volatile CountDownLatch gate;
+
+		LocalFolderStorage(Path root) {
+			this.root = root;
+		}
+
+		@Override
+		public String store(Path file, String folder) throws IOException {
+			entered.countDown();
+			CountDownLatch blocker = gate;
+			if (blocker != null) {
+				try {
+					blocker.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException(e);
+				}
+			}
+			if (failuresLeft.getAndDecrement() > 0) {
+				throw new IOException("storage unavailable");
+			}
+			Path target = root.resolve(folder).resolve(file.getFileName());
+			Files.createDirectories(target.getParent());
+			Files.copy(file, target);
+			return target.toString();
+		}
+	}
+}
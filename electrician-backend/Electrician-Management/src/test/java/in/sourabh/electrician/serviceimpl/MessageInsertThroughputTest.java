@@ -0,0 +1,120 @@
+package in.sourabh.electrician.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares the two ways a message row can reach MySQL: one INSERT per row with an
+ * AUTO_INCREMENT key read back (what IDENTITY forces on Hibernate), and pre-assigned
+ * pooled ids sent in JDBC batches of 50 with rewriteBatchedStatements, as configured in
+ * application.properties. Both runs use temporary tables, so nothing is left behind.
+ */
+@Tag("benchmark")
+@EnabledIfEnvironmentVariable(named = "DB_URL", matches = ".+")
+class MessageInsertThroughputTest {
+
+	private static final int BATCH_SIZE = 50;
+	private static final String COLUMNS = "(id BIGINT %s PRIMARY KEY, chat_room_id BIGINT NOT NULL, "
+			+ "sender_id BIGINT NOT NULL, receiver_id BIGINT NOT NULL, content TEXT, sent_at DATETIME(6))";
+
+	private SingleConnectionDataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void setUp() {
+		String url = System.getenv("DB_URL");
+		url += (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+		dataSource = new SingleConnectionDataSource(url, System.getenv("DB_USERNAME"), System.getenv("DB_PASSWORD"),
+				true);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+		jdbcTemplate.execute("CREATE TEMPORARY TABLE bench_identity_messages " + COLUMNS.formatted("AUTO_INCREMENT"));
+		jdbcTemplate.execute("CREATE TEMPORARY TABLE bench_pooled_messages " + COLUMNS.formatted(""));
+	}
+
+	@AfterEach
+	void tearDown() {
+		dataSource.destroy();
+	}
+
+	@Test
+	void pooledIdsWithBatchedInsertsOutrunIdentityInserts() {
+		insertIdentity(1_000);
+		insertPooled(1_000, 1);
+
+		int rows = 10_000;
+		long start = System.nanoTime();
+		insertIdentity(rows);
+		double identityPerSecond = rows / ((System.nanoTime() - start) / 1_000_000_000.0);
+
+		start = System.nanoTime();
+		insertPooled(rows, 1_001);
+		double pooledPerSecond = rows / ((System.nanoTime() - start) / 1_000_000_000.0);
+
+		assertEquals(rows + 1_000, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bench_pooled_messages",
+				Integer.class));
+		System.out.printf("Message inserts (%d rows): identity %.0f rows/s, pooled batches of %d %.0f rows/s%n",
+				rows, identityPerSecond, BATCH_SIZE, pooledPerSecond);
+		assertTrue(pooledPerSecond > identityPerSecond, pooledPerSecond + " vs " + identityPerSecond + " rows/s");
+	}
+
+	// One statement and one generated key per row, all in one transaction
+	private void insertIdentity(int rows) {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		transactionTemplate.executeWithoutResult(status -> {
+			for (int i = 0; i < rows; i++) {
+				long sender = i % 100;
+				jdbcTemplate.update(connection -> {
+					PreparedStatement ps = connection.prepareStatement("INSERT INTO bench_identity_messages "
+							+ "(chat_room_id, sender_id, receiver_id, content, sent_at) VALUES (?, ?, ?, ?, ?)",
+							Statement.RETURN_GENERATED_KEYS);
+					ps.setLong(1, sender);
+					ps.setLong(2, sender);
+					ps.setLong(3, sender + 1);
+					ps.setString(4, "Is 10 am tomorrow fine for the wiring check?");
+					ps.setTimestamp(5, now);
+					return ps;
+				}, new GeneratedKeyHolder());
+			}
+		});
+	}
+
+	// Ids already reserved, rows flushed BATCH_SIZE at a time like hibernate.jdbc.batch_size
+	private void insertPooled(int rows, long firstId) {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		transactionTemplate.executeWithoutResult(status -> {
+			List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+			for (int i = 0; i < rows; i++) {
+				long sender = i % 100;
+				batch.add(new Object[] { firstId + i, sender, sender, sender + 1,
+						"Is 10 am tomorrow fine for the wiring check?", now });
+				if (batch.size() == BATCH_SIZE || i == rows - 1) {
+					jdbcTemplate.batchUpdate("INSERT INTO bench_pooled_messages "
+							+ "(id, chat_room_id, sender_id, receiver_id, content, sent_at) VALUES (?, ?, ?, ?, ?, ?)",
+							batch);
+					batch.clear();
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,173 @@
+package in.sourabh.electrician.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import in.sourabh.electrician.entites.ChatRoom;
+import in.sourabh.electrician.entites.Message;
+import in.sourabh.electrician.exception.MessageRejectedException;
+import in.sourabh.electrician.security.AccountType;
+
+class MessagePersistencePipelineTest {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+	private final List<Long> stored = new CopyOnWriteArrayList<>();
+	private final AtomicInteger inserts = new AtomicInteger();
+
+	private MessagePersistencePipeline pipeline;
+
+	@AfterEach
+	void stopPipeline() throws InterruptedException {
+		if (pipeline != null) {
+			pipeline.stop();
+		}
+	}
+
+	@Test
+	void failedBatchIsRetriedInOrderUntilTheDatabaseTakesIt() throws InterruptedException {
+		// The database is down for the first two attempts
+		start(10, 200, invocation -> {
+			if (inserts.getAndIncrement() < 2) {
+				throw new TransientDataAccessResourceException("connection refused");
+			}
+			return record(invocation);
+		});
+
+		for (int i = 0; i < 3; i++) {
+			pipeline.submit(message());
+		}
+		awaitStored(3);
+
+		assertEquals(List.of(1L, 2L, 3L), stored);
+		verify(messagingTemplate, times(3)).convertAndSend(endsWith("/ack"), any(Object.class));
+	}
+
+	@Test
+	void fullQueueRejectsTheMessageInsteadOfWritingItInline() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		start(1, 200, invocation -> {
+			if (inserts.getAndIncrement() == 0) {
+				release.await();
+			}
+			return record(invocation);
+		});
+
+		pipeline.submit(message());
+		awaitInserts(1);
+		pipeline.submit(message());
+
+		assertThrows(MessageRejectedException.class, () -> pipeline.submit(message()));
+		assertEquals(1, inserts.get());
+
+		release.countDown();
+		awaitStored(2);
+		assertEquals(List.of(1L, 2L), stored);
+	}
+
+	@Test
+	void stopPersistsWhatAStuckWriterStillHolds() throws InterruptedException {
+		// The first insert hangs until the writer is interrupted; later ones succeed
+		start(10, 1, invocation -> {
+			if (inserts.getAndIncrement() == 0) {
+				new CountDownLatch(1).await();
+			}
+			return record(invocation);
+		});
+
+		pipeline.submit(message());
+		awaitInserts(1);
+		pipeline.submit(message());
+		pipeline.submit(message());
+
+		pipeline.stop();
+		pipeline = null;
+
+		assertEquals(List.of(1L, 2L, 3L), stored);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void start(int queueCapacity, long shutdownTimeoutMs, Answer<int[]> batchUpdate) {
+		when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(batchUpdate);
+
+		TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+		doAnswer(invocation -> {
+			((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any());
+
+		IdSequenceAllocator ids = mock(IdSequenceAllocator.class);
+		when(ids.reserve(anyString(), anyInt())).thenReturn(1L);
+
+		pipeline = new MessagePersistencePipeline(jdbcTemplate, transactionTemplate, messagingTemplate, ids);
+		ReflectionTestUtils.setField(pipeline, "enabled", true);
+		ReflectionTestUtils.setField(pipeline, "queueCapacity", queueCapacity);
+		ReflectionTestUtils.setField(pipeline, "batchSize", 50);
+		ReflectionTestUtils.setField(pipeline, "offerTimeoutMs", 20L);
+		ReflectionTestUtils.setField(pipeline, "shutdownTimeoutMs", shutdownTimeoutMs);
+		pipeline.start();
+	}
+
+	private int[] record(InvocationOnMock invocation) {
+		List<Object[]> rows = invocation.getArgument(1);
+		rows.forEach(row -> stored.add((Long) row[0]));
+		return new int[rows.size()];
+	}
+
+	private void awaitStored(int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (stored.size() < count && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	private void awaitInserts(int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (inserts.get() < count && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	private static Message message() {
+		ChatRoom room = new ChatRoom();
+		room.setId(7L);
+		Message message = new Message();
+		message.setChatRoom(room);
+		message.setSenderType(AccountType.USER);
+		message.setSenderId(5L);
+		message.setReceiverType(AccountType.ELECTRICIAN);
+		message.setReceiverId(5L);
+		message.setContent("hello");
+		message.setSentAt(LocalDateTime.now());
+		return message;
+	}
+}
@@ -0,0 +1,37 @@
+package in.sourabh.electrician.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class ByteRangeTest {
+
+	@Test
+	void parsesSingleRanges() {
+		assertEquals(new ByteRange(0, 499), ByteRange.parse("bytes=0-499", 1000));
+		assertEquals(new ByteRange(500, 999), ByteRange.parse("bytes=500-", 1000));
+		assertEquals(new ByteRange(900, 999), ByteRange.parse("bytes=-100", 1000));
+		// Ends past the file and suffixes longer than it are clamped
+		assertEquals(new ByteRange(990, 999), ByteRange.parse("bytes=990-5000", 1000));
+		assertEquals(new ByteRange(0, 999), ByteRange.parse("bytes=-5000", 1000));
+		assertEquals("bytes 990-999/1000", ByteRange.parse("Bytes=990-", 1000).contentRange(1000));
+	}
+
+	@Test
+	void rangesOutsideTheFileAreUnsatisfiable() {
+		assertEquals(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=1000-", 1000));
+		assertEquals(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", 1000));
+		assertEquals(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=0-", 0));
+	}
+
+	@Test
+	void malformedAndMultipleRangesFallBackToTheWholeFile() {
+		assertNull(ByteRange.parse(null, 1000));
+		assertNull(ByteRange.parse("bytes=500-100", 1000));
+		assertNull(ByteRange.parse("bytes=-", 1000));
+		assertNull(ByteRange.parse("items=0-10", 1000));
+		assertNull(ByteRange.parse("bytes=0-10,20-30", 1000));
+		assertNull(ByteRange.parse("bytes=99999999999999999999-", 1000));
+	}
+}
@@ -0,0 +1,144 @@
+package in.sourabh.electrician.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ImageResizerTest {
+
+	private static final long MAX_PIXELS = 50_000_000L;
+
+	@TempDir
+	Path tempDir;
+
+	private final ImageResizer resizer = new ImageResizer(MAX_PIXELS, 0.8f);
+
+	@Test
+	void phonePhotoBecomesSmallVariantsWithTheSameAspect() throws IOException {
+		Path photo = writePhoto(tempDir.resolve("photo.jpg"), 4032, 3024, "jpeg");
+
+		Map<ImageResizer.Variant, Path> variants = resizer.resize(photo, tempDir, "p");
+
+		for (ImageResizer.Variant variant : ImageResizer.Variant.values()) {
+			BufferedImage image = ImageIO.read(variants.get(variant).toFile());
+			int expectedHeight = (int) Math.round(variant.maxEdge() * 3024 / 4032.0);
+			assertEquals(variant.maxEdge(), image.getWidth());
+			assertTrue(Math.abs(expectedHeight - image.getHeight()) <= 1, variant + ": " + image.getHeight());
+		}
+		long original = Files.size(photo);
+		long thumbnail = Files.size(variants.get(ImageResizer.Variant.THUMBNAIL));
+		// Directory cards load the thumbnail instead of the original upload
+		assertTrue(thumbnail * 10 < original, thumbnail + " vs " + original);
+	}
+
+	@Test
+	void smallTransparentPngIsNotUpscaledAndGetsAWhiteBackground() throws IOException {
+		BufferedImage png = new BufferedImage(120, 80, BufferedImage.TYPE_INT_ARGB);
+		Path source = tempDir.resolve("logo.png");
+		ImageIO.write(png, "png", source.toFile());
+
+		Map<ImageResizer.Variant, Path> variants = resizer.resize(source, tempDir, "logo");
+
+		BufferedImage thumbnail = ImageIO.read(variants.get(ImageResizer.Variant.THUMBNAIL).toFile());
+		assertEquals(120, thumbnail.getWidth());
+		assertEquals(80, thumbnail.getHeight());
+		assertTrue((thumbnail.getRGB(60, 40) & 0xffffff) > 0xf0f0f0);
+	}
+
+	@Test
+	void rejectsNonImagesAndOversizedImages() throws IOException {
+		Path text = Files.writeString(tempDir.resolve("notes.txt"), "not an image");
+		assertThrows(ImageResizer.UnsupportedImageException.class, () -> resizer.resize(text, tempDir, "t"));
+
+		Path truncated = tempDir.resolve("truncated.jpg");
+		byte[] photo = Files.readAllBytes(writePhoto(tempDir.resolve("whole.jpg"), 800, 600, "jpeg"));
+		Files.write(truncated, Arrays.copyOf(photo, 200));
+		assertThrows(ImageResizer.UnsupportedImageException.class, () -> resizer.resize(truncated, tempDir, "t"));
+
+		Path big = writePhoto(tempDir.resolve("big.png"), 3000, 2000, "png");
+		assertThrows(ImageResizer.UnsupportedImageException.class,
+				() -> new ImageResizer(5_000_000L, 0.8f).resize(big, tempDir, "b"));
+	}
+
+	@Test
+	@Tag("benchmark")
+	void throughputPerCore() throws Exception {
+		Path photo = writePhoto(tempDir.resolve("bench.jpg"), 4032, 3024, "jpeg");
+		Map<ImageResizer.Variant, Path> variants = resizer.resize(photo, tempDir, "sizes");
+		System.out.printf("Photo %d KB -> large %d KB, medium %d KB, thumbnail %d KB%n", Files.size(photo) / 1024,
+				Files.size(variants.get(ImageResizer.Variant.LARGE)) / 1024,
+				Files.size(variants.get(ImageResizer.Variant.MEDIUM)) / 1024,
+				Files.size(variants.get(ImageResizer.Variant.THUMBNAIL)) / 1024);
+		for (int i = 0; i < 3; i++) {
+			resizer.resize(photo, tempDir, "warm" + i);
+		}
+
+		int images = 10;
+		long start = System.nanoTime();
+		for (int i = 0; i < images; i++) {
+			resizer.resize(photo, tempDir, "single" + i);
+		}
+		double singleMs = (System.nanoTime() - start) / 1_000_000.0 / images;
+
+		int cores = Runtime.getRuntime().availableProcessors();
+		ExecutorService pool = Executors.newFixedThreadPool(cores);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			start = System.nanoTime();
+			for (int i = 0; i < images * cores; i++) {
+				String name = "parallel" + i;
+				futures.add(pool.submit(() -> resizer.resize(photo, tempDir, name)));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+		double parallelPerSecond = images * cores / ((System.nanoTime() - start) / 1_000_000_000.0);
+
+		System.out.printf("12 MP JPEG -> 3 variants: %.0f ms/image on one core (%.1f/s per core), %.1f/s on %d cores%n",
+				singleMs, 1000 / singleMs, parallelPerSecond, cores);
+		// Generous bound so shared CI machines do not flake; typical is a few hundred ms
+		assertTrue(singleMs < 3_000, singleMs + " ms/image");
+	}
+
+	// Smooth gradients plus sensor-like noise, so JPEG sizes resemble a real phone photo
+	private static Path writePhoto(Path target, int width, int height, String format) throws IOException {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Random random = new Random(42);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int r = clamp(x * 255 / width + random.nextInt(24) - 12);
+				int g = clamp(y * 255 / height + random.nextInt(24) - 12);
+				int b = clamp((x + y) * 255 / (width + height) + random.nextInt(24) - 12);
+				image.setRGB(x, y, (r << 16) | (g << 8) | b);
+			}
+		}
+		ImageIO.write(image, format, target.toFile());
+		return target;
+	}
+
+	private static int clamp(int value) {
+		return Math.max(0, Math.min(255, value));
+	}
+}
@@ -0,0 +1,65 @@
+package in.sourabh.electrician.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocalBlobStoreTest {
+
+	private static final String PUBLIC_URL = "http://localhost:8083/api/blobs";
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void storesByContentAndServesTheSameBytes() throws IOException {
+		LocalBlobStore store = new LocalBlobStore(tempDir.resolve("blobs").toString(), PUBLIC_URL + "/");
+		Path upload = Files.write(tempDir.resolve("job-1-large.JPG"), "jpeg bytes".getBytes(StandardCharsets.UTF_8));
+
+		String url = store.store(upload, "users/profile");
+
+		assertTrue(url.startsWith(PUBLIC_URL + "/users/profile/") && url.endsWith(".jpg"), url);
+		LocalBlobStore.Blob blob = store.find(url.substring(PUBLIC_URL.length() + 1)).orElseThrow();
+		assertArrayEquals(Files.readAllBytes(upload), Files.readAllBytes(blob.file()));
+		assertEquals(10L, blob.size());
+		String name = blob.file().getFileName().toString();
+		assertEquals("\"" + name.substring(0, name.indexOf('.')) + "\"", blob.etag());
+
+		// Same bytes under another name land on the same blob; no temp files are left behind
+		Path again = Files.copy(upload, tempDir.resolve("job-2-large.jpg"));
+		assertEquals(url, store.store(again, "users/profile"));
+		try (Stream<Path> files = Files.list(blob.file().getParent())) {
+			assertEquals(1L, files.count());
+		}
+	}
+
+	@Test
+	void keysCannotLeaveTheRootOrReachTempFiles() throws IOException {
+		LocalBlobStore store = new LocalBlobStore(tempDir.resolve("blobs").toString(), PUBLIC_URL);
+		Files.writeString(tempDir.resolve("secret.txt"), "secret");
+		Files.createDirectories(tempDir.resolve("blobs/users"));
+		Files.writeString(tempDir.resolve("blobs/users/.123.tmp"), "partial");
+
+		assertEquals(Optional.empty(), store.find("../secret.txt"));
+		assertEquals(Optional.empty(), store.find("users/../../secret.txt"));
+		assertEquals(Optional.empty(), store.find("users/.123.tmp"));
+		assertEquals(Optional.empty(), store.find("users//x.jpg"));
+		assertEquals(Optional.empty(), store.find("users/missing.jpg"));
+		assertFalse(store.find("users").isPresent());
+
+		Path upload = Files.writeString(tempDir.resolve("a.jpg"), "a");
+		assertThrows(IllegalArgumentException.class, () -> store.store(upload, "../outside"));
+	}
+}
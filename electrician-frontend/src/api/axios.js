@@ -9,16 +9,18 @@ const api = axios.create({
   },
 });
 
-// Add a request interceptor to include Basic Auth credentials
+// Add a request interceptor to include the access token (or Basic Auth for older sessions)
 api.interceptors.request.use(
   (config) => {
-    // DO NOT add Authorization header for login/register endpoints
-    if (config.url.startsWith('/auth/')) {
+    // DO NOT add Authorization header for login/register endpoints (/auth/me needs it)
+    if (config.url.startsWith('/auth/') && config.url !== '/auth/me') {
       return config;
     }
 
     const user = JSON.parse(localStorage.getItem('user') || '{}');
-    if (user.authHeader) {
+    if (user.accessToken) {
+      config.headers.Authorization = `Bearer ${user.accessToken}`;
+    } else if (user.authHeader) {
       config.headers.Authorization = `Basic ${user.authHeader}`;
     }
     return config;
@@ -28,4 +30,40 @@ api.interceptors.request.use(
   }
 );
 
+// One refresh at a time; concurrent 401s wait for the same call
+let refreshing = null;
+
+const refreshTokens = async () => {
+  const user = JSON.parse(localStorage.getItem('user') || '{}');
+  const response = await api.post('/auth/refresh', { refreshToken: user.refreshToken });
+  const tokens = response.data.data;
+  localStorage.setItem('user', JSON.stringify({ ...user, ...tokens }));
+  return tokens.accessToken;
+};
+
+// On an expired access token, refresh once and retry the original request
+api.interceptors.response.use(
+  (response) => response,
+  async (error) => {
+    const original = error.config;
+    const user = JSON.parse(localStorage.getItem('user') || '{}');
+    if (error.response?.status !== 401 || !original || original._retried
+      || original.url.startsWith('/auth/') || !user.refreshToken) {
+      return Promise.reject(error);
+    }
+
+    original._retried = true;
+    try {
+      refreshing = refreshing || refreshTokens();
+      const accessToken = await refreshing;
+      original.headers.Authorization = `Bearer ${accessToken}`;
+      return api(original);
+    } catch (refreshError) {
+      return Promise.reject(error);
+    } finally {
+      refreshing = null;
+    }
+  }
+);
+
 export default api;
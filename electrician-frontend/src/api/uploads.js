@@ -0,0 +1,24 @@
+import api from "./axios";
+
+const POLL_INTERVAL_MS = 1500;
+const MAX_POLLS = 40;
+
+// Profile images upload in the background; resolves with the new image fields once they land
+export const waitForImageUpload = async (uploadId) => {
+  for (let i = 0; i < MAX_POLLS; i++) {
+    await new Promise((resolve) => setTimeout(resolve, POLL_INTERVAL_MS));
+    const response = await api.get(`/uploads/${uploadId}`);
+    const upload = response.data.data;
+    if (upload.status === 'DONE') {
+      return {
+        imageProfile: upload.imageUrl,
+        imageMedium: upload.mediumUrl,
+        imageThumbnail: upload.thumbnailUrl,
+      };
+    }
+    if (upload.status === 'FAILED' || upload.status === 'SUPERSEDED') {
+      throw new Error(upload.error || 'Image upload failed');
+    }
+  }
+  throw new Error('Image upload is taking longer than expected');
+};
@@ -11,6 +11,8 @@ export default function ChatBot() {
     const [input, setInput] = useState('');
     const [loading, setLoading] = useState(false);
     const messagesEndRef = useRef(null);
+    // Issued by the server on first use; renewed if it expires
+    const sessionIdRef = useRef(null);
     const { showNotification } = useNotification();
 
     const scrollToBottom = () => {
@@ -21,6 +23,23 @@ export default function ChatBot() {
         scrollToBottom();
     }, [messages]);
 
+    const startSession = async () => {
+        const response = await api.post('/ai/sessions');
+        sessionIdRef.current = response.data.data.sessionId;
+        return sessionIdRef.current;
+    };
+
+    const askAi = async (prompt) => {
+        const sessionId = sessionIdRef.current || await startSession();
+        try {
+            return await api.post('/ai/chat', { prompt, sessionId });
+        } catch (error) {
+            if (error.response?.status !== 404) throw error;
+            // The session expired on the server; start a fresh one and ask again
+            return api.post('/ai/chat', { prompt, sessionId: await startSession() });
+        }
+    };
+
     const handleSend = async (e) => {
         e.preventDefault();
         if (!input.trim() || loading) return;
@@ -31,7 +50,7 @@ export default function ChatBot() {
         setLoading(true);
 
         try {
-            const response = await api.post('/ai/chat', { prompt: input });
+            const response = await askAi(input);
             if (response.data.success) {
                 setMessages(prev => [...prev, { role: 'ai', content: response.data.data }]);
             } else {
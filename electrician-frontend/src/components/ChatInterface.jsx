@@ -2,7 +2,7 @@ import React, { useEffect, useRef, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import ChatService from "../services/ChatService";
 
-const ChatInterface = ({ senderId, receiverId, senderName, receiverName }) => {
+const ChatInterface = ({ senderId, senderType, receiverId, receiverType, senderName, receiverName }) => {
   const [messages, setMessages] = useState([]);
   const [newMessage, setNewMessage] = useState("");
   const [socketReady, setSocketReady] = useState(false);
@@ -24,12 +24,19 @@ const ChatInterface = ({ senderId, receiverId, senderName, receiverName }) => {
       setMessages((prev) => [...prev, event.detail]);
     };
 
+    // Put a rejected message back in the input so it can be sent again
+    const onMessageRejected = (event) => {
+      setNewMessage((current) => current || event.detail.content || "");
+    };
+
     window.addEventListener("socketConnected", onSocketConnected);
     window.addEventListener("messageReceived", onMessageReceived);
+    window.addEventListener("messageRejected", onMessageRejected);
 
     return () => {
       window.removeEventListener("socketConnected", onSocketConnected);
       window.removeEventListener("messageReceived", onMessageReceived);
+      window.removeEventListener("messageRejected", onMessageRejected);
     };
   }, []);
 
@@ -37,7 +44,7 @@ const ChatInterface = ({ senderId, receiverId, senderName, receiverName }) => {
   useEffect(() => {
     const loadHistory = async () => {
       try {
-        const chatRoomId = `${Math.min(senderId, receiverId)}-${Math.max(senderId, receiverId)}`;
+        const chatRoomId = `${senderType}:${senderId}-${receiverType}:${receiverId}`;
         const history = await ChatService.getChatHistory(chatRoomId);
         setMessages(history || []);
       } catch (err) {
@@ -47,7 +54,7 @@ const ChatInterface = ({ senderId, receiverId, senderName, receiverName }) => {
     };
 
     loadHistory();
-  }, [senderId, receiverId]);
+  }, [senderId, senderType, receiverId, receiverType]);
 
 
   // 🔹 Auto scroll
@@ -55,13 +62,17 @@ const ChatInterface = ({ senderId, receiverId, senderName, receiverName }) => {
     messagesEndRef.current?.scrollIntoView({ behavior: "smooth" });
   }, [messages]);
 
+  const isOwn = (msg) => msg.senderId === senderId && msg.senderType === senderType;
+
   const sendMessage = (e) => {
     e.preventDefault();
     if (!socketReady || !newMessage.trim()) return;
 
     ChatService.sendMessage({
       senderId,
+      senderType,
       receiverId,
+      receiverType,
       content: newMessage,
       messageType: "TEXT",
     });
@@ -118,16 +129,16 @@ const ChatInterface = ({ senderId, receiverId, senderName, receiverName }) => {
             messages.map((msg, idx) => (
               <div
                 key={idx}
-                className={`flex ${msg.senderId === senderId ? "justify-end" : "justify-start"}`}
+                className={`flex ${isOwn(msg) ? "justify-end" : "justify-start"}`}
               >
                 <div
-                  className={`max-w-[70%] px-5 py-3 rounded-2xl shadow-lg ${msg.senderId === senderId
+                  className={`max-w-[70%] px-5 py-3 rounded-2xl shadow-lg ${isOwn(msg)
                     ? "bg-gradient-to-r from-cyan-500 to-blue-600 text-white rounded-br-sm"
                     : "bg-slate-700 text-white rounded-bl-sm"
                     }`}
                 >
                   <p className="text-sm leading-relaxed mb-1">{msg.content}</p>
-                  <p className={`text-[10px] opacity-70 ${msg.senderId === senderId ? 'text-right' : 'text-left'}`}>
+                  <p className={`text-[10px] opacity-70 ${isOwn(msg) ? 'text-right' : 'text-left'}`}>
                     {msg.sentAt ? new Date(msg.sentAt).toLocaleTimeString([], {
                       hour: '2-digit',
                       minute: '2-digit'
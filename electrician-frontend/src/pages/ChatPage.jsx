@@ -9,13 +9,18 @@ const ChatPage = () => {
   const storedUser = JSON.parse(localStorage.getItem("user"));
   const senderId = storedUser?.id;
   const receiverId = chatId ? parseInt(chatId) : null;
+  // User and electrician ids overlap, so every chat id travels with its account type.
+  // Chats always pair a user (admins included) with an electrician.
+  const role = storedUser?.role;
+  const senderType = role === "ELECTRICIAN" || role === "ROLE_ELECTRICIAN" ? "ELECTRICIAN" : "USER";
+  const receiverType = senderType === "ELECTRICIAN" ? "USER" : "ELECTRICIAN";
 
   useEffect(() => {
     if (senderId) {
-      ChatService.initialize({ id: senderId });
+      ChatService.initialize({ id: senderId, type: senderType });
     }
     return () => ChatService.disconnect();
-  }, [senderId]);
+  }, [senderId, senderType]);
 
   if (!senderId || !receiverId) {
     return (
@@ -36,7 +41,9 @@ const ChatPage = () => {
   return (
     <ChatInterface
       senderId={senderId}
+      senderType={senderType}
       receiverId={receiverId}
+      receiverType={receiverType}
       senderName={storedUser?.name}
       receiverName={"Chat Partner"}
     />
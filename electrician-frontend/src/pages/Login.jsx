@@ -45,11 +45,17 @@ export default function Login() {
 
             const role = responseData.role;
 
-            // For Basic Auth: Store base64 encoded credentials
-            const authHeader = btoa(`${formData.email}:${formData.password}`);
-            const userData = { ...responseData, authHeader };
-
-            localStorage.setItem('user', JSON.stringify(userData));
+            // The response carries the access/refresh tokens; the password is not kept
+            localStorage.setItem('user', JSON.stringify(responseData));
+
+            // Login only returns what the token carries; the profile is fetched with it
+            try {
+                const profileRes = await api.get('/auth/me');
+                const profile = profileRes.data.data || {};
+                localStorage.setItem('user', JSON.stringify({ ...profile, ...responseData }));
+            } catch (profileError) {
+                console.error("Could not load profile after login:", profileError);
+            }
             showNotification("Welcome back! Login successful.", "success");
 
             if (role === 'ADMIN' || role === 'ROLE_ADMIN') navigate('/admin');
@@ -4,12 +4,15 @@ import { motion, AnimatePresence } from 'framer-motion';
 import api from '../../api/axios';
 import { useNotification } from '../../context/NotificationContext';
 
+const DIRECTORY_PAGE_SIZE = 20;
+
 export default function AdminDashboard() {
     const navigate = useNavigate();
     const { showNotification } = useNotification();
     const [activeTab, setActiveTab] = useState('overview');
     const [users, setUsers] = useState([]);
     const [electricians, setElectricians] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const [loading, setLoading] = useState(true);
     const [fetchError, setFetchError] = useState(null);
     const [selectedProfile, setSelectedProfile] = useState(null);
@@ -43,44 +46,18 @@ export default function AdminDashboard() {
             }
             setUsers(Array.isArray(userData) ? userData : []);
 
-            // Fetch electricians
-            let electricianData = [];
-            try {
-                const electriciansRes = await api.get('/admin/electrician');
-                electricianData = electriciansRes.data.data || electriciansRes.data;
-                console.log("Admin API Debug - Electricians Success:", electricianData);
-            } catch (err) {
-                console.error("Failed to fetch electricians:", err);
-                try {
-                    const electriciansRes = await api.get('/admin/electricians');
-                    electricianData = electriciansRes.data.data || electriciansRes.data;
-                    console.log("Admin API Debug - Electricians (plural) Success:", electricianData);
-                } catch (err2) {
-                    throw err;
-                }
-            }
-            let processedElectricians = Array.isArray(electricianData) ? electricianData : [];
-
-            // Fix: Swap mobileNumber and password if they are interchanged in the backend response
-            processedElectricians = processedElectricians.map(elec => {
-                const isPhoneInPassword = elec.password && /^[6-9]\d{9}$/.test(elec.password);
-                const isHashInMobile = elec.mobileNumber && elec.mobileNumber.startsWith('$2a$');
-
-                if (isPhoneInPassword && isHashInMobile) {
-                    return {
-                        ...elec,
-                        mobileNumber: elec.password,
-                        password: elec.mobileNumber
-                    };
-                }
-                return elec;
-            });
-
-            setElectricians(processedElectricians);
+            // Electricians come a page at a time; the total comes from its own count
+            const [electriciansRes, electricianStatsRes] = await Promise.all([
+                api.get('/admin/electrician/directory', { params: { size: DIRECTORY_PAGE_SIZE } }),
+                api.get('/admin/stats/electricians')
+            ]);
+            const page = electriciansRes.data.data || {};
+            setElectricians(fixSwappedFields(Array.isArray(page.electricians) ? page.electricians : []));
+            setNextCursor(page.hasMore ? page.nextCursor : null);
 
             setStats({
                 totalUsers: Array.isArray(userData) ? userData.length : 0,
-                totalElectricians: processedElectricians.length,
+                totalElectricians: electricianStatsRes.data.data?.total ?? 0,
                 totalJobs: 24
             });
         } catch (error) {
@@ -95,6 +72,36 @@ export default function AdminDashboard() {
         }
     };
 
+    // Fix: Swap mobileNumber and password if they are interchanged in the backend response
+    const fixSwappedFields = (list) => list.map(elec => {
+        const isPhoneInPassword = elec.password && /^[6-9]\d{9}$/.test(elec.password);
+        const isHashInMobile = elec.mobileNumber && elec.mobileNumber.startsWith('$2a$');
+
+        if (isPhoneInPassword && isHashInMobile) {
+            return {
+                ...elec,
+                mobileNumber: elec.password,
+                password: elec.mobileNumber
+            };
+        }
+        return elec;
+    });
+
+    const loadMoreElectricians = async () => {
+        try {
+            const response = await api.get('/admin/electrician/directory', {
+                params: { size: DIRECTORY_PAGE_SIZE, after: nextCursor }
+            });
+            const page = response.data.data || {};
+            const more = fixSwappedFields(Array.isArray(page.electricians) ? page.electricians : []);
+            setElectricians(prev => [...prev, ...more]);
+            setNextCursor(page.hasMore ? page.nextCursor : null);
+        } catch (error) {
+            console.error("Failed to load more electricians:", error);
+            showNotification("Could not load more electricians.", "error");
+        }
+    };
+
     const handleDelete = async (type, id) => {
         if (!window.confirm(`Are you sure you want to delete this ${type}?`)) return;
 
@@ -226,7 +233,7 @@ export default function AdminDashboard() {
                                                 <td className="px-6 py-4">
                                                     <div className="flex items-center gap-4">
                                                         <div className="w-10 h-10 rounded-full overflow-hidden border border-white/10">
-                                                            <img src={item.imageProfile || `https://ui-avatars.com/api/?name=${item.name}&background=random`} alt="" className="w-full h-full object-cover" />
+                                                            <img src={item.imageThumbnail || item.imageProfile || `https://ui-avatars.com/api/?name=${item.name}&background=random`} alt="" className="w-full h-full object-cover" />
                                                         </div>
                                                         <span className="font-bold">{item.name || 'N/A'}</span>
                                                     </div>
@@ -257,6 +264,14 @@ export default function AdminDashboard() {
                                 {!loading && (activeTab === 'users' ? users : electricians).length === 0 && (
                                     <div className="p-12 text-center text-slate-400">No records found.</div>
                                 )}
+                                {!loading && activeTab === 'electricians' && nextCursor !== null && (
+                                    <button
+                                        onClick={loadMoreElectricians}
+                                        className="w-full py-3 bg-white/5 hover:bg-white/10 text-slate-300 text-xs font-bold transition-all"
+                                    >
+                                        Load more electricians
+                                    </button>
+                                )}
                             </div>
                         </motion.div>
                     )}
@@ -284,7 +299,7 @@ export default function AdminDashboard() {
                                 <div className="flex justify-between items-start mb-8">
                                     <div className="flex gap-6 items-center">
                                         <div className="w-24 h-24 rounded-2xl overflow-hidden border-2 border-red-500/30">
-                                            <img src={selectedProfile.imageProfile || `https://ui-avatars.com/api/?name=${selectedProfile.name}&background=random`} alt="" className="w-full h-full object-cover" />
+                                            <img src={selectedProfile.imageMedium || selectedProfile.imageProfile || `https://ui-avatars.com/api/?name=${selectedProfile.name}&background=random`} alt="" className="w-full h-full object-cover" />
                                         </div>
                                         <div>
                                             <h2 className="text-3xl font-bold">{selectedProfile.name}</h2>
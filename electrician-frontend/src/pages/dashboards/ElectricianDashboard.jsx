@@ -1,6 +1,7 @@
 import { useNavigate } from 'react-router-dom';
 import { useState, useEffect } from 'react';
 import api from '../../api/axios';
+import { waitForImageUpload } from '../../api/uploads';
 import { motion, AnimatePresence } from 'framer-motion';
 import Input from '../../components/Input';
 import { useNotification } from '../../context/NotificationContext';
@@ -75,12 +76,24 @@ export default function ElectricianDashboard() {
 
             const apiUpdatedUser = response.data.data;
             if (apiUpdatedUser) {
-                const finalUser = { ...user, ...apiUpdatedUser, authHeader: user.authHeader };
+                // Tokens may have been refreshed since this page loaded; keep the stored ones
+                const { accessToken, refreshToken } = JSON.parse(localStorage.getItem('user') || '{}');
+                const finalUser = { ...user, ...apiUpdatedUser, accessToken, refreshToken };
                 setUser(finalUser);
                 localStorage.setItem('user', JSON.stringify(finalUser));
                 setIsEditModalOpen(false);
                 setImageFile(null);
                 showNotification("Profile updated!", "success");
+
+                if (apiUpdatedUser.imageUploadId) {
+                    waitForImageUpload(apiUpdatedUser.imageUploadId)
+                        .then((images) => {
+                            const stored = JSON.parse(localStorage.getItem('user') || '{}');
+                            localStorage.setItem('user', JSON.stringify({ ...stored, ...images }));
+                            setUser(prev => ({ ...prev, ...images }));
+                        })
+                        .catch(() => showNotification("Profile photo could not be uploaded.", "error"));
+                }
             }
         } catch (error) {
             console.error("Update failed:", error);
@@ -169,7 +182,7 @@ export default function ElectricianDashboard() {
                         <div className="relative w-32 h-32 mb-4 group">
                             <div className="absolute inset-0 bg-blue-500 rounded-full blur-xl opacity-20 group-hover:opacity-40 transition-opacity"></div>
                             <img
-                                src={user.imageProfile || proAvatar}
+                                src={user.imageMedium || user.imageProfile || proAvatar}
                                 alt="Profile"
                                 className="w-full h-full rounded-full object-cover border-4 border-slate-800 relative z-10 shadow-2xl"
                             />
@@ -1,14 +1,18 @@
 import { useNavigate } from 'react-router-dom';
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import api from '../../api/axios';
+import { waitForImageUpload } from '../../api/uploads';
 import { motion, AnimatePresence } from 'framer-motion';
 import Input from '../../components/Input';
 import { useNotification } from '../../context/NotificationContext';
 
+const DIRECTORY_PAGE_SIZE = 20;
+
 export default function UserDashboard() {
     const navigate = useNavigate();
     const { showNotification } = useNotification();
     const [electricians, setElectricians] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const [loading, setLoading] = useState(true);
     const [fetchError, setFetchError] = useState(null);
     const [user, setUser] = useState(() => {
@@ -42,6 +46,9 @@ export default function UserDashboard() {
         estimatedCost: ''
     });
     const [bookingLoading, setBookingLoading] = useState(false);
+    const [freeSlots, setFreeSlots] = useState([]);
+    // One key per booking attempt, so a retried submit cannot create a second booking
+    const bookingKeyRef = useRef(null);
 
     useEffect(() => {
         if (!user || Object.keys(user).length === 0) {
@@ -52,30 +59,18 @@ export default function UserDashboard() {
         fetchElectricians();
     }, [user, navigate]);
 
-    const fetchElectricians = async () => {
-        setLoading(true);
+    const fetchElectricians = async (after = null) => {
+        setLoading(after === null);
         setFetchError(null);
         try {
-            const response = await api.get('/user/electricians');
-            let data = response.data.data || response.data;
-            let processedElectricians = Array.isArray(data) ? data : [];
-
-            // Fix: Swap mobileNumber and password if they are interchanged in the backend response
-            processedElectricians = processedElectricians.map(elec => {
-                const isPhoneInPassword = elec.password && /^[6-9]\d{9}$/.test(elec.password);
-                const isHashInMobile = elec.mobileNumber && elec.mobileNumber.startsWith('$2a$');
-
-                if (isPhoneInPassword && isHashInMobile) {
-                    return {
-                        ...elec,
-                        mobileNumber: elec.password,
-                        password: elec.mobileNumber
-                    };
-                }
-                return elec;
+            const response = await api.get('/user/electricians/directory', {
+                params: { size: DIRECTORY_PAGE_SIZE, ...(after !== null && { after }) }
             });
+            const page = response.data.data || {};
+            const pageElectricians = Array.isArray(page.electricians) ? page.electricians : [];
 
-            setElectricians(processedElectricians);
+            setElectricians(prev => after === null ? pageElectricians : [...prev, ...pageElectricians]);
+            setNextCursor(page.hasMore ? page.nextCursor : null);
         } catch (error) {
             console.error("Failed to fetch electricians:", error);
             const status = error.response?.status;
@@ -124,16 +119,29 @@ export default function UserDashboard() {
 
             const apiUpdatedUser = response.data.data;
             if (apiUpdatedUser) {
+                // Tokens may have been refreshed since this page loaded; keep the stored ones
+                const { accessToken, refreshToken } = JSON.parse(localStorage.getItem('user') || '{}');
                 const finalUser = {
                     ...user,
                     ...apiUpdatedUser,
-                    authHeader: user.authHeader
+                    accessToken,
+                    refreshToken
                 };
                 setUser(finalUser);
                 localStorage.setItem('user', JSON.stringify(finalUser));
                 setIsEditModalOpen(false);
                 setImageFile(null);
                 showNotification("Profile updated successfully!", "success");
+
+                if (apiUpdatedUser.imageUploadId) {
+                    waitForImageUpload(apiUpdatedUser.imageUploadId)
+                        .then((images) => {
+                            const stored = JSON.parse(localStorage.getItem('user') || '{}');
+                            localStorage.setItem('user', JSON.stringify({ ...stored, ...images }));
+                            setUser(prev => ({ ...prev, ...images }));
+                        })
+                        .catch(() => showNotification("Profile photo could not be uploaded.", "error"));
+                }
             }
         } catch (error) {
             console.error("Failed to update profile:", error);
@@ -165,6 +173,18 @@ export default function UserDashboard() {
         });
         setIsBookingModalOpen(true);
         setViewingElectrician(null); // Close view modal if open
+        bookingKeyRef.current = crypto.randomUUID();
+        fetchFreeSlots(electrician.id);
+    };
+
+    const fetchFreeSlots = async (electricianId) => {
+        setFreeSlots([]);
+        try {
+            const response = await api.get(`/bookings/electricians/${electricianId}/free-slots`, { params: { days: 7 } });
+            setFreeSlots(response.data.data || []);
+        } catch (error) {
+            console.error("Failed to fetch free slots:", error);
+        }
     };
 
     const handleCreateBooking = async (e) => {
@@ -178,11 +198,14 @@ export default function UserDashboard() {
                 serviceType: bookingFormData.serviceType,
                 description: bookingFormData.description,
                 location: bookingFormData.location,
-                scheduledDate: new Date(bookingFormData.scheduledDate).toISOString(),
+                // Slot start in the electrician's local time, sent as-is
+                scheduledDate: bookingFormData.scheduledDate,
                 estimatedCost: bookingFormData.estimatedCost ? parseFloat(bookingFormData.estimatedCost) : null
             };
 
-            const response = await api.post('/bookings/user/create', bookingPayload);
+            const response = await api.post('/bookings/user/create', bookingPayload, {
+                headers: { 'Idempotency-Key': bookingKeyRef.current }
+            });
             showNotification(response.data.message || "Booking created successfully!", "success");
             setIsBookingModalOpen(false);
             fetchBookings(); // Refresh bookings list
@@ -190,6 +213,10 @@ export default function UserDashboard() {
             console.error("Failed to create booking:", error);
             const msg = error.response?.data?.message || "Failed to create booking.";
             showNotification(msg, "error");
+            if (error.response?.status === 409) {
+                fetchFreeSlots(selectedElectrician.id); // Slot was just taken
+                bookingKeyRef.current = crypto.randomUUID();
+            }
         } finally {
             setBookingLoading(false);
         }
@@ -238,7 +265,7 @@ export default function UserDashboard() {
                             <div className="flex flex-col items-center text-center">
                                 <div className="w-32 h-32 rounded-full overflow-hidden mb-4 border-4 border-cyan-500/30">
                                     <img
-                                        src={user.imageProfile || 'https://ui-avatars.com/api/?name=' + (user.name || 'User') + '&background=0ea5e9&color=fff'}
+                                        src={user.imageMedium || user.imageProfile || 'https://ui-avatars.com/api/?name=' + (user.name || 'User') + '&background=0ea5e9&color=fff'}
                                         alt="Profile"
                                         className="w-full h-full object-cover"
                                     />
@@ -308,7 +335,7 @@ export default function UserDashboard() {
                                                 >
                                                     <div className="w-20 h-20 rounded-xl overflow-hidden border-2 border-slate-700 group-hover:border-cyan-500/30 transition-colors shrink-0">
                                                         <img
-                                                            src={elec.imageProfile || `https://ui-avatars.com/api/?name=${elec.name}&background=random`}
+                                                            src={elec.imageThumbnail || elec.imageProfile || `https://ui-avatars.com/api/?name=${elec.name}&background=random`}
                                                             alt=""
                                                             className="w-full h-full object-cover"
                                                         />
@@ -352,6 +379,14 @@ export default function UserDashboard() {
                                                 <p className="text-slate-500">No electricians available at the moment.</p>
                                             </div>
                                         )}
+                                        {nextCursor !== null && (
+                                            <button
+                                                onClick={() => fetchElectricians(nextCursor)}
+                                                className="col-span-1 md:col-span-2 py-3 bg-slate-800 hover:bg-slate-700 text-cyan-400 border border-cyan-500/30 rounded-xl text-xs font-bold transition-all active:scale-95"
+                                            >
+                                                Load more electricians
+                                            </button>
+                                        )}
                                     </div>
                                 )}
                             </div>
@@ -571,14 +606,23 @@ export default function UserDashboard() {
                                         required
                                     />
 
-                                    <Input
-                                        label="Scheduled Date & Time"
-                                        type="datetime-local"
-                                        name="scheduledDate"
-                                        value={bookingFormData.scheduledDate}
-                                        onChange={(e) => setBookingFormData({ ...bookingFormData, scheduledDate: e.target.value })}
-                                        required
-                                    />
+                                    <div>
+                                        <label className="block text-sm font-bold text-slate-400 mb-2">Available Slot</label>
+                                        <select
+                                            name="scheduledDate"
+                                            value={bookingFormData.scheduledDate}
+                                            onChange={(e) => setBookingFormData({ ...bookingFormData, scheduledDate: e.target.value })}
+                                            className="w-full px-4 py-3 bg-slate-900 border border-slate-700 rounded-xl text-white focus:outline-none focus:border-cyan-500 transition-colors"
+                                            required
+                                        >
+                                            <option value="">{freeSlots.length ? 'Select a time slot' : 'No free slots in the next 7 days'}</option>
+                                            {freeSlots.map((slot) => (
+                                                <option key={slot.start} value={slot.start}>
+                                                    {new Date(slot.start).toLocaleString()} – {new Date(slot.end).toLocaleTimeString()}
+                                                </option>
+                                            ))}
+                                        </select>
+                                    </div>
 
                                     <Input
                                         label="Estimated Cost (Optional)"
@@ -635,7 +679,7 @@ export default function UserDashboard() {
                                     <div className="relative -mt-16 mb-6">
                                         <div className="w-32 h-32 rounded-3xl overflow-hidden border-4 border-slate-800 shadow-xl">
                                             <img
-                                                src={viewingElectrician.imageProfile || `https://ui-avatars.com/api/?name=${viewingElectrician.name}&background=random`}
+                                                src={viewingElectrician.imageMedium || viewingElectrician.imageProfile || `https://ui-avatars.com/api/?name=${viewingElectrician.name}&background=random`}
                                                 alt=""
                                                 className="w-full h-full object-cover"
                                             />
@@ -8,11 +8,12 @@ class ChatService {
     this.isConnected = false;
     this.isConnecting = false;
     this.subscription = null;
+    this.errorSubscription = null;
   }
 
   // 🔹 Call this ONCE when chat page opens
   initialize(user) {
-    if (!user || !user.id) return;
+    if (!user || !user.id || !user.type) return;
     if (this.isConnected || this.isConnecting) return;
 
     this.connectedUser = user;
@@ -67,9 +68,12 @@ class ChatService {
         if (this.subscription) {
           this.subscription.unsubscribe();
         }
+        if (this.errorSubscription) {
+          this.errorSubscription.unsubscribe();
+        }
 
         this.subscription = this.stompClient.subscribe(
-          `/topic/chat/${this.connectedUser.id}`,
+          `/topic/chat/${this.connectedUser.type}/${this.connectedUser.id}`,
           (message) => {
             if (message?.body) {
               const data = JSON.parse(message.body);
@@ -77,6 +81,15 @@ class ChatService {
             }
           }
         );
+
+        this.errorSubscription = this.stompClient.subscribe(
+          `/topic/chat/${this.connectedUser.type}/${this.connectedUser.id}/errors`,
+          (message) => {
+            if (message?.body) {
+              this.handleRejected(JSON.parse(message.body));
+            }
+          }
+        );
       },
       (error) => {
         console.error("❌ WebSocket error:", error);
@@ -86,6 +99,16 @@ class ChatService {
     );
   }
 
+  // The server rejected a message it could not queue; nothing was stored or delivered
+  handleRejected(rejection) {
+    console.warn("⚠️ Message not sent:", rejection.error);
+    window.dispatchEvent(
+      new CustomEvent("messageRejected", {
+        detail: rejection
+      })
+    );
+  }
+
   isSocketConnected() {
     return this.isConnected && this.stompClient !== null;
   }
@@ -113,6 +136,10 @@ class ChatService {
       this.subscription.unsubscribe();
       this.subscription = null;
     }
+    if (this.errorSubscription) {
+      this.errorSubscription.unsubscribe();
+      this.errorSubscription = null;
+    }
 
     if (this.stompClient) {
       try {